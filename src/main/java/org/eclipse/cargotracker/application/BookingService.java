@@ -2,18 +2,27 @@ package org.eclipse.cargotracker.application;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 import javax.validation.Valid;
 import javax.validation.constraints.Future;
 import javax.validation.constraints.NotNull;
 import org.eclipse.cargotracker.domain.model.cargo.Itinerary;
+import org.eclipse.cargotracker.domain.model.cargo.RouteSpecification;
 import org.eclipse.cargotracker.domain.model.cargo.TrackingId;
 import org.eclipse.cargotracker.domain.model.location.UnLocode;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageDisruption;
 
 /** Cargo booking service. */
 // TODO [Jakarta EE 8] Adopt the Date-Time API.
 public interface BookingService {
 
-    /** Registers a new cargo in the tracking system, not yet routed. */
+    /**
+     * Registers a new cargo in the tracking system, not yet routed.
+     *
+     * @throws UnservedLaneException if no voyages lead from the origin to the destination
+     */
     TrackingId bookNewCargo(
             @NotNull(message = "Origin is required") @Valid UnLocode origin,
             @NotNull(message = "Destination is required") @Valid UnLocode destination,
@@ -25,11 +34,79 @@ public interface BookingService {
      * Requests a list of itineraries describing possible routes for this cargo.
      *
      * @param trackingId Cargo tracking ID
-     * @return A list of possible itineraries for this cargo
+     * @return A list of possible itineraries for this cargo, empty right away if no voyages lead
+     *     from its origin to its destination
      */
     List<Itinerary> requestPossibleRoutesForCargo(
             @NotNull(message = "Tracking ID is required") @Valid TrackingId trackingId);
 
+    /**
+     * Same as {@link #requestPossibleRoutesForCargo(TrackingId)}, but hands every itinerary to the
+     * consumer as soon as it is found, so the first ones can be shown while the rest are searched
+     * for.
+     *
+     * @param trackingId Cargo tracking ID
+     * @param consumer called with each possible itinerary, best first
+     * @return Completes once the last itinerary has been handed over, right away if no voyages
+     *     lead from the origin of the cargo to its destination
+     */
+    CompletionStage<Void> streamPossibleRoutesForCargo(
+            @NotNull(message = "Tracking ID is required") @Valid TrackingId trackingId,
+            @NotNull(message = "Consumer is required") Consumer<Itinerary> consumer);
+
+    /**
+     * Requests itineraries that take a misdirected cargo on from where it was last handled,
+     * rather than from its origin. Each one starts with the legs of the current itinerary the
+     * cargo travelled as planned and the leg it travelled since, so only the rest of the route is
+     * searched for.
+     *
+     * <p>Only a cargo unloaded somewhere its itinerary does not expect can be re-routed this way.
+     *
+     * @param trackingId Cargo tracking ID
+     * @return Itineraries satisfying the route specification of the cargo, an empty list if it is
+     *     not misdirected or cannot be re-routed from where it is
+     */
+    List<Itinerary> requestReroutesForMisdirectedCargo(
+            @NotNull(message = "Tracking ID is required") @Valid TrackingId trackingId);
+
+    /**
+     * Requests itineraries that take a cargo on from where it is now, for when its current
+     * itinerary can no longer be followed. A cargo not yet received or not yet routed is routed
+     * from its origin. A cargo in port keeps the legs it has travelled, and only the rest of the
+     * route is searched for, misdirected or not.
+     *
+     * @param trackingId Cargo tracking ID
+     * @param disruption the disrupted voyage the searched part of the route must keep clear of
+     * @return Itineraries satisfying the route specification of the cargo, an empty list if it is
+     *     on board a carrier, claimed or cannot be re-routed from where it is
+     */
+    List<Itinerary> requestReroutesForCargo(
+            @NotNull(message = "Tracking ID is required") @Valid TrackingId trackingId,
+            @NotNull(message = "Disruption is required") VoyageDisruption disruption);
+
+    /**
+     * Same as {@link #requestReroutesForCargo(TrackingId, VoyageDisruption)}, for re-routing many
+     * cargoes around the same disruption. The routes searched for in advance are taken from the
+     * map, under the {@link #requestRerouteSpecification(TrackingId) route specification} of the
+     * cargo. Only a cargo handled since is searched for on its own.
+     *
+     * @param searched routes around the disruption, per route specification
+     */
+    List<Itinerary> requestReroutesForCargo(
+            @NotNull(message = "Tracking ID is required") @Valid TrackingId trackingId,
+            @NotNull(message = "Disruption is required") VoyageDisruption disruption,
+            @NotNull(message = "Searched routes are required")
+                    Map<RouteSpecification, List<Itinerary>> searched);
+
+    /**
+     * @param trackingId Cargo tracking ID
+     * @return The route specification re-routing the cargo searches for, from where it is now to
+     *     its destination, or null if nothing is searched for: it is on board a carrier, claimed or
+     *     already at its destination
+     */
+    RouteSpecification requestRerouteSpecification(
+            @NotNull(message = "Tracking ID is required") @Valid TrackingId trackingId);
+
     void assignCargoToRoute(
             @NotNull(message = "Itinerary is required") @Valid Itinerary itinerary,
             @NotNull(message = "Tracking ID is required") @Valid TrackingId trackingId);
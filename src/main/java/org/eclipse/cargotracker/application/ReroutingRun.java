@@ -0,0 +1,147 @@
+package org.eclipse.cargotracker.application;
+
+import org.eclipse.cargotracker.domain.model.cargo.TrackingId;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageNumber;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of re-routing the cargoes affected by one disruption of a voyage. The run is updated by
+ * the workers as they go and can be read at any time.
+ */
+public class ReroutingRun {
+
+    /** What became of one cargo. */
+    public enum Outcome {
+        /** Assigned to the best itinerary avoiding the disruption. */
+        ASSIGNED,
+        /** No acceptable itinerary was found, a planner has to decide. */
+        QUEUED_FOR_PLANNER,
+        /** The disruption is not on the part of the itinerary still ahead of the cargo. */
+        UNAFFECTED,
+        /** Re-routing failed, the cargo keeps its itinerary. */
+        FAILED
+    }
+
+    private final String id;
+    private final VoyageNumber voyageNumber;
+    private final LocalDateTime disruptionStart;
+    private final LocalDateTime disruptionEnd;
+    private final int cargoCount;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startNanos = System.nanoTime();
+
+    private final Map<Outcome, AtomicInteger> counts = new EnumMap<>(Outcome.class);
+    private final Queue<TrackingId> queuedForPlanner = new ConcurrentLinkedQueue<>();
+
+    private volatile LocalDateTime finishedAt;
+    private volatile long finishNanos;
+
+    public ReroutingRun(
+            String id,
+            VoyageNumber voyageNumber,
+            LocalDateTime disruptionStart,
+            LocalDateTime disruptionEnd,
+            int cargoCount) {
+        this.id = id;
+        this.voyageNumber = voyageNumber;
+        this.disruptionStart = disruptionStart;
+        this.disruptionEnd = disruptionEnd;
+        this.cargoCount = cargoCount;
+
+        for (Outcome outcome : Outcome.values()) {
+            counts.put(outcome, new AtomicInteger());
+        }
+    }
+
+    public void record(TrackingId trackingId, Outcome outcome) {
+        if (outcome == Outcome.QUEUED_FOR_PLANNER) {
+            queuedForPlanner.add(trackingId);
+        }
+
+        counts.get(outcome).incrementAndGet();
+    }
+
+    public void finish() {
+        finishNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public VoyageNumber getVoyageNumber() {
+        return voyageNumber;
+    }
+
+    public LocalDateTime getDisruptionStart() {
+        return disruptionStart;
+    }
+
+    public LocalDateTime getDisruptionEnd() {
+        return disruptionEnd;
+    }
+
+    /** @return The number of cargoes with a leg on the voyage during the disruption. */
+    public int getCargoCount() {
+        return cargoCount;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    /** @return When the last cargo was done, or null while the run is going on. */
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    public int getCount(Outcome outcome) {
+        return counts.get(outcome).get();
+    }
+
+    public int getProcessedCount() {
+        return counts.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    /** @return The cargoes a planner has to route, in the order they were queued. */
+    public List<TrackingId> getQueuedForPlanner() {
+        return new ArrayList<>(queuedForPlanner);
+    }
+
+    /** @return Cargoes done per second, so far or over the whole run. */
+    public double getThroughput() {
+        long end = isFinished() ? finishNanos : System.nanoTime();
+        double seconds = Math.max(end - startNanos, 1) / 1e9;
+
+        return getProcessedCount() / seconds;
+    }
+
+    @Override
+    public String toString() {
+        return "ReroutingRun{"
+                + "id="
+                + id
+                + ", voyageNumber="
+                + voyageNumber
+                + ", processed="
+                + getProcessedCount()
+                + "/"
+                + cargoCount
+                + ", counts="
+                + counts
+                + '}';
+    }
+}
@@ -0,0 +1,30 @@
+package org.eclipse.cargotracker.application;
+
+import org.eclipse.cargotracker.domain.model.voyage.VoyageNumber;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** Re-routes the cargoes of a cancelled or delayed voyage in bulk. */
+public interface ReroutingService {
+
+    /**
+     * Starts re-routing every cargo with a leg on the voyage during the disruption, in the
+     * background. Each one still ahead of the disruption is assigned its best itinerary avoiding
+     * it, or queued for a planner if there is none.
+     *
+     * @return The run, its progress updated as cargoes are done.
+     */
+    ReroutingRun rerouteDisruptedCargo(
+            @NotNull(message = "Voyage number is required") @Valid VoyageNumber voyageNumber,
+            @NotNull(message = "Disruption start is required") LocalDateTime disruptionStart,
+            @NotNull(message = "Disruption end is required") LocalDateTime disruptionEnd);
+
+    /** @return The run, or null if there is no run with the ID. */
+    ReroutingRun findRun(@NotNull(message = "Run ID is required") String id);
+
+    /** @return The latest runs, the most recent first. */
+    List<ReroutingRun> listRuns();
+}
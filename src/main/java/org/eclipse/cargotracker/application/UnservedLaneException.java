@@ -0,0 +1,32 @@
+package org.eclipse.cargotracker.application;
+
+import org.eclipse.cargotracker.domain.model.location.UnLocode;
+
+import javax.ejb.ApplicationException;
+
+/**
+ * If cargo is booked between two locations no voyages connect, so it could never be routed.
+ *
+ * <p>Clients are expected to ask first whether the lane is served, so this is unchecked. It still
+ * reaches them as is rather than wrapped in an EJB exception, and nothing is stored.
+ */
+@ApplicationException(rollback = true)
+public class UnservedLaneException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+    private final UnLocode origin;
+    private final UnLocode destination;
+
+    public UnservedLaneException(UnLocode origin, UnLocode destination) {
+        this.origin = origin;
+        this.destination = destination;
+    }
+
+    @Override
+    public String getMessage() {
+        return "No voyages lead from "
+                + origin.getIdString()
+                + " to "
+                + destination.getIdString();
+    }
+}
@@ -0,0 +1,153 @@
+package org.eclipse.cargotracker.application.internal;
+
+import org.eclipse.cargotracker.application.BookingService;
+import org.eclipse.cargotracker.application.ReroutingRun.Outcome;
+import org.eclipse.cargotracker.domain.model.cargo.*;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageDisruption;
+
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Re-routes one cargo around a voyage disruption. Each cargo is done in a transaction of its own,
+ * so a failure or a slow search holds up no other cargo of the run. What each cargo needs searched
+ * is found out first, so that a run can search the routes of all its cargoes in one go.
+ */
+@Stateless
+public class CargoRerouter {
+
+    private static final Comparator<Itinerary> EARLIEST_ARRIVAL_FIRST =
+            Comparator.<Itinerary, LocalDateTime>comparing(CargoRerouter::finalArrival)
+                    .thenComparingInt(itinerary -> itinerary.getLegs().size());
+
+    @Inject private CargoRepository cargoRepository;
+
+    @Inject private BookingService bookingService;
+
+    // no-args constructor required by CDI
+    public CargoRerouter() {}
+
+    public CargoRerouter(CargoRepository cargoRepository, BookingService bookingService) {
+        this.cargoRepository = cargoRepository;
+        this.bookingService = bookingService;
+    }
+
+    /**
+     * @return What is to be searched for to re-route the cargo, or null if it needs no search: it
+     *     is not disrupted ahead, at sea or at its destination.
+     */
+    public RouteSpecification findRerouteSpecification(
+            TrackingId trackingId, VoyageDisruption disruption) {
+        Cargo cargo = cargoRepository.find(trackingId, CargoFetchPlan.ROUTING);
+
+        if (cargo == null
+                || !isDisruptedAhead(cargo, disruption)
+                || cargo.getDelivery().getTransportStatus() == TransportStatus.ONBOARD_CARRIER) {
+            return null;
+        }
+
+        return bookingService.requestRerouteSpecification(trackingId);
+    }
+
+    /** @param searched routes around the disruption searched in advance, per route specification */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public Outcome reroute(
+            TrackingId trackingId,
+            VoyageDisruption disruption,
+            Map<RouteSpecification, List<Itinerary>> searched) {
+        Cargo cargo = cargoRepository.find(trackingId, CargoFetchPlan.ROUTING);
+
+        if (cargo == null) {
+            return Outcome.UNAFFECTED;
+        }
+
+        Delivery delivery = cargo.getDelivery();
+
+        if (!isDisruptedAhead(cargo, disruption)) {
+            return Outcome.UNAFFECTED;
+        }
+
+        // Nothing can be booked for cargo at sea, it is up to a planner where it gets off.
+        if (delivery.getTransportStatus() == TransportStatus.ONBOARD_CARRIER) {
+            return Outcome.QUEUED_FOR_PLANNER;
+        }
+
+        // The search already keeps clear of the disruption, this only guards the legs kept from
+        // the current itinerary.
+        LocalDateTime now = LocalDateTime.now();
+        Optional<Itinerary> best =
+                bookingService.requestReroutesForCargo(trackingId, disruption, searched).stream()
+                        .filter(itinerary -> avoidsDisruption(itinerary, now, disruption))
+                        .min(EARLIEST_ARRIVAL_FIRST);
+
+        if (!best.isPresent()) {
+            return Outcome.QUEUED_FOR_PLANNER;
+        }
+
+        bookingService.assignCargoToRoute(best.get(), trackingId);
+
+        return Outcome.ASSIGNED;
+    }
+
+    private boolean isDisruptedAhead(Cargo cargo, VoyageDisruption disruption) {
+        Delivery delivery = cargo.getDelivery();
+
+        // Cargo off its itinerary has to be re-routed anyway.
+        if (delivery.isMisdirected()) {
+            return true;
+        }
+
+        return legsAhead(cargo).stream()
+                .anyMatch(leg -> isDisrupted(leg, disruption));
+    }
+
+    /** @return The legs of the itinerary the cargo has not travelled yet. */
+    private List<Leg> legsAhead(Cargo cargo) {
+        Delivery delivery = cargo.getDelivery();
+        List<Leg> legs = cargo.getItinerary().getLegs();
+
+        switch (delivery.getTransportStatus()) {
+            case NOT_RECEIVED:
+                return legs;
+            case IN_PORT:
+                List<Leg> travelled =
+                        cargo.getItinerary().legsBeforeLoadAt(delivery.getLastKnownLocation());
+                return travelled == null
+                        ? Collections.emptyList()
+                        : legs.subList(travelled.size(), legs.size());
+            case ONBOARD_CARRIER:
+                return legs.stream()
+                        .dropWhile(
+                                leg -> !leg.getVoyage().sameIdentityAs(delivery.getCurrentVoyage()))
+                        .collect(Collectors.toList());
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    /** Legs already travelled are kept in a re-route, only the ones to come must avoid it. */
+    private static boolean avoidsDisruption(
+            Itinerary itinerary, LocalDateTime now, VoyageDisruption disruption) {
+        return itinerary.getLegs().stream()
+                .noneMatch(leg -> leg.getLoadTime().isAfter(now) && isDisrupted(leg, disruption));
+    }
+
+    private static boolean isDisrupted(Leg leg, VoyageDisruption disruption) {
+        return disruption.affects(leg.getVoyage(), leg.getLoadTime(), leg.getUnloadTime());
+    }
+
+    private static LocalDateTime finalArrival(Itinerary itinerary) {
+        List<Leg> legs = itinerary.getLegs();
+
+        return legs.get(legs.size() - 1).getUnloadTime();
+    }
+}
@@ -1,19 +1,30 @@
 package org.eclipse.cargotracker.application.internal;
 
 import org.eclipse.cargotracker.application.BookingService;
+import org.eclipse.cargotracker.application.UnservedLaneException;
 import org.eclipse.cargotracker.domain.model.cargo.*;
+import org.eclipse.cargotracker.domain.model.handling.HandlingEvent;
+import org.eclipse.cargotracker.domain.model.handling.HandlingEventRepository;
 import org.eclipse.cargotracker.domain.model.location.Location;
 import org.eclipse.cargotracker.domain.model.location.LocationRepository;
 import org.eclipse.cargotracker.domain.model.location.UnLocode;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageDisruption;
+import org.eclipse.cargotracker.domain.service.NetworkReachability;
 import org.eclipse.cargotracker.domain.service.RoutingService;
 
 import javax.ejb.Stateless;
 import javax.inject.Inject;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 // TODO [Jakarta EE 8] Adopt the Date-Time API.
 @Stateless
@@ -21,15 +32,43 @@ public class DefaultBookingService implements BookingService {
 
     @Inject private CargoRepository cargoRepository;
     @Inject private LocationRepository locationRepository;
+    @Inject private HandlingEventRepository handlingEventRepository;
     @Inject private RoutingService routingService;
+    @Inject private NetworkReachability networkReachability;
     @Inject private Logger logger;
 
+    // no-args constructor required by CDI
+    public DefaultBookingService() {}
+
+    public DefaultBookingService(
+            CargoRepository cargoRepository,
+            LocationRepository locationRepository,
+            HandlingEventRepository handlingEventRepository,
+            RoutingService routingService,
+            NetworkReachability networkReachability,
+            Logger logger) {
+        this.cargoRepository = cargoRepository;
+        this.locationRepository = locationRepository;
+        this.handlingEventRepository = handlingEventRepository;
+        this.routingService = routingService;
+        this.networkReachability = networkReachability;
+        this.logger = logger;
+    }
+
     @Override
     public TrackingId bookNewCargo(
             UnLocode originUnLocode, UnLocode destinationUnLocode, LocalDate arrivalDeadline) {
         TrackingId trackingId = cargoRepository.nextTrackingId();
         Location origin = locationRepository.find(originUnLocode);
         Location destination = locationRepository.find(destinationUnLocode);
+
+        // No voyage leads to or from a location we do not know.
+        if (origin == null
+                || destination == null
+                || !networkReachability.isReachable(origin, destination)) {
+            throw new UnservedLaneException(originUnLocode, destinationUnLocode);
+        }
+
         RouteSpecification routeSpecification =
                 new RouteSpecification(origin, destination, arrivalDeadline);
 
@@ -46,18 +85,284 @@ public class DefaultBookingService implements BookingService {
 
     @Override
     public List<Itinerary> requestPossibleRoutesForCargo(TrackingId trackingId) {
-        Cargo cargo = cargoRepository.find(trackingId);
+        Cargo cargo = cargoRepository.find(trackingId, CargoFetchPlan.ROUTING);
 
-        if (cargo == null) {
+        if (cargo == null || !isReachable(cargo)) {
             return Collections.emptyList();
         }
 
         return routingService.fetchRoutesForSpecification(cargo.getRouteSpecification());
     }
 
+    @Override
+    public CompletionStage<Void> streamPossibleRoutesForCargo(
+            TrackingId trackingId, Consumer<Itinerary> consumer) {
+        Cargo cargo = cargoRepository.find(trackingId, CargoFetchPlan.ROUTING);
+
+        if (cargo == null || !isReachable(cargo)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return routingService.streamRoutesForSpecification(
+                cargo.getRouteSpecification(), consumer);
+    }
+
+    @Override
+    public List<Itinerary> requestReroutesForMisdirectedCargo(TrackingId trackingId) {
+        Cargo cargo = cargoRepository.find(trackingId, CargoFetchPlan.ROUTING);
+
+        if (cargo == null || !cargo.getDelivery().isMisdirected()) {
+            return Collections.emptyList();
+        }
+
+        return requestReroutesForMisdirectedCargo(cargo, null, Collections.emptyMap());
+    }
+
+    @Override
+    public RouteSpecification requestRerouteSpecification(TrackingId trackingId) {
+        Cargo cargo = cargoRepository.find(trackingId, CargoFetchPlan.ROUTING);
+
+        if (cargo == null) {
+            return null;
+        }
+
+        Delivery delivery = cargo.getDelivery();
+
+        if (delivery.getTransportStatus() == TransportStatus.NOT_RECEIVED
+                || delivery.getRoutingStatus() == RoutingStatus.NOT_ROUTED) {
+            return cargo.getRouteSpecification();
+        }
+
+        if (delivery.getTransportStatus() != TransportStatus.IN_PORT
+                || delivery.getLastKnownLocation()
+                        .sameIdentityAs(cargo.getRouteSpecification().getDestination())) {
+            return null;
+        }
+
+        return continuationSpecification(cargo);
+    }
+
+    @Override
+    public List<Itinerary> requestReroutesForCargo(
+            TrackingId trackingId, VoyageDisruption disruption) {
+        return requestReroutesForCargo(trackingId, disruption, Collections.emptyMap());
+    }
+
+    @Override
+    public List<Itinerary> requestReroutesForCargo(
+            TrackingId trackingId,
+            VoyageDisruption disruption,
+            Map<RouteSpecification, List<Itinerary>> searched) {
+        Cargo cargo = cargoRepository.find(trackingId, CargoFetchPlan.ROUTING);
+
+        if (cargo == null) {
+            return Collections.emptyList();
+        }
+
+        Delivery delivery = cargo.getDelivery();
+
+        if (delivery.getTransportStatus() == TransportStatus.NOT_RECEIVED
+                || delivery.getRoutingStatus() == RoutingStatus.NOT_ROUTED) {
+            return fetchRoutes(cargo.getRouteSpecification(), disruption, searched);
+        }
+
+        if (delivery.getTransportStatus() != TransportStatus.IN_PORT) {
+            return Collections.emptyList();
+        }
+
+        if (delivery.isMisdirected()) {
+            return requestReroutesForMisdirectedCargo(cargo, disruption, searched);
+        }
+
+        List<Leg> travelled =
+                cargo.getItinerary().legsBeforeLoadAt(delivery.getLastKnownLocation());
+
+        // Nothing is loaded where the cargo is, it has arrived.
+        if (travelled == null) {
+            return Collections.emptyList();
+        }
+
+        return reroutesFrom(cargo, travelled, null, disruption, searched);
+    }
+
+    // Spares the path-finder a search that cannot succeed.
+    private boolean isReachable(Cargo cargo) {
+        RouteSpecification routeSpecification = cargo.getRouteSpecification();
+
+        if (networkReachability.isReachable(
+                routeSpecification.getOrigin(), routeSpecification.getDestination())) {
+            return true;
+        }
+
+        logger.log(
+                Level.INFO,
+                "No voyages lead from the origin to the destination of cargo {0}",
+                cargo.getTrackingId());
+        return false;
+    }
+
+    private List<Itinerary> requestReroutesForMisdirectedCargo(
+            Cargo cargo,
+            VoyageDisruption disruption,
+            Map<RouteSpecification, List<Itinerary>> searched) {
+        TrackingId trackingId = cargo.getTrackingId();
+        List<HandlingEvent> events =
+                handlingEventRepository
+                        .lookupHandlingHistoryOfCargo(trackingId)
+                        .getDistinctEventsByCompletionTime();
+        HandlingEvent unload = events.isEmpty() ? null : events.get(events.size() - 1);
+
+        if (unload == null || unload.getType() != HandlingEvent.Type.UNLOAD) {
+            logger.log(
+                    Level.INFO,
+                    "Cargo {0} is misdirected but not unloaded, it cannot be re-routed yet",
+                    trackingId);
+            return Collections.emptyList();
+        }
+
+        HandlingEvent load = findLoadBeforeLast(events);
+        List<Leg> travelled =
+                load == null ? null : cargo.getItinerary().legsBeforeLoadAt(load.getLocation());
+
+        if (travelled == null) {
+            logger.log(
+                    Level.INFO,
+                    "Cargo {0} left its itinerary before the last voyage, it must be routed anew",
+                    trackingId);
+            return Collections.emptyList();
+        }
+
+        return reroutesFrom(
+                cargo,
+                travelled,
+                new Leg(
+                        unload.getVoyage(),
+                        load.getLocation(),
+                        unload.getLocation(),
+                        load.getCompletionTime(),
+                        unload.getCompletionTime()),
+                disruption,
+                searched);
+    }
+
+    /**
+     * @param travelled legs of the current itinerary the cargo travelled as planned
+     * @param strayLeg the leg travelled off the itinerary since, or null
+     * @param disruption the disrupted voyage the continuation must keep clear of, or null
+     * @param searched continuations searched in advance, per route specification
+     * @return Itineraries starting with the travelled legs and continuing from where the cargo is,
+     *     that satisfy its route specification.
+     */
+    private List<Itinerary> reroutesFrom(
+            Cargo cargo,
+            List<Leg> travelled,
+            Leg strayLeg,
+            VoyageDisruption disruption,
+            Map<RouteSpecification, List<Itinerary>> searched) {
+        RouteSpecification routeSpecification = cargo.getRouteSpecification();
+        Location lastKnownLocation = cargo.getDelivery().getLastKnownLocation();
+        List<Itinerary> candidates = new ArrayList<>();
+
+        if (lastKnownLocation.sameIdentityAs(routeSpecification.getDestination())) {
+            candidates.add(
+                    new Itinerary(reroutedLegs(travelled, strayLeg, Collections.emptyList())));
+        } else {
+            // The cargo has been in port since it was last handled, so departures from now on
+            // are searched for, and only from where it is.
+            fetchRoutes(continuationSpecification(cargo), disruption, searched)
+                    .forEach(
+                            continuation ->
+                                    candidates.add(
+                                            new Itinerary(
+                                                    reroutedLegs(
+                                                            travelled,
+                                                            strayLeg,
+                                                            continuation.getLegs()))));
+        }
+
+        candidates.removeIf(itinerary -> !routeSpecification.isSatisfiedBy(itinerary));
+
+        return candidates;
+    }
+
+    /** @return The rest of the trip, from where the cargo is to its destination. */
+    private RouteSpecification continuationSpecification(Cargo cargo) {
+        RouteSpecification routeSpecification = cargo.getRouteSpecification();
+
+        return new RouteSpecification(
+                cargo.getDelivery().getLastKnownLocation(),
+                routeSpecification.getDestination(),
+                routeSpecification.getArrivalDeadline());
+    }
+
+    /**
+     * @return Routes for the specification, searched around the disruption if there is one. Routes
+     *     searched in advance are copied, other cargoes may be re-routed over them as well.
+     */
+    private List<Itinerary> fetchRoutes(
+            RouteSpecification routeSpecification,
+            VoyageDisruption disruption,
+            Map<RouteSpecification, List<Itinerary>> searched) {
+        List<Itinerary> itineraries = searched.get(routeSpecification);
+
+        if (itineraries != null) {
+            return itineraries.stream()
+                    .map(
+                            itinerary ->
+                                    new Itinerary(
+                                            itinerary.getLegs().stream()
+                                                    .map(this::copyOf)
+                                                    .collect(Collectors.toList())))
+                    .collect(Collectors.toList());
+        }
+
+        return disruption == null
+                ? routingService.fetchRoutesForSpecification(routeSpecification)
+                : routingService.fetchRoutesForSpecification(routeSpecification, disruption);
+    }
+
+    /** @return The load onto the voyage the last event unloaded from, or null if there is none. */
+    private HandlingEvent findLoadBeforeLast(List<HandlingEvent> events) {
+        HandlingEvent unload = events.get(events.size() - 1);
+
+        for (int i = events.size() - 2; i >= 0; i--) {
+            HandlingEvent event = events.get(i);
+            if (event.getType() == HandlingEvent.Type.LOAD
+                    && event.getVoyage().sameIdentityAs(unload.getVoyage())) {
+                return event;
+            }
+        }
+
+        return null;
+    }
+
+    /** Legs are entities, so every itinerary gets its own copies of the travelled ones. */
+    private List<Leg> reroutedLegs(List<Leg> travelled, Leg strayLeg, List<Leg> continuation) {
+        List<Leg> legs = new ArrayList<>(travelled.size() + 1 + continuation.size());
+
+        for (Leg leg : travelled) {
+            legs.add(copyOf(leg));
+        }
+        if (strayLeg != null) {
+            legs.add(copyOf(strayLeg));
+        }
+        legs.addAll(continuation);
+
+        return legs;
+    }
+
+    private Leg copyOf(Leg leg) {
+        return new Leg(
+                leg.getVoyage(),
+                leg.getLoadLocation(),
+                leg.getUnloadLocation(),
+                leg.getLoadTime(),
+                leg.getUnloadTime());
+    }
+
     @Override
     public void assignCargoToRoute(Itinerary itinerary, TrackingId trackingId) {
-        Cargo cargo = cargoRepository.find(trackingId);
+        Cargo cargo = cargoRepository.find(trackingId, CargoFetchPlan.ROUTING);
 
         cargo.assignToRoute(itinerary);
         cargoRepository.store(cargo);
@@ -67,7 +372,7 @@ public class DefaultBookingService implements BookingService {
 
     @Override
     public void changeDestination(TrackingId trackingId, UnLocode unLocode) {
-        Cargo cargo = cargoRepository.find(trackingId);
+        Cargo cargo = cargoRepository.find(trackingId, CargoFetchPlan.ROUTING);
         Location newDestination = locationRepository.find(unLocode);
 
         RouteSpecification routeSpecification =
@@ -87,7 +392,7 @@ public class DefaultBookingService implements BookingService {
 
     @Override
     public void changeDeadline(TrackingId trackingId, LocalDate newDeadline) {
-        Cargo cargo = cargoRepository.find(trackingId);
+        Cargo cargo = cargoRepository.find(trackingId, CargoFetchPlan.ROUTING);
 
         RouteSpecification routeSpecification =
                 new RouteSpecification(
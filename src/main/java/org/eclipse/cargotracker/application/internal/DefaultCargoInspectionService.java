@@ -3,6 +3,7 @@ package org.eclipse.cargotracker.application.internal;
 import org.eclipse.cargotracker.application.ApplicationEvents;
 import org.eclipse.cargotracker.application.CargoInspectionService;
 import org.eclipse.cargotracker.domain.model.cargo.Cargo;
+import org.eclipse.cargotracker.domain.model.cargo.CargoFetchPlan;
 import org.eclipse.cargotracker.domain.model.cargo.CargoRepository;
 import org.eclipse.cargotracker.domain.model.cargo.TrackingId;
 import org.eclipse.cargotracker.domain.model.handling.HandlingEventRepository;
@@ -48,7 +49,7 @@ public class DefaultCargoInspectionService implements CargoInspectionService {
 
     @Override
     public void inspectCargo(TrackingId trackingId) {
-        Cargo cargo = cargoRepository.find(trackingId);
+        Cargo cargo = cargoRepository.find(trackingId, CargoFetchPlan.INSPECTION);
 
         if (cargo == null) {
             LOGGER.log(Level.WARNING, "Can't inspect non-existing cargo {0}", trackingId);
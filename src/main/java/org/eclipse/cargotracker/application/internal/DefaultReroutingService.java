@@ -0,0 +1,223 @@
+package org.eclipse.cargotracker.application.internal;
+
+import org.eclipse.cargotracker.application.ReroutingRun;
+import org.eclipse.cargotracker.application.ReroutingRun.Outcome;
+import org.eclipse.cargotracker.application.ReroutingService;
+import org.eclipse.cargotracker.domain.model.cargo.CargoRepository;
+import org.eclipse.cargotracker.domain.model.cargo.Itinerary;
+import org.eclipse.cargotracker.domain.model.cargo.RouteSpecification;
+import org.eclipse.cargotracker.domain.model.cargo.TrackingId;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageDisruption;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageNumber;
+import org.eclipse.cargotracker.domain.service.RoutingService;
+
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Re-routes the affected cargoes on the managed executor, with no more of them in flight than the
+ * re-routing concurrency configuration entry allows, so a large disruption does not take every
+ * thread and path-finder search of the application at once. Each worker takes the next cargo off a
+ * shared queue until it is empty.
+ *
+ * <p>A run goes over its cargoes twice. The first pass finds out what each one needs searched, so
+ * the routes of all of them can be asked for in one batch around the disrupted voyage. The second
+ * pass re-routes each cargo from those routes.
+ *
+ * <p>Runs are only kept in memory, the latest ones first.
+ */
+@ApplicationScoped
+public class DefaultReroutingService implements ReroutingService {
+
+    private static final int MAX_RUNS = 100;
+
+    @Inject private Logger logger;
+
+    @Inject private CargoRepository cargoRepository;
+
+    @Inject private CargoRerouter cargoRerouter;
+
+    @Inject private RoutingService routingService;
+
+    @Resource private ManagedExecutorService managedExecutorService;
+
+    @Resource(lookup = "java:app/configuration/ReroutingConcurrency")
+    private Integer concurrency;
+
+    private final Map<String, ReroutingRun> runs =
+            Collections.synchronizedMap(
+                    new LinkedHashMap<String, ReroutingRun>() {
+                        @Override
+                        protected boolean removeEldestEntry(Entry<String, ReroutingRun> eldest) {
+                            return size() > MAX_RUNS;
+                        }
+                    });
+
+    @Override
+    public ReroutingRun rerouteDisruptedCargo(
+            VoyageNumber voyageNumber,
+            LocalDateTime disruptionStart,
+            LocalDateTime disruptionEnd) {
+        List<TrackingId> affected =
+                cargoRepository.findTrackingIdsByVoyage(
+                        voyageNumber, disruptionStart, disruptionEnd);
+        ReroutingRun run =
+                new ReroutingRun(
+                        UUID.randomUUID().toString(),
+                        voyageNumber,
+                        disruptionStart,
+                        disruptionEnd,
+                        affected.size());
+        runs.put(run.getId(), run);
+
+        logger.log(
+                Level.INFO,
+                "Re-routing {0} cargoes of voyage {1}, run {2}",
+                new Object[] {affected.size(), voyageNumber, run.getId()});
+
+        VoyageDisruption disruption =
+                new VoyageDisruption(voyageNumber, disruptionStart, disruptionEnd);
+        int workerCount = Math.min(Math.max(concurrency, 1), affected.size());
+        Map<TrackingId, RouteSpecification> searches = new ConcurrentHashMap<>();
+
+        onWorkers(affected, workerCount, trackingId -> plan(trackingId, disruption, searches))
+                .thenApply(planned -> searchAll(searches.values(), disruption, run))
+                .thenCompose(
+                        searched ->
+                                onWorkers(
+                                        affected,
+                                        workerCount,
+                                        trackingId ->
+                                                reroute(trackingId, disruption, searched, run)))
+                .whenComplete(
+                        (result, failure) -> {
+                            run.finish();
+                            logger.log(
+                                    Level.INFO,
+                                    "Re-routing run {0} done, {1} cargoes per second: {2}",
+                                    new Object[] {
+                                        run.getId(),
+                                        String.format("%.1f", run.getThroughput()),
+                                        run
+                                    });
+                        });
+
+        return run;
+    }
+
+    /** Each worker takes the next cargo off a queue shared by all of them until it is empty. */
+    private CompletableFuture<Void> onWorkers(
+            List<TrackingId> trackingIds, int workerCount, Consumer<TrackingId> task) {
+        Queue<TrackingId> pending = new ConcurrentLinkedQueue<>(trackingIds);
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[workerCount];
+
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] =
+                    CompletableFuture.runAsync(
+                            () -> {
+                                TrackingId trackingId;
+                                while ((trackingId = pending.poll()) != null) {
+                                    task.accept(trackingId);
+                                }
+                            },
+                            managedExecutorService);
+        }
+
+        return CompletableFuture.allOf(workers);
+    }
+
+    private void plan(
+            TrackingId trackingId,
+            VoyageDisruption disruption,
+            Map<TrackingId, RouteSpecification> searches) {
+        try {
+            RouteSpecification routeSpecification =
+                    cargoRerouter.findRerouteSpecification(trackingId, disruption);
+            if (routeSpecification != null) {
+                searches.put(trackingId, routeSpecification);
+            }
+        } catch (RuntimeException e) {
+            // Re-routing the cargo tries again, and records the failure if it fails as well.
+            logger.log(Level.FINE, "Could not find what to search for cargo " + trackingId, e);
+        }
+    }
+
+    /**
+     * Searches the routes of every cargo of the run in one batch, lanes shared by several cargoes
+     * only once. If the batch fails, each cargo searches on its own as it is re-routed.
+     */
+    private Map<RouteSpecification, List<Itinerary>> searchAll(
+            Collection<RouteSpecification> routeSpecifications,
+            VoyageDisruption disruption,
+            ReroutingRun run) {
+        if (routeSpecifications.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        try {
+            return routingService.fetchRoutesForSpecifications(
+                    new HashSet<>(routeSpecifications), disruption);
+        } catch (RuntimeException e) {
+            logger.log(
+                    Level.WARNING,
+                    "Could not search the routes of re-routing run "
+                            + run.getId()
+                            + " in one batch, searching per cargo",
+                    e);
+            return Collections.emptyMap();
+        }
+    }
+
+    private void reroute(
+            TrackingId trackingId,
+            VoyageDisruption disruption,
+            Map<RouteSpecification, List<Itinerary>> searched,
+            ReroutingRun run) {
+        Outcome outcome;
+
+        try {
+            outcome = cargoRerouter.reroute(trackingId, disruption, searched);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Could not re-route cargo " + trackingId, e);
+            outcome = Outcome.FAILED;
+        }
+
+        run.record(trackingId, outcome);
+    }
+
+    @Override
+    public ReroutingRun findRun(String id) {
+        return runs.get(id);
+    }
+
+    @Override
+    public List<ReroutingRun> listRuns() {
+        List<ReroutingRun> latestFirst;
+
+        synchronized (runs) {
+            latestFirst = new ArrayList<>(runs.values());
+        }
+        Collections.reverse(latestFirst);
+
+        return latestFirst;
+    }
+}
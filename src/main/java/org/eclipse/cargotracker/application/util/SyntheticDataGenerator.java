@@ -0,0 +1,104 @@
+package org.eclipse.cargotracker.application.util;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.ejb.DependsOn;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads a {@link SyntheticWorld} next to the sample data, to have something large enough to take
+ * performance numbers on. Disabled unless a number of locations is configured, the sizes, the seed
+ * and the reference time are set through the webapp.synthetic* build properties. Given the same
+ * properties, every deployment loads the same world.
+ */
+@Singleton
+@Startup
+@DependsOn("SampleDataGenerator")
+public class SyntheticDataGenerator {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Inject private Logger logger;
+
+    @Inject private SyntheticWorldWriter writer;
+
+    @Resource(lookup = "java:app/configuration/SyntheticLocations")
+    private Integer locationCount;
+
+    @Resource(lookup = "java:app/configuration/SyntheticVoyages")
+    private Integer voyageCount;
+
+    @Resource(lookup = "java:app/configuration/SyntheticCargos")
+    private Integer cargoCount;
+
+    @Resource(lookup = "java:app/configuration/SyntheticEvents")
+    private Integer eventCount;
+
+    @Resource(lookup = "java:app/configuration/SyntheticSeed")
+    private Long seed;
+
+    // ISO local date-time, such as 2026-01-01T00:00.
+    @Resource(lookup = "java:app/configuration/SyntheticReferenceTime")
+    private String referenceTime;
+
+    // Every batch commits on its own, see SyntheticWorldWriter.
+    @PostConstruct
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void loadSyntheticData() {
+        if (locationCount == null || locationCount < 2) {
+            return;
+        }
+
+        logger.log(
+                Level.INFO,
+                "Loading synthetic world of {0} locations, {1} voyages, {2} cargos and up to {3}"
+                        + " handling events, seed {4}, at {5}.",
+                new Object[] {
+                    locationCount, voyageCount, cargoCount, eventCount, seed, referenceTime
+                });
+        long start = System.nanoTime();
+
+        SyntheticWorld world =
+                new SyntheticWorld(
+                        locationCount,
+                        voyageCount,
+                        cargoCount,
+                        eventCount,
+                        seed,
+                        LocalDateTime.parse(referenceTime));
+
+        persistInBatches(world.getLocations());
+        persistInBatches(world.getVoyages());
+
+        int[] written = new int[2];
+        world.generateCargos(
+                BATCH_SIZE,
+                batch -> {
+                    writer.persistHandledCargos(batch);
+                    written[0] += batch.size();
+                    written[1] += batch.stream().mapToInt(cargo -> cargo.getEvents().size()).sum();
+                    if (written[0] % (100 * BATCH_SIZE) == 0) {
+                        logger.log(Level.INFO, "Loaded {0} synthetic cargos.", written[0]);
+                    }
+                });
+
+        logger.log(
+                Level.INFO,
+                "Loaded {0} synthetic cargos with {1} handling events in {2} s.",
+                new Object[] {written[0], written[1], (System.nanoTime() - start) / 1_000_000_000});
+    }
+
+    private void persistInBatches(List<?> entities) {
+        for (int from = 0; from < entities.size(); from += BATCH_SIZE) {
+            writer.persistAll(entities.subList(from, Math.min(from + BATCH_SIZE, entities.size())));
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package org.eclipse.cargotracker.application.util;
+
+import org.apache.commons.lang3.Validate;
+import org.eclipse.cargotracker.domain.model.cargo.Cargo;
+import org.eclipse.cargotracker.domain.model.cargo.Itinerary;
+import org.eclipse.cargotracker.domain.model.cargo.Leg;
+import org.eclipse.cargotracker.domain.model.cargo.RouteSpecification;
+import org.eclipse.cargotracker.domain.model.cargo.TrackingId;
+import org.eclipse.cargotracker.domain.model.handling.HandlingEvent;
+import org.eclipse.cargotracker.domain.model.location.Location;
+import org.eclipse.cargotracker.domain.model.location.UnLocode;
+import org.eclipse.cargotracker.domain.model.voyage.CarrierMovement;
+import org.eclipse.cargotracker.domain.model.voyage.Voyage;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageNumber;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Generates a synthetic world of any size for scale testing: locations, voyages with plausible
+ * schedules, cargos routed on those voyages and the handling events of their progress so far.
+ *
+ * <p>Locations are spread along one long coastline and every twentieth location is a hub. Feeder
+ * voyages call at neighbouring ports, long haul voyages connect hubs, and sailing times grow with
+ * the distance along the coast. Schedules range from two months back to four months ahead of the
+ * reference time. Most cargos follow one or two legs on these voyages, a few are left unrouted.
+ *
+ * <p>Everything is derived from the seed and the reference time, so the same arguments always
+ * produce the same world. Generated codes stay clear of the sample data: UN location codes use
+ * the user assigned country codes XA to XZ, voyage numbers and tracking ids start with an X.
+ */
+public class SyntheticWorld {
+
+    private static final String LOCATION_SYMBOLS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ23456789";
+    private static final String COUNTRY_SYMBOLS = "ABCDEFGHIJKLMNOPQRSTUVWYZ";
+    private static final int CODES_PER_COUNTRY =
+            LOCATION_SYMBOLS.length() * LOCATION_SYMBOLS.length() * LOCATION_SYMBOLS.length();
+
+    public static final int MAX_LOCATIONS = COUNTRY_SYMBOLS.length() * CODES_PER_COUNTRY;
+
+    private static final int HUB_INTERVAL = 20;
+    private static final int LONG_HAUL_PERCENTAGE = 30;
+    private static final int UNROUTED_PERCENTAGE = 10;
+    private static final int TWO_LEG_PERCENTAGE = 40;
+    // How far a feeder voyage reaches along the coast, in locations.
+    private static final int FEEDER_REACH = 8;
+    // Sailing time for half of the coastline, the longest possible distance.
+    private static final Duration HALF_COAST_SAILING = Duration.ofDays(20);
+    private static final Duration MINIMUM_TRANSSHIPMENT_TIME = Duration.ofHours(12);
+
+    private final int cargoCount;
+    private final int eventCount;
+    private final long seed;
+    private final LocalDateTime referenceTime;
+
+    private final List<Location> locations;
+    private final Map<Location, Integer> locationIndexes;
+    private final double[] coastPositions;
+    private final List<Voyage> voyages;
+    // Departures per location, as {voyage index, movement index} pairs.
+    private final List<List<int[]>> departures;
+
+    /**
+     * @param locationCount number of locations, at least two
+     * @param voyageCount number of voyages, at least one
+     * @param cargoCount number of cargos
+     * @param eventCount most handling events to generate, cargos handled later than the reference
+     *     time or after the budget is used up get fewer or none
+     * @param seed seed of all random choices
+     * @param referenceTime the present time of the world, truncated to the hour
+     */
+    public SyntheticWorld(
+            int locationCount,
+            int voyageCount,
+            int cargoCount,
+            int eventCount,
+            long seed,
+            LocalDateTime referenceTime) {
+        Validate.inclusiveBetween(2, MAX_LOCATIONS, locationCount, "Invalid location count");
+        Validate.isTrue(voyageCount > 0, "At least one voyage is required");
+        Validate.isTrue(cargoCount >= 0, "Cargo count must not be negative");
+        Validate.isTrue(eventCount >= 0, "Event count must not be negative");
+        Validate.notNull(referenceTime, "Reference time is required");
+
+        this.cargoCount = cargoCount;
+        this.eventCount = eventCount;
+        this.seed = seed;
+        this.referenceTime = referenceTime.truncatedTo(ChronoUnit.HOURS);
+
+        Random random = new Random(seed);
+        this.locations = new ArrayList<>(locationCount);
+        this.locationIndexes = new HashMap<>(locationCount * 2);
+        this.coastPositions = new double[locationCount];
+        generateLocations(locationCount, random);
+
+        this.voyages = new ArrayList<>(voyageCount);
+        this.departures = new ArrayList<>(locationCount);
+        for (int i = 0; i < locationCount; i++) {
+            departures.add(new ArrayList<>());
+        }
+        generateVoyages(voyageCount, random);
+    }
+
+    public List<Location> getLocations() {
+        return Collections.unmodifiableList(locations);
+    }
+
+    public List<Voyage> getVoyages() {
+        return Collections.unmodifiableList(voyages);
+    }
+
+    /**
+     * Generates the cargos in batches, so that callers can write them out without holding all of
+     * them in memory. Every call generates the same cargos again.
+     */
+    public void generateCargos(int batchSize, Consumer<List<HandledCargo>> batchConsumer) {
+        Validate.isTrue(batchSize > 0, "Batch size must be positive");
+
+        Random random = new Random(seed + 1);
+        int eventBudget = eventCount;
+        List<HandledCargo> batch = new ArrayList<>(batchSize);
+
+        for (int i = 0; i < cargoCount; i++) {
+            HandledCargo cargo = generateCargo(i, random, eventBudget);
+            eventBudget -= cargo.getEvents().size();
+            batch.add(cargo);
+
+            if (batch.size() == batchSize) {
+                batchConsumer.accept(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            batchConsumer.accept(batch);
+        }
+    }
+
+    private void generateLocations(int locationCount, Random random) {
+        for (int i = 0; i < locationCount; i++) {
+            Location location =
+                    new Location(new UnLocode(unLocode(i)), "Synthetic port " + (i + 1));
+            locations.add(location);
+            locationIndexes.put(location, i);
+            // Evenly spaced with some jitter, so the coast order is the index order.
+            coastPositions[i] = (i + random.nextDouble() * 0.9) / locationCount;
+        }
+    }
+
+    private static String unLocode(int index) {
+        int country = index / CODES_PER_COUNTRY;
+        int code = index % CODES_PER_COUNTRY;
+        int symbols = LOCATION_SYMBOLS.length();
+
+        return "X"
+                + COUNTRY_SYMBOLS.charAt(country)
+                + LOCATION_SYMBOLS.charAt(code / (symbols * symbols))
+                + LOCATION_SYMBOLS.charAt(code / symbols % symbols)
+                + LOCATION_SYMBOLS.charAt(code % symbols);
+    }
+
+    private void generateVoyages(int voyageCount, Random random) {
+        int hubCount = Math.max(2, (locations.size() + HUB_INTERVAL - 1) / HUB_INTERVAL);
+
+        for (int i = 0; i < voyageCount; i++) {
+            List<Integer> calls =
+                    random.nextInt(100) < LONG_HAUL_PERCENTAGE
+                            ? longHaulCalls(hubCount, random)
+                            : feederCalls(hubCount, random);
+
+            LocalDateTime departure =
+                    referenceTime.minusDays(60).plusHours(random.nextInt(150 * 24));
+            Voyage.Builder builder =
+                    new Voyage.Builder(
+                            new VoyageNumber(String.format("X%06d", i + 1)),
+                            locations.get(calls.get(0)));
+
+            for (int call = 1; call < calls.size(); call++) {
+                LocalDateTime arrival =
+                        departure.plus(sailingTime(calls.get(call - 1), calls.get(call), random));
+                builder.addMovement(locations.get(calls.get(call)), departure, arrival);
+                departures.get(calls.get(call - 1)).add(new int[] {i, call - 1});
+                // Time in port before sailing on.
+                departure = arrival.plusHours(6 + random.nextInt(31));
+            }
+
+            voyages.add(builder.build());
+        }
+    }
+
+    private List<Integer> longHaulCalls(int hubCount, Random random) {
+        int callCount = 2 + random.nextInt(Math.min(4, hubCount - 1));
+        List<Integer> calls = new ArrayList<>(callCount);
+
+        while (calls.size() < callCount) {
+            int hub = Math.min(random.nextInt(hubCount) * HUB_INTERVAL, locations.size() - 1);
+            if (!calls.contains(hub)) {
+                calls.add(hub);
+            }
+        }
+
+        return calls;
+    }
+
+    /** Starts at a hub and calls at ports nearby on the coast, in either direction. */
+    private List<Integer> feederCalls(int hubCount, Random random) {
+        int callCount = 2 + random.nextInt(4);
+        List<Integer> calls = new ArrayList<>(callCount);
+        int port = Math.min(random.nextInt(hubCount) * HUB_INTERVAL, locations.size() - 1);
+        calls.add(port);
+
+        for (int attempt = 0; calls.size() < callCount && attempt < 4 * callCount; attempt++) {
+            int step = 1 + random.nextInt(FEEDER_REACH);
+            int next =
+                    Math.floorMod(port + (random.nextBoolean() ? step : -step), locations.size());
+            if (!calls.contains(next)) {
+                calls.add(next);
+                port = next;
+            }
+        }
+
+        if (calls.size() == 1) {
+            calls.add((port + 1) % locations.size());
+        }
+
+        return calls;
+    }
+
+    private Duration sailingTime(int from, int to, Random random) {
+        double distance = Math.abs(coastPositions[from] - coastPositions[to]);
+        distance = Math.min(distance, 1 - distance);
+        long hours = 12 + Math.round(distance * 2 * HALF_COAST_SAILING.toHours());
+
+        // Weather and traffic.
+        return Duration.ofHours(hours + random.nextInt((int) (hours / 10 + 1)));
+    }
+
+    private HandledCargo generateCargo(int index, Random random, int eventBudget) {
+        TrackingId trackingId = new TrackingId(String.format("X%08d", index + 1));
+
+        if (random.nextInt(100) < UNROUTED_PERCENTAGE) {
+            int origin = random.nextInt(locations.size());
+            int destination =
+                    (origin + 1 + random.nextInt(locations.size() - 1)) % locations.size();
+            Cargo cargo =
+                    new Cargo(
+                            trackingId,
+                            new RouteSpecification(
+                                    locations.get(origin),
+                                    locations.get(destination),
+                                    referenceTime.toLocalDate().plusDays(10 + random.nextInt(50))));
+            return new HandledCargo(cargo, List.of());
+        }
+
+        List<Leg> legs = new ArrayList<>(2);
+        Voyage voyage = voyages.get(random.nextInt(voyages.size()));
+        List<CarrierMovement> movements = voyage.getSchedule().getCarrierMovements();
+        int first = random.nextInt(movements.size());
+        int last = first + random.nextInt(movements.size() - first);
+        legs.add(toLeg(voyage, movements, first, last));
+
+        if (random.nextInt(100) < TWO_LEG_PERCENTAGE) {
+            Leg onward = onwardLeg(legs.get(0), random);
+            if (onward != null) {
+                legs.add(onward);
+            }
+        }
+
+        Location origin = legs.get(0).getLoadLocation();
+        Location destination = legs.get(legs.size() - 1).getUnloadLocation();
+        LocalDateTime finalArrival = legs.get(legs.size() - 1).getUnloadTime();
+        Cargo cargo =
+                new Cargo(
+                        trackingId,
+                        new RouteSpecification(
+                                origin,
+                                destination,
+                                finalArrival.toLocalDate().plusDays(1 + random.nextInt(7))));
+        cargo.assignToRoute(new Itinerary(legs));
+
+        return new HandledCargo(cargo, handlingEvents(cargo, legs, random, eventBudget));
+    }
+
+    /**
+     * @return A leg on another voyage leaving where the given leg ends, or null if there is none
+     *     that does not end where the cargo started.
+     */
+    private Leg onwardLeg(Leg leg, Random random) {
+        int location = locationIndexes.get(leg.getUnloadLocation());
+        LocalDateTime ready = leg.getUnloadTime().plus(MINIMUM_TRANSSHIPMENT_TIME);
+        List<int[]> candidates = new ArrayList<>();
+
+        for (int[] departure : departures.get(location)) {
+            Voyage voyage = voyages.get(departure[0]);
+            CarrierMovement movement =
+                    voyage.getSchedule().getCarrierMovements().get(departure[1]);
+            if (!voyage.sameIdentityAs(leg.getVoyage())
+                    && !movement.getDepartureTime().isBefore(ready)
+                    && movement.getDepartureTime().isBefore(ready.plusDays(14))
+                    && !movement.getArrivalLocation().sameIdentityAs(leg.getLoadLocation())) {
+                candidates.add(departure);
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        int[] departure = candidates.get(random.nextInt(candidates.size()));
+        Voyage voyage = voyages.get(departure[0]);
+        // Stays on board for one movement only, further ones could lead back to the origin.
+        List<CarrierMovement> movements = voyage.getSchedule().getCarrierMovements();
+        return toLeg(voyage, movements, departure[1], departure[1]);
+    }
+
+    private static Leg toLeg(
+            Voyage voyage, List<CarrierMovement> movements, int first, int last) {
+        return new Leg(
+                voyage,
+                movements.get(first).getDepartureLocation(),
+                movements.get(last).getArrivalLocation(),
+                movements.get(first).getDepartureTime(),
+                movements.get(last).getArrivalTime());
+    }
+
+    /**
+     * @return The events of the itinerary up to the reference time, in order, but no more than the
+     *     budget.
+     */
+    private List<HandlingEvent> handlingEvents(
+            Cargo cargo, List<Leg> legs, Random random, int eventBudget) {
+        List<HandlingEvent> events = new ArrayList<>();
+        Leg firstLeg = legs.get(0);
+        Leg lastLeg = legs.get(legs.size() - 1);
+
+        events.add(
+                event(
+                        cargo,
+                        firstLeg.getLoadTime().minusHours(12 + random.nextInt(60)),
+                        HandlingEvent.Type.RECEIVE,
+                        firstLeg.getLoadLocation(),
+                        null));
+        for (Leg leg : legs) {
+            events.add(
+                    event(
+                            cargo,
+                            leg.getLoadTime(),
+                            HandlingEvent.Type.LOAD,
+                            leg.getLoadLocation(),
+                            leg.getVoyage()));
+            events.add(
+                    event(
+                            cargo,
+                            leg.getUnloadTime(),
+                            HandlingEvent.Type.UNLOAD,
+                            leg.getUnloadLocation(),
+                            leg.getVoyage()));
+        }
+        events.add(
+                event(
+                        cargo,
+                        lastLeg.getUnloadTime().plusHours(12 + random.nextInt(48)),
+                        HandlingEvent.Type.CLAIM,
+                        lastLeg.getUnloadLocation(),
+                        null));
+
+        int handled = 0;
+        while (handled < events.size()
+                && handled < eventBudget
+                && !events.get(handled).getCompletionTime().isAfter(referenceTime)) {
+            handled++;
+        }
+
+        return new ArrayList<>(events.subList(0, handled));
+    }
+
+    private static HandlingEvent event(
+            Cargo cargo,
+            LocalDateTime completionTime,
+            HandlingEvent.Type type,
+            Location location,
+            Voyage voyage) {
+        LocalDateTime registrationTime = completionTime.plusMinutes(5);
+
+        return voyage == null
+                ? new HandlingEvent(cargo, completionTime, registrationTime, type, location)
+                : new HandlingEvent(
+                        cargo, completionTime, registrationTime, type, location, voyage);
+    }
+
+    /** A generated cargo together with the handling events registered for it so far. */
+    public static class HandledCargo {
+
+        private final Cargo cargo;
+        private final List<HandlingEvent> events;
+
+        HandledCargo(Cargo cargo, List<HandlingEvent> events) {
+            this.cargo = cargo;
+            this.events = events;
+        }
+
+        public Cargo getCargo() {
+            return cargo;
+        }
+
+        /** @return The handling events in completion time order. */
+        public List<HandlingEvent> getEvents() {
+            return events;
+        }
+    }
+}
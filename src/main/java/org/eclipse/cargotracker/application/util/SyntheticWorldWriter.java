@@ -0,0 +1,51 @@
+package org.eclipse.cargotracker.application.util;
+
+import org.eclipse.cargotracker.domain.model.handling.HandlingEvent;
+import org.eclipse.cargotracker.domain.model.handling.HandlingEventRepository;
+import org.eclipse.cargotracker.domain.model.handling.HandlingHistory;
+
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a synthetic world batch by batch. Every batch is written and committed in a transaction
+ * of its own, so neither the transaction nor the persistence context grows with the world.
+ */
+@Stateless
+public class SyntheticWorldWriter {
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Inject private HandlingEventRepository handlingEventRepository;
+
+    /** Locations and voyages, voyages cascade to their carrier movements. */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void persistAll(List<?> entities) {
+        entities.forEach(entityManager::persist);
+    }
+
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void persistHandledCargos(List<SyntheticWorld.HandledCargo> handledCargos) {
+        List<HandlingEvent> events = new ArrayList<>();
+
+        for (SyntheticWorld.HandledCargo handledCargo : handledCargos) {
+            entityManager.persist(handledCargo.getCargo());
+            events.addAll(handledCargo.getEvents());
+        }
+
+        handlingEventRepository.storeAll(events);
+
+        // The delivery refers to the last event, which must be persisted first.
+        for (SyntheticWorld.HandledCargo handledCargo : handledCargos) {
+            handledCargo
+                    .getCargo()
+                    .deriveDeliveryProgress(new HandlingHistory(handledCargo.getEvents()));
+        }
+    }
+}
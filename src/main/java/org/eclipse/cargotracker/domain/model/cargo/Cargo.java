@@ -50,6 +50,102 @@ import java.util.logging.Logger;
  */
 @Entity
 @NamedQuery(name = "Cargo.findAll", query = "Select c from Cargo c")
+@NamedEntityGraph(
+        name = "Cargo.tracking",
+        attributeNodes = {
+            @NamedAttributeNode(value = "routeSpecification", subgraph = "routeSpecification"),
+            @NamedAttributeNode(value = "itinerary", subgraph = "itinerary"),
+            @NamedAttributeNode(value = "delivery", subgraph = "delivery")
+        },
+        subgraphs = {
+            @NamedSubgraph(
+                    name = "routeSpecification",
+                    attributeNodes = {
+                        @NamedAttributeNode("origin"),
+                        @NamedAttributeNode("destination")
+                    }),
+            @NamedSubgraph(name = "itinerary", attributeNodes = @NamedAttributeNode("legs")),
+            @NamedSubgraph(
+                    name = "delivery",
+                    attributeNodes = {
+                        @NamedAttributeNode("lastKnownLocation"),
+                        @NamedAttributeNode("currentVoyage"),
+                        @NamedAttributeNode(
+                                value = "nextExpectedActivity",
+                                subgraph = "nextExpectedActivity")
+                    }),
+            @NamedSubgraph(
+                    name = "nextExpectedActivity",
+                    attributeNodes = {
+                        @NamedAttributeNode("location"),
+                        @NamedAttributeNode("voyage")
+                    })
+        })
+@NamedEntityGraph(
+        name = "Cargo.routing",
+        attributeNodes = {
+            @NamedAttributeNode(value = "routeSpecification", subgraph = "routeSpecification"),
+            @NamedAttributeNode(value = "itinerary", subgraph = "itinerary"),
+            @NamedAttributeNode(value = "delivery", subgraph = "delivery")
+        },
+        subgraphs = {
+            @NamedSubgraph(
+                    name = "routeSpecification",
+                    attributeNodes = {
+                        @NamedAttributeNode("origin"),
+                        @NamedAttributeNode("destination")
+                    }),
+            @NamedSubgraph(
+                    name = "itinerary",
+                    attributeNodes = @NamedAttributeNode(value = "legs", subgraph = "legs")),
+            @NamedSubgraph(
+                    name = "legs",
+                    attributeNodes = {
+                        @NamedAttributeNode("voyage"),
+                        @NamedAttributeNode("loadLocation"),
+                        @NamedAttributeNode("unloadLocation")
+                    }),
+            @NamedSubgraph(
+                    name = "delivery",
+                    attributeNodes = {
+                        @NamedAttributeNode("lastKnownLocation"),
+                        @NamedAttributeNode("currentVoyage"),
+                        @NamedAttributeNode(value = "lastEvent", subgraph = "lastEvent")
+                    }),
+            @NamedSubgraph(name = "lastEvent", attributeNodes = @NamedAttributeNode("location"))
+        })
+@NamedEntityGraph(
+        name = "Cargo.inspection",
+        attributeNodes = {
+            @NamedAttributeNode(value = "routeSpecification", subgraph = "routeSpecification"),
+            @NamedAttributeNode(value = "itinerary", subgraph = "itinerary"),
+            @NamedAttributeNode(value = "delivery", subgraph = "delivery")
+        },
+        subgraphs = {
+            @NamedSubgraph(
+                    name = "routeSpecification",
+                    attributeNodes = @NamedAttributeNode("destination")),
+            @NamedSubgraph(
+                    name = "itinerary",
+                    attributeNodes = @NamedAttributeNode(value = "legs", subgraph = "legs")),
+            @NamedSubgraph(
+                    name = "legs",
+                    attributeNodes = {
+                        @NamedAttributeNode("voyage"),
+                        @NamedAttributeNode("loadLocation"),
+                        @NamedAttributeNode("unloadLocation")
+                    }),
+            @NamedSubgraph(
+                    name = "delivery",
+                    attributeNodes =
+                            @NamedAttributeNode(value = "lastEvent", subgraph = "lastEvent")),
+            @NamedSubgraph(
+                    name = "lastEvent",
+                    attributeNodes = {
+                        @NamedAttributeNode("location"),
+                        @NamedAttributeNode("voyage")
+                    })
+        })
 @NamedQuery(
         name = "Cargo.findByTrackingId",
         query = "Select c from Cargo c where c.trackingId = :trackingId")
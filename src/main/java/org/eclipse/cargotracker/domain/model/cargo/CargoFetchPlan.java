@@ -0,0 +1,20 @@
+package org.eclipse.cargotracker.domain.model.cargo;
+
+/**
+ * What of the cargo aggregate a use case is about to read, for the repository to load together
+ * with the cargo rather than one piece at a time.
+ */
+public enum CargoFetchPlan {
+    /**
+     * The end points of the route specification, the legs without their voyages and locations, and
+     * the delivery with its next expected activity.
+     */
+    TRACKING,
+    /**
+     * The end points of the route specification, the legs with their voyages and locations, and the
+     * current voyage and last known location of the delivery.
+     */
+    ROUTING,
+    /** The route specification, the itinerary and the last handling event of the delivery. */
+    INSPECTION
+}
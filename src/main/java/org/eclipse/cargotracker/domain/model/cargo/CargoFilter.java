@@ -0,0 +1,91 @@
+package org.eclipse.cargotracker.domain.model.cargo;
+
+import org.apache.commons.lang3.Validate;
+import org.eclipse.cargotracker.domain.shared.AbstractSpecification;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Which cargoes to list. Each criterion left unset admits every cargo, so {@link #ALL} admits all
+ * of them. Criteria are added by deriving a new filter, filters are immutable.
+ */
+public class CargoFilter extends AbstractSpecification<Cargo> {
+
+    public static final CargoFilter ALL =
+            new CargoFilter(
+                    EnumSet.noneOf(RoutingStatus.class),
+                    EnumSet.noneOf(TransportStatus.class),
+                    null);
+
+    private final Set<RoutingStatus> routingStatuses;
+    private final Set<TransportStatus> transportStatuses;
+    private final String trackingIdPrefix;
+
+    private CargoFilter(
+            Set<RoutingStatus> routingStatuses,
+            Set<TransportStatus> transportStatuses,
+            String trackingIdPrefix) {
+        this.routingStatuses = Collections.unmodifiableSet(routingStatuses);
+        this.transportStatuses = Collections.unmodifiableSet(transportStatuses);
+        this.trackingIdPrefix = trackingIdPrefix;
+    }
+
+    /** @return A filter that also admits only cargoes in one of the given routing statuses. */
+    public CargoFilter withRoutingStatuses(Set<RoutingStatus> routingStatuses) {
+        Validate.notEmpty(routingStatuses, "At least one routing status is required");
+        return new CargoFilter(
+                EnumSet.copyOf(routingStatuses), transportStatuses, trackingIdPrefix);
+    }
+
+    /** @return A filter that also admits only cargoes in one of the given transport statuses. */
+    public CargoFilter withTransportStatuses(Set<TransportStatus> transportStatuses) {
+        Validate.notEmpty(transportStatuses, "At least one transport status is required");
+        return new CargoFilter(
+                routingStatuses, EnumSet.copyOf(transportStatuses), trackingIdPrefix);
+    }
+
+    /** @return A filter that also admits only cargoes whose tracking ID starts with the prefix. */
+    public CargoFilter withTrackingIdPrefix(String trackingIdPrefix) {
+        Validate.notEmpty(trackingIdPrefix, "Tracking ID prefix must not be empty");
+        return new CargoFilter(routingStatuses, transportStatuses, trackingIdPrefix);
+    }
+
+    /** @return The routing statuses admitted, all of them if empty. */
+    public Set<RoutingStatus> getRoutingStatuses() {
+        return routingStatuses;
+    }
+
+    /** @return The transport statuses admitted, all of them if empty. */
+    public Set<TransportStatus> getTransportStatuses() {
+        return transportStatuses;
+    }
+
+    /** @return The prefix of the tracking IDs admitted, or null if any is. */
+    public String getTrackingIdPrefix() {
+        return trackingIdPrefix;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(Cargo cargo) {
+        return (routingStatuses.isEmpty()
+                        || routingStatuses.contains(cargo.getDelivery().getRoutingStatus()))
+                && (transportStatuses.isEmpty()
+                        || transportStatuses.contains(cargo.getDelivery().getTransportStatus()))
+                && (trackingIdPrefix == null
+                        || cargo.getTrackingId().getIdString().startsWith(trackingIdPrefix));
+    }
+
+    @Override
+    public String toString() {
+        return "CargoFilter{"
+                + "routingStatuses="
+                + routingStatuses
+                + ", transportStatuses="
+                + transportStatuses
+                + ", trackingIdPrefix="
+                + trackingIdPrefix
+                + '}';
+    }
+}
@@ -1,13 +1,73 @@
 package org.eclipse.cargotracker.domain.model.cargo;
 
+import org.eclipse.cargotracker.domain.model.voyage.CarrierMovement;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageNumber;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CargoRepository {
 
     Cargo find(TrackingId trackingId);
 
+    /**
+     * Same as {@link #find(TrackingId)}, loading what the fetch plan names along with the cargo,
+     * in as few statements as the persistence provider manages.
+     */
+    Cargo find(TrackingId trackingId, CargoFetchPlan fetchPlan);
+
     List<Cargo> findAll();
 
+    /**
+     * Lists the cargoes a page at a time, in tracking ID order. A page starts right after the
+     * tracking ID the previous one ended with, so it is found from the index however deep into the
+     * list it is, and cargoes booked meanwhile neither shift nor repeat entries.
+     *
+     * @param after the last tracking ID of the previous page, or null for the first page
+     * @param limit the most cargoes the page holds
+     * @return The cargoes the filter admits, fewer than the limit only on the last page.
+     */
+    List<Cargo> findPage(CargoFilter filter, TrackingId after, int limit);
+
+    /**
+     * Same as {@link #findPage(CargoFilter, TrackingId, int)}, without loading any of the cargoes.
+     */
+    List<TrackingId> findTrackingIdPage(CargoFilter filter, TrackingId after, int limit);
+
+    /**
+     * Same as {@link #findPage(CargoFilter, TrackingId, int)}, reading only what lists show of the
+     * cargoes, in a single query.
+     */
+    List<CargoSummary> findSummaryPage(CargoFilter filter, TrackingId after, int limit);
+
+    /**
+     * Finds the cargoes a change to the voyage may affect, without loading any of them.
+     *
+     * @return The tracking IDs of the cargoes with a leg on the voyage, in no particular order.
+     */
+    List<TrackingId> findTrackingIdsByVoyage(VoyageNumber voyageNumber);
+
+    /**
+     * Finds the cargoes a disruption of the voyage for a while may affect, without loading any of
+     * them.
+     *
+     * @return The tracking IDs of the cargoes with a leg on the voyage between the given times, in
+     *     no particular order.
+     */
+    List<TrackingId> findTrackingIdsByVoyage(
+            VoyageNumber voyageNumber, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Finds the cargoes a change to one movement of the voyage may affect, without loading any of
+     * them.
+     *
+     * @param carrierMovement the movement as it was scheduled when the cargoes were routed
+     * @return The tracking IDs of the cargoes with a leg on the voyage spanning the movement, in no
+     *     particular order.
+     */
+    List<TrackingId> findTrackingIdsByCarrierMovement(
+            VoyageNumber voyageNumber, CarrierMovement carrierMovement);
+
     void store(Cargo cargo);
 
     TrackingId nextTrackingId();
@@ -0,0 +1,113 @@
+package org.eclipse.cargotracker.domain.model.cargo;
+
+import org.eclipse.cargotracker.domain.model.location.Location;
+
+import java.time.LocalDate;
+
+/**
+ * The few facts about a cargo that lists and dashboards show, read straight from the columns
+ * rather than from the whole aggregate. Not part of the aggregate, and never saved.
+ */
+public class CargoSummary {
+
+    private final TrackingId trackingId;
+    private final String originCode;
+    private final String originName;
+    private final String destinationCode;
+    private final String destinationName;
+    private final LocalDate arrivalDeadline;
+    private final RoutingStatus routingStatus;
+    private final TransportStatus transportStatus;
+    private final boolean misdirected;
+    private final boolean unloadedAtDestination;
+    private final String lastKnownLocationCode;
+    private final String lastKnownLocationName;
+
+    /** @param lastKnownLocationCode null if the cargo was never handled, as is its name */
+    public CargoSummary(
+            String trackingId,
+            String originCode,
+            String originName,
+            String destinationCode,
+            String destinationName,
+            LocalDate arrivalDeadline,
+            RoutingStatus routingStatus,
+            TransportStatus transportStatus,
+            boolean misdirected,
+            boolean unloadedAtDestination,
+            String lastKnownLocationCode,
+            String lastKnownLocationName) {
+        this.trackingId = new TrackingId(trackingId);
+        this.originCode = originCode;
+        this.originName = originName;
+        this.destinationCode = destinationCode;
+        this.destinationName = destinationName;
+        this.arrivalDeadline = arrivalDeadline;
+        this.routingStatus = routingStatus;
+        this.transportStatus = transportStatus;
+        this.misdirected = misdirected;
+        this.unloadedAtDestination = unloadedAtDestination;
+
+        if (lastKnownLocationCode == null) {
+            this.lastKnownLocationCode = Location.UNKNOWN.getUnLocode().getIdString();
+            this.lastKnownLocationName = Location.UNKNOWN.getName();
+        } else {
+            this.lastKnownLocationCode = lastKnownLocationCode;
+            this.lastKnownLocationName = lastKnownLocationName;
+        }
+    }
+
+    public TrackingId getTrackingId() {
+        return trackingId;
+    }
+
+    public String getOriginCode() {
+        return originCode;
+    }
+
+    public String getOriginName() {
+        return originName;
+    }
+
+    public String getDestinationCode() {
+        return destinationCode;
+    }
+
+    public String getDestinationName() {
+        return destinationName;
+    }
+
+    public LocalDate getArrivalDeadline() {
+        return arrivalDeadline;
+    }
+
+    public RoutingStatus getRoutingStatus() {
+        return routingStatus;
+    }
+
+    public TransportStatus getTransportStatus() {
+        return transportStatus;
+    }
+
+    public boolean isMisdirected() {
+        return misdirected;
+    }
+
+    public boolean isUnloadedAtDestination() {
+        return unloadedAtDestination;
+    }
+
+    /** @return The code of the location, the one of {@link Location#UNKNOWN} if none is known. */
+    public String getLastKnownLocationCode() {
+        return lastKnownLocationCode;
+    }
+
+    public String getLastKnownLocationName() {
+        return lastKnownLocationName;
+    }
+
+    @Override
+    public String toString() {
+        return trackingId + " " + routingStatus + " " + transportStatus;
+    }
+}
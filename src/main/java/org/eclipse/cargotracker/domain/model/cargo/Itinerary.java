@@ -113,6 +113,22 @@ public class Itinerary implements Serializable {
         }
     }
 
+    /**
+     * The legs a cargo travelled as planned if it left this itinerary at the given location, by
+     * being loaded onto a voyage the itinerary does not expect there.
+     *
+     * @return The legs before the first one that loads at the location, or null if none does.
+     */
+    public List<Leg> legsBeforeLoadAt(Location location) {
+        for (int i = 0; i < legs.size(); i++) {
+            if (legs.get(i).getLoadLocation().sameIdentityAs(location)) {
+                return Collections.unmodifiableList(legs.subList(0, i));
+            }
+        }
+
+        return null;
+    }
+
     Location getInitialDepartureLocation() {
         if (legs.isEmpty()) {
             return Location.UNKNOWN;
@@ -15,6 +15,8 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 @Entity
+// Serves the look-up of the cargoes routed over a voyage or one of its movements.
+@Table(indexes = @Index(name = "leg_voyage_load_time_idx", columnList = "voyage_id, load_time"))
 public class Leg implements Serializable {
     private static final Logger LOGGER = Logger.getLogger(Leg.class.getName());
     private static final long serialVersionUID = 1L;
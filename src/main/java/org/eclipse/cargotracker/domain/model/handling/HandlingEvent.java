@@ -36,7 +36,15 @@ import java.time.LocalDateTime;
 public class HandlingEvent implements Serializable {
 
     private static final long serialVersionUID = 1L;
-    @Id @GeneratedValue private Long id;
+
+    // Handling events are written in bulk, the IDs of a thousand of them take one sequence call.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "HandlingEventSequence")
+    @SequenceGenerator(
+            name = "HandlingEventSequence",
+            sequenceName = "handling_event_seq",
+            allocationSize = 1000)
+    private Long id;
 
     @Enumerated(EnumType.STRING)
     @NotNull
@@ -2,9 +2,17 @@ package org.eclipse.cargotracker.domain.model.handling;
 
 import org.eclipse.cargotracker.domain.model.cargo.TrackingId;
 
+import java.util.Collection;
+
 public interface HandlingEventRepository {
 
     void store(HandlingEvent event);
 
+    /**
+     * Stores the events as a batch, the inserts are sent to the database together rather than one
+     * by one. The events are written by the time this returns.
+     */
+    void storeAll(Collection<HandlingEvent> events);
+
     HandlingHistory lookupHandlingHistoryOfCargo(TrackingId trackingId);
 }
@@ -22,6 +22,9 @@ import org.eclipse.cargotracker.application.util.LocationUtil;
 @NamedQuery(
         name = "Location.findByUnLocode",
         query = "Select l from Location l where l.unLocode = :unLocode")
+@NamedQuery(
+        name = "Location.findByUnLocodes",
+        query = "Select l from Location l where l.unLocode.unlocode in :unLocodes")
 public class Location implements Serializable {
 
     // Special Location object that marks an unknown location.
@@ -1,5 +1,6 @@
 package org.eclipse.cargotracker.domain.model.location;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface LocationRepository {
@@ -7,4 +8,10 @@ public interface LocationRepository {
     Location find(UnLocode unLocode);
 
     List<Location> findAll();
+
+    /**
+     * @param unLocodes UN location codes to look up at once
+     * @return The locations that exist, in no particular order.
+     */
+    List<Location> findAll(Collection<UnLocode> unLocodes);
 }
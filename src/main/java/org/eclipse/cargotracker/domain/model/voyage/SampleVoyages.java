@@ -190,56 +190,20 @@ public class SampleVoyages {
             new Voyage.Builder(new VoyageNumber("0100S"), SampleLocations.HONGKONG)
                     .addMovement(
                             SampleLocations.HANGZOU,
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(10)
-                                    .plusDays(1)
-                                    .plusHours(12),
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(10)
-                                    .plusDays(3)
-                                    .plusHours(14)
-                                    .plusMinutes(30))
+                            LocalDateTime.now().plusDays(1).plusHours(12),
+                            LocalDateTime.now().plusDays(3).plusHours(14).plusMinutes(30))
                     .addMovement(
                             SampleLocations.TOKYO,
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(10)
-                                    .plusDays(4)
-                                    .plusHours(21),
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(10)
-                                    .plusDays(6)
-                                    .plusHours(6)
-                                    .plusMinutes(15))
+                            LocalDateTime.now().plusDays(4).plusHours(21),
+                            LocalDateTime.now().plusDays(6).plusHours(6).plusMinutes(15))
                     .addMovement(
                             SampleLocations.MELBOURNE,
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(10)
-                                    .plusDays(9)
-                                    .plusHours(11),
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(10)
-                                    .plusDays(12)
-                                    .plusHours(11)
-                                    .plusMinutes(30))
+                            LocalDateTime.now().plusDays(9).plusHours(11),
+                            LocalDateTime.now().plusDays(12).plusHours(11).plusMinutes(30))
                     .addMovement(
                             SampleLocations.NEWYORK,
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(10)
-                                    .plusDays(14)
-                                    .plusHours(12),
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(10)
-                                    .plusDays(23)
-                                    .plusHours(23)
-                                    .plusMinutes(10))
+                            LocalDateTime.now().plusDays(14).plusHours(12),
+                            LocalDateTime.now().plusDays(23).plusHours(23).plusMinutes(10))
                     .build();
     /**
      * Voyage number 0200T (by train)
@@ -250,31 +214,12 @@ public class SampleVoyages {
             new Voyage.Builder(new VoyageNumber("0200T"), SampleLocations.NEWYORK)
                     .addMovement(
                             SampleLocations.CHICAGO,
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(10)
-                                    .plusDays(24)
-                                    .plusHours(7),
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(10)
-                                    .plusDays(24)
-                                    .plusHours(17)
-                                    .plusMinutes(45))
+                            LocalDateTime.now().plusDays(24).plusHours(7),
+                            LocalDateTime.now().plusDays(24).plusHours(17).plusMinutes(45))
                     .addMovement(
                             SampleLocations.DALLAS,
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(10)
-                                    .plusDays(24)
-                                    .plusHours(21)
-                                    .plusMinutes(25),
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(10)
-                                    .plusDays(25)
-                                    .plusHours(19)
-                                    .plusMinutes(30))
+                            LocalDateTime.now().plusDays(24).plusHours(21).plusMinutes(25),
+                            LocalDateTime.now().plusDays(25).plusHours(19).plusMinutes(30))
                     .build();
     /**
      * Voyage number 0300A (by airplane)
@@ -285,44 +230,16 @@ public class SampleVoyages {
             new Voyage.Builder(new VoyageNumber("0300A"), SampleLocations.DALLAS)
                     .addMovement(
                             SampleLocations.HAMBURG,
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(10)
-                                    .plusDays(29)
-                                    .plusHours(3)
-                                    .plusMinutes(30),
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(10)
-                                    .plusDays(31)
-                                    .plusHours(14))
+                            LocalDateTime.now().plusDays(29).plusHours(3).plusMinutes(30),
+                            LocalDateTime.now().plusDays(31).plusHours(14))
                     .addMovement(
                             SampleLocations.STOCKHOLM,
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(11)
-                                    .plusDays(1)
-                                    .plusHours(15)
-                                    .plusMinutes(20),
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(11)
-                                    .plusDays(1)
-                                    .plusHours(18)
-                                    .plusMinutes(40))
+                            LocalDateTime.now().plusDays(32).plusHours(15).plusMinutes(20),
+                            LocalDateTime.now().plusDays(32).plusHours(18).plusMinutes(40))
                     .addMovement(
                             SampleLocations.HELSINKI,
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(11)
-                                    .plusDays(2)
-                                    .plusHours(9),
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(11)
-                                    .plusDays(2)
-                                    .plusHours(11)
-                                    .plusMinutes(15))
+                            LocalDateTime.now().plusDays(33).plusHours(9),
+                            LocalDateTime.now().plusDays(33).plusHours(11).plusMinutes(15))
                     .build();
     /**
      * Voyage number 0301S (by ship)
@@ -333,18 +250,8 @@ public class SampleVoyages {
             new Voyage.Builder(new VoyageNumber("0301S"), SampleLocations.DALLAS)
                     .addMovement(
                             SampleLocations.HELSINKI,
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(10)
-                                    .plusDays(29)
-                                    .plusHours(3)
-                                    .plusMinutes(30),
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(11)
-                                    .plusDays(5)
-                                    .plusHours(15)
-                                    .plusMinutes(45))
+                            LocalDateTime.now().plusDays(29).plusHours(3).plusMinutes(30),
+                            LocalDateTime.now().plusDays(36).plusHours(15).plusMinutes(45))
                     .build();
     /**
      * Voyage number 0400S (by ship)
@@ -355,45 +262,16 @@ public class SampleVoyages {
             new Voyage.Builder(new VoyageNumber("0400S"), SampleLocations.HELSINKI)
                     .addMovement(
                             SampleLocations.ROTTERDAM,
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(11)
-                                    .plusDays(4)
-                                    .plusHours(5)
-                                    .plusMinutes(50),
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(11)
-                                    .plusDays(6)
-                                    .plusHours(14)
-                                    .plusMinutes(10))
+                            LocalDateTime.now().plusDays(35).plusHours(5).plusMinutes(50),
+                            LocalDateTime.now().plusDays(37).plusHours(14).plusMinutes(10))
                     .addMovement(
                             SampleLocations.SHANGHAI,
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(11)
-                                    .plusDays(10)
-                                    .plusHours(21)
-                                    .plusMinutes(45),
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(11)
-                                    .plusDays(22)
-                                    .plusHours(16)
-                                    .plusMinutes(40))
+                            LocalDateTime.now().plusDays(41).plusHours(21).plusMinutes(45),
+                            LocalDateTime.now().plusDays(53).plusHours(16).plusMinutes(40))
                     .addMovement(
                             SampleLocations.HONGKONG,
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(11)
-                                    .plusDays(24)
-                                    .plusHours(7),
-                            LocalDateTime.now()
-                                    .minusYears(1)
-                                    .plusMonths(11)
-                                    .plusDays(28)
-                                    .plusHours(13)
-                                    .plusMinutes(37))
+                            LocalDateTime.now().plusDays(55).plusHours(7),
+                            LocalDateTime.now().plusDays(59).plusHours(13).plusMinutes(37))
                     .build();
 
     public static final Map<VoyageNumber, Voyage> ALL = new HashMap<>();
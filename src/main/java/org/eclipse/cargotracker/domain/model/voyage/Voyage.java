@@ -18,6 +18,9 @@ import org.eclipse.cargotracker.domain.model.location.Location;
         name = "Voyage.findByVoyageNumber",
         query = "Select v from Voyage v where v.voyageNumber = :voyageNumber")
 @NamedQuery(name = "Voyage.findAll", query = "Select v from Voyage v order by v.voyageNumber")
+@NamedQuery(
+        name = "Voyage.findByVoyageNumbers",
+        query = "Select v from Voyage v where v.voyageNumber.number in :voyageNumbers")
 public class Voyage implements Serializable {
 
     // Null object pattern
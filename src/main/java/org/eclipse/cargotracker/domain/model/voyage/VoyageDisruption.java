@@ -0,0 +1,54 @@
+package org.eclipse.cargotracker.domain.model.voyage;
+
+import org.apache.commons.lang3.Validate;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * A voyage that cannot be sailed as scheduled for a while. New routes must keep clear of its
+ * movements under way at some point of the disruption.
+ */
+public class VoyageDisruption implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final VoyageNumber voyageNumber;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    public VoyageDisruption(VoyageNumber voyageNumber, LocalDateTime start, LocalDateTime end) {
+        Validate.notNull(voyageNumber, "Voyage number is required");
+        Validate.notNull(start, "Start is required");
+        Validate.notNull(end, "End is required");
+        Validate.isTrue(start.isBefore(end), "Start must be before end");
+
+        this.voyageNumber = voyageNumber;
+        this.start = start;
+        this.end = end;
+    }
+
+    public VoyageNumber getVoyageNumber() {
+        return voyageNumber;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    /** @return True if the voyage is under way between the two times at some point of this. */
+    public boolean affects(Voyage voyage, LocalDateTime departure, LocalDateTime arrival) {
+        return voyage.getVoyageNumber().sameValueAs(voyageNumber)
+                && departure.isBefore(end)
+                && arrival.isAfter(start);
+    }
+
+    @Override
+    public String toString() {
+        return voyageNumber + " from " + start + " to " + end;
+    }
+}
@@ -1,5 +1,6 @@
 package org.eclipse.cargotracker.domain.model.voyage;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface VoyageRepository {
@@ -7,4 +8,10 @@ public interface VoyageRepository {
     Voyage find(VoyageNumber voyageNumber);
 
     List<Voyage> findAll();
+
+    /**
+     * @param voyageNumbers voyage numbers to look up at once
+     * @return The voyages that exist, in no particular order.
+     */
+    List<Voyage> findAll(Collection<VoyageNumber> voyageNumbers);
 }
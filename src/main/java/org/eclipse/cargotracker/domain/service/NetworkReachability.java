@@ -0,0 +1,15 @@
+package org.eclipse.cargotracker.domain.service;
+
+import org.eclipse.cargotracker.domain.model.location.Location;
+
+public interface NetworkReachability {
+
+    /**
+     * Tells whether any sequence of carrier movements leads from one location to the other,
+     * regardless of when they are scheduled. A route can only be found where this holds, but does
+     * not have to be: connections may be missed or arrive too late.
+     *
+     * @return True if the voyage network connects the origin to the destination.
+     */
+    boolean isReachable(Location origin, Location destination);
+}
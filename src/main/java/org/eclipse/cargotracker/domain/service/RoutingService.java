@@ -2,8 +2,16 @@ package org.eclipse.cargotracker.domain.service;
 
 import org.eclipse.cargotracker.domain.model.cargo.Itinerary;
 import org.eclipse.cargotracker.domain.model.cargo.RouteSpecification;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageDisruption;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 public interface RoutingService {
 
@@ -13,4 +21,60 @@ public interface RoutingService {
      *     route is found.
      */
     List<Itinerary> fetchRoutesForSpecification(RouteSpecification routeSpecification);
+
+    /**
+     * Same as {@link #fetchRoutesForSpecification(RouteSpecification)}, but the itineraries keep
+     * clear of the disrupted movements. Implementations that can should leave them out of the
+     * search, so that as many candidates as usual avoid them, and not answer from a cache. By
+     * default the disrupted itineraries are only left out of the answer.
+     */
+    default List<Itinerary> fetchRoutesForSpecification(
+            RouteSpecification routeSpecification, VoyageDisruption disruption) {
+        return fetchRoutesForSpecification(routeSpecification).stream()
+                .filter(
+                        itinerary ->
+                                itinerary.getLegs().stream()
+                                        .noneMatch(
+                                                leg ->
+                                                        disruption.affects(
+                                                                leg.getVoyage(),
+                                                                leg.getLoadTime(),
+                                                                leg.getUnloadTime())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Same as {@link #fetchRoutesForSpecification(RouteSpecification, VoyageDisruption)} for many
+     * route specifications at once, such as those of every cargo a disruption re-routes.
+     * Implementations that can should ask for all of them in one batch. By default each one is
+     * fetched on its own.
+     *
+     * @return The itineraries of each route specification.
+     */
+    default Map<RouteSpecification, List<Itinerary>> fetchRoutesForSpecifications(
+            Collection<RouteSpecification> routeSpecifications, VoyageDisruption disruption) {
+        Map<RouteSpecification, List<Itinerary>> itineraries = new HashMap<>();
+
+        for (RouteSpecification routeSpecification : routeSpecifications) {
+            itineraries.put(
+                    routeSpecification,
+                    fetchRoutesForSpecification(routeSpecification, disruption));
+        }
+
+        return itineraries;
+    }
+
+    /**
+     * Same as {@link #fetchRoutesForSpecification(RouteSpecification)}, but hands every itinerary
+     * to the consumer as soon as it is known, best first, so callers can show the first ones while
+     * later ones are still searched for. Implementations that cannot stream hand all of them over
+     * at once.
+     *
+     * @return Completes once the last itinerary has been handed over.
+     */
+    default CompletionStage<Void> streamRoutesForSpecification(
+            RouteSpecification routeSpecification, Consumer<Itinerary> consumer) {
+        fetchRoutesForSpecification(routeSpecification).forEach(consumer);
+        return CompletableFuture.completedFuture(null);
+    }
 }
@@ -1,26 +1,63 @@
 package org.eclipse.cargotracker.infrastructure.persistence.jpa;
 
 import org.eclipse.cargotracker.domain.model.cargo.Cargo;
+import org.eclipse.cargotracker.domain.model.cargo.CargoFetchPlan;
+import org.eclipse.cargotracker.domain.model.cargo.CargoFilter;
 import org.eclipse.cargotracker.domain.model.cargo.CargoRepository;
+import org.eclipse.cargotracker.domain.model.cargo.CargoSummary;
 import org.eclipse.cargotracker.domain.model.cargo.Leg;
 import org.eclipse.cargotracker.domain.model.cargo.TrackingId;
+import org.eclipse.cargotracker.domain.model.voyage.CarrierMovement;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageNumber;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
 import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class JpaCargoRepository implements CargoRepository, Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    // Legs are only mapped through the itinerary embedded in the cargo, and joins over it are not
+    // reliable on every provider, so the reverse look-ups are plain SQL. Both are answered from the
+    // index on the voyage and load time of the legs. Legs of replaced itineraries have no cargo
+    // any more and drop out of the join.
+    private static final String TRACKING_IDS_BY_VOYAGE_QUERY =
+            "select distinct c.tracking_id from Leg l"
+                    + " join Cargo c on c.id = l.cargo_id"
+                    + " join Voyage v on v.id = l.voyage_id"
+                    + " where v.voyage_number = ?1";
+    private static final String TRACKING_IDS_BY_VOYAGE_BETWEEN_QUERY =
+            TRACKING_IDS_BY_VOYAGE_QUERY + " and l.load_time < ?3 and l.unload_time > ?2";
+    private static final String TRACKING_IDS_BY_CARRIER_MOVEMENT_QUERY =
+            TRACKING_IDS_BY_VOYAGE_QUERY + " and l.load_time <= ?2 and l.unload_time >= ?3";
+
+    // Only the columns the lists show: no legs, no handling events, and the locations joined in
+    // rather than loaded one by one. A cargo never handled has no last known location.
+    private static final String SUMMARY_QUERY =
+            "Select new org.eclipse.cargotracker.domain.model.cargo.CargoSummary("
+                    + "c.trackingId.id, o.unLocode.unlocode, o.name,"
+                    + " d.unLocode.unlocode, d.name, c.routeSpecification.arrivalDeadline,"
+                    + " c.delivery.routingStatus, c.delivery.transportStatus,"
+                    + " c.delivery.misdirected, c.delivery.isUnloadedAtDestination,"
+                    + " l.unLocode.unlocode, l.name)"
+                    + " from Cargo c join c.origin o join c.routeSpecification.destination d"
+                    + " left join c.delivery.lastKnownLocation l";
+
+    private static final String LOAD_GRAPH_HINT = "javax.persistence.loadgraph";
+
     @Inject private Logger logger;
 
     @PersistenceContext private EntityManager entityManager;
@@ -43,6 +80,70 @@ public class JpaCargoRepository implements CargoRepository, Serializable {
         return cargo;
     }
 
+    @Override
+    public Cargo find(TrackingId trackingId, CargoFetchPlan fetchPlan) {
+        // The graph is joined in, which may repeat the cargo once per leg.
+        List<Cargo> cargos =
+                entityManager
+                        .createNamedQuery("Cargo.findByTrackingId", Cargo.class)
+                        .setParameter("trackingId", trackingId)
+                        .setHint(
+                                LOAD_GRAPH_HINT, entityManager.getEntityGraph(graphName(fetchPlan)))
+                        .getResultList();
+
+        return cargos.isEmpty() ? null : cargos.get(0);
+    }
+
+    private static String graphName(CargoFetchPlan fetchPlan) {
+        switch (fetchPlan) {
+            case TRACKING:
+                return "Cargo.tracking";
+            case ROUTING:
+                return "Cargo.routing";
+            default:
+                return "Cargo.inspection";
+        }
+    }
+
+    @Override
+    public List<TrackingId> findTrackingIdsByVoyage(VoyageNumber voyageNumber) {
+        return toTrackingIds(
+                entityManager
+                        .createNativeQuery(TRACKING_IDS_BY_VOYAGE_QUERY)
+                        .setParameter(1, voyageNumber.getIdString())
+                        .getResultList());
+    }
+
+    @Override
+    public List<TrackingId> findTrackingIdsByVoyage(
+            VoyageNumber voyageNumber, LocalDateTime from, LocalDateTime to) {
+        return toTrackingIds(
+                entityManager
+                        .createNativeQuery(TRACKING_IDS_BY_VOYAGE_BETWEEN_QUERY)
+                        .setParameter(1, voyageNumber.getIdString())
+                        .setParameter(2, from)
+                        .setParameter(3, to)
+                        .getResultList());
+    }
+
+    @Override
+    public List<TrackingId> findTrackingIdsByCarrierMovement(
+            VoyageNumber voyageNumber, CarrierMovement carrierMovement) {
+        return toTrackingIds(
+                entityManager
+                        .createNativeQuery(TRACKING_IDS_BY_CARRIER_MOVEMENT_QUERY)
+                        .setParameter(1, voyageNumber.getIdString())
+                        .setParameter(2, carrierMovement.getDepartureTime())
+                        .setParameter(3, carrierMovement.getArrivalTime())
+                        .getResultList());
+    }
+
+    private List<TrackingId> toTrackingIds(List<?> ids) {
+        return ids.stream()
+                .map(id -> new TrackingId((String) id))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void store(Cargo cargo) {
         // TODO [Clean Code] See why cascade is not working correctly for legs.
@@ -70,4 +171,67 @@ public class JpaCargoRepository implements CargoRepository, Serializable {
     public List<Cargo> findAll() {
         return entityManager.createNamedQuery("Cargo.findAll", Cargo.class).getResultList();
     }
+
+    @Override
+    public List<Cargo> findPage(CargoFilter filter, TrackingId after, int limit) {
+        return pageQuery("Select c from Cargo c", Cargo.class, filter, after, limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<TrackingId> findTrackingIdPage(CargoFilter filter, TrackingId after, int limit) {
+        return pageQuery(
+                        "Select c.trackingId from Cargo c", TrackingId.class, filter, after, limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<CargoSummary> findSummaryPage(CargoFilter filter, TrackingId after, int limit) {
+        return pageQuery(SUMMARY_QUERY, CargoSummary.class, filter, after, limit).getResultList();
+    }
+
+    private <T> TypedQuery<T> pageQuery(
+            String selectFrom,
+            Class<T> resultClass,
+            CargoFilter filter,
+            TrackingId after,
+            int limit) {
+        List<String> conditions = new ArrayList<>();
+
+        if (after != null) {
+            conditions.add("c.trackingId.id > :after");
+        }
+        if (!filter.getRoutingStatuses().isEmpty()) {
+            conditions.add("c.delivery.routingStatus in :routingStatuses");
+        }
+        if (!filter.getTransportStatuses().isEmpty()) {
+            conditions.add("c.delivery.transportStatus in :transportStatuses");
+        }
+        if (filter.getTrackingIdPrefix() != null) {
+            conditions.add("c.trackingId.id like :trackingIdPrefix escape '\\'");
+        }
+
+        String jpql =
+                selectFrom
+                        + (conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions))
+                        + " order by c.trackingId.id";
+        TypedQuery<T> query = entityManager.createQuery(jpql, resultClass).setMaxResults(limit);
+
+        if (after != null) {
+            query.setParameter("after", after.getIdString());
+        }
+        if (!filter.getRoutingStatuses().isEmpty()) {
+            query.setParameter("routingStatuses", filter.getRoutingStatuses());
+        }
+        if (!filter.getTransportStatuses().isEmpty()) {
+            query.setParameter("transportStatuses", filter.getTransportStatuses());
+        }
+        if (filter.getTrackingIdPrefix() != null) {
+            query.setParameter(
+                    "trackingIdPrefix",
+                    filter.getTrackingIdPrefix().replaceAll("[\\\\%_]", "\\\\$0") + "%");
+        }
+
+        return query;
+    }
 }
@@ -9,6 +9,7 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.io.Serializable;
+import java.util.Collection;
 
 @ApplicationScoped
 public class JpaHandlingEventRepository implements HandlingEventRepository, Serializable {
@@ -22,6 +23,13 @@ public class JpaHandlingEventRepository implements HandlingEventRepository, Seri
         entityManager.persist(event);
     }
 
+    @Override
+    public void storeAll(Collection<HandlingEvent> events) {
+        // The persistence unit batches the inserts, the flush sends them off in statement batches.
+        events.forEach(entityManager::persist);
+        entityManager.flush();
+    }
+
     @Override
     public HandlingHistory lookupHandlingHistoryOfCargo(TrackingId trackingId) {
         return new HandlingHistory(
@@ -10,10 +10,16 @@ import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Finds locations by the ids kept in the {@link ReferenceDataRegistry}. Only locations added
+ * since it was last loaded are queried for by code.
+ */
 @ApplicationScoped
 public class JpaLocationRepository implements LocationRepository, Serializable {
 
@@ -23,8 +29,16 @@ public class JpaLocationRepository implements LocationRepository, Serializable {
 
     @PersistenceContext private EntityManager entityManager;
 
+    @Inject private ReferenceDataRegistry referenceDataRegistry;
+
     @Override
     public Location find(UnLocode unLocode) {
+        Long id = referenceDataRegistry.findLocationId(unLocode);
+
+        if (id != null) {
+            return entityManager.find(Location.class, id);
+        }
+
         Location location;
         try {
             location =
@@ -43,4 +57,29 @@ public class JpaLocationRepository implements LocationRepository, Serializable {
     public List<Location> findAll() {
         return entityManager.createNamedQuery("Location.findAll", Location.class).getResultList();
     }
+
+    @Override
+    public List<Location> findAll(Collection<UnLocode> unLocodes) {
+        List<Location> locations = new ArrayList<>(unLocodes.size());
+        List<String> missing = new ArrayList<>();
+
+        for (UnLocode unLocode : unLocodes) {
+            Long id = referenceDataRegistry.findLocationId(unLocode);
+            if (id != null) {
+                locations.add(entityManager.find(Location.class, id));
+            } else {
+                missing.add(unLocode.getIdString());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            locations.addAll(
+                    entityManager
+                            .createNamedQuery("Location.findByUnLocodes", Location.class)
+                            .setParameter("unLocodes", missing)
+                            .getResultList());
+        }
+
+        return locations;
+    }
 }
@@ -10,10 +10,16 @@ import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Finds voyages by the ids kept in the {@link ReferenceDataRegistry}. Only voyages added since it
+ * was last loaded are queried for by code.
+ */
 @ApplicationScoped
 public class JpaVoyageRepository implements VoyageRepository, Serializable {
 
@@ -23,8 +29,16 @@ public class JpaVoyageRepository implements VoyageRepository, Serializable {
 
     @PersistenceContext private EntityManager entityManager;
 
+    @Inject private ReferenceDataRegistry referenceDataRegistry;
+
     @Override
     public Voyage find(VoyageNumber voyageNumber) {
+        Long id = referenceDataRegistry.findVoyageId(voyageNumber);
+
+        if (id != null) {
+            return entityManager.find(Voyage.class, id);
+        }
+
         Voyage voyage = null;
         try {
             voyage =
@@ -45,4 +59,29 @@ public class JpaVoyageRepository implements VoyageRepository, Serializable {
     public List<Voyage> findAll() {
         return entityManager.createNamedQuery("Voyage.findAll", Voyage.class).getResultList();
     }
+
+    @Override
+    public List<Voyage> findAll(Collection<VoyageNumber> voyageNumbers) {
+        List<Voyage> voyages = new ArrayList<>(voyageNumbers.size());
+        List<String> missing = new ArrayList<>();
+
+        for (VoyageNumber voyageNumber : voyageNumbers) {
+            Long id = referenceDataRegistry.findVoyageId(voyageNumber);
+            if (id != null) {
+                voyages.add(entityManager.find(Voyage.class, id));
+            } else {
+                missing.add(voyageNumber.getIdString());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            voyages.addAll(
+                    entityManager
+                            .createNamedQuery("Voyage.findByVoyageNumbers", Voyage.class)
+                            .setParameter("voyageNumbers", missing)
+                            .getResultList());
+        }
+
+        return voyages;
+    }
 }
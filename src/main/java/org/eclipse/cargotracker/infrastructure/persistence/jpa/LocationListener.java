@@ -0,0 +1,27 @@
+package org.eclipse.cargotracker.infrastructure.persistence.jpa;
+
+import org.eclipse.cargotracker.domain.model.location.Location;
+import org.eclipse.cargotracker.infrastructure.events.cdi.LocationChanged;
+
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Announces every write to a location, registered in META-INF/orm.xml like the {@link
+ * VoyageScheduleListener}. It is fired before the transaction completes, observers that reload
+ * data should wait for the commit.
+ */
+public class LocationListener {
+
+    @Inject @LocationChanged private Event<Location> locationChanged;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Location location) {
+        locationChanged.fire(location);
+    }
+}
@@ -0,0 +1,154 @@
+package org.eclipse.cargotracker.infrastructure.persistence.jpa;
+
+import org.eclipse.cargotracker.domain.model.location.Location;
+import org.eclipse.cargotracker.domain.model.location.UnLocode;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageNumber;
+import org.eclipse.cargotracker.infrastructure.events.cdi.LocationChanged;
+import org.eclipse.cargotracker.infrastructure.events.cdi.ScheduleChanged;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * The database ids of all locations and voyages, held in memory so that the repositories can look
+ * them up by primary key rather than query by code. Reference data changes a few times a day at
+ * most, while handling events look it up all the time.
+ *
+ * <p>Only ids are held, never entities: the repositories find the entities by id in their own
+ * persistence context, where they are managed like any other. A primary key lookup is served by
+ * the persistence context, or the shared cache where the provider keeps one, before the database.
+ *
+ * <p>The ids are loaded at startup into an immutable snapshot shared by all lookups. Committed
+ * changes to locations or voyage schedules mark it stale, and the next lookup loads a new one and
+ * swaps it in; lookups meanwhile keep using the snapshot they have.
+ */
+@ApplicationScoped
+public class ReferenceDataRegistry {
+
+    private static final Logger LOGGER = Logger.getLogger(ReferenceDataRegistry.class.getName());
+
+    private static final String LOCATION_IDS_QUERY =
+            "Select l.unLocode.unlocode, l.id from Location l";
+    private static final String VOYAGE_IDS_QUERY =
+            "Select v.voyageNumber.number, v.id from Voyage v";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    private volatile Snapshot snapshot;
+
+    // Guards loading the snapshot, never held by a lookup.
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    // Committed changes so far, a snapshot loaded before the last of them is stale.
+    private final AtomicInteger changes = new AtomicInteger();
+
+    public void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        try {
+            getSnapshot();
+        } catch (PersistenceException e) {
+            // The database may not be set up yet, the first lookup loads the ids then.
+            LOGGER.log(Level.WARNING, "Could not load reference data at startup", e);
+        }
+    }
+
+    /** @return The id of the location, or null if it is not known, or not yet. */
+    public Long findLocationId(UnLocode unLocode) {
+        return getSnapshot().locationIds.get(unLocode.getIdString());
+    }
+
+    /** @return The id of the voyage, or null if it is not known, or not yet. */
+    public Long findVoyageId(VoyageNumber voyageNumber) {
+        return getSnapshot().voyageIds.get(voyageNumber.getIdString());
+    }
+
+    public void onLocationChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) @LocationChanged Location changed) {
+        changes.incrementAndGet();
+    }
+
+    public void onScheduleChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) @ScheduleChanged Object changed) {
+        changes.incrementAndGet();
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+
+        if (current == null) {
+            loadLock.lock();
+            try {
+                current = refresh();
+            } finally {
+                loadLock.unlock();
+            }
+        } else if (current.changes != changes.get() && loadLock.tryLock()) {
+            try {
+                current = refresh();
+            } finally {
+                loadLock.unlock();
+            }
+        }
+
+        return current;
+    }
+
+    // Called with the load lock held.
+    private Snapshot refresh() {
+        Snapshot current = snapshot;
+
+        if (current == null || current.changes != changes.get()) {
+            long start = System.nanoTime();
+            // Read first, so that changes committed while loading leave the snapshot stale.
+            int seen = changes.get();
+            Map<String, Long> locationIds = loadIds(LOCATION_IDS_QUERY);
+            Map<String, Long> voyageIds = loadIds(VOYAGE_IDS_QUERY);
+
+            current = new Snapshot(seen, locationIds, voyageIds);
+            snapshot = current;
+
+            LOGGER.log(
+                    Level.FINE,
+                    "Loaded the ids of {0} locations and {1} voyages in {2} ms.",
+                    new Object[] {
+                        locationIds.size(),
+                        voyageIds.size(),
+                        (System.nanoTime() - start) / 1_000_000
+                    });
+        }
+
+        return current;
+    }
+
+    private Map<String, Long> loadIds(String query) {
+        return entityManager
+                .createQuery(query, Object[].class)
+                .getResultStream()
+                .collect(
+                        Collectors.toUnmodifiableMap(
+                                row -> (String) row[0], row -> (Long) row[1]));
+    }
+
+    private static class Snapshot {
+
+        private final int changes;
+        private final Map<String, Long> locationIds;
+        private final Map<String, Long> voyageIds;
+
+        Snapshot(int changes, Map<String, Long> locationIds, Map<String, Long> voyageIds) {
+            this.changes = changes;
+            this.locationIds = locationIds;
+            this.voyageIds = voyageIds;
+        }
+    }
+}
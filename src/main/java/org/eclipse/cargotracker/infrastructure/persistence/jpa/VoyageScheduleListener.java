@@ -0,0 +1,29 @@
+package org.eclipse.cargotracker.infrastructure.persistence.jpa;
+
+import org.eclipse.cargotracker.infrastructure.events.cdi.ScheduleChanged;
+
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Announces every write to a voyage or one of its carrier movements, so that anything derived from
+ * the schedules can be refreshed. Registered for both entities in META-INF/orm.xml, which keeps
+ * the domain model free of infrastructure references.
+ *
+ * <p>The event carries the changed entity, either a Voyage or a CarrierMovement. It is fired
+ * before the transaction completes, observers that reload data should wait for the commit.
+ */
+public class VoyageScheduleListener {
+
+    @Inject @ScheduleChanged private Event<Object> scheduleChanged;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        scheduleChanged.fire(entity);
+    }
+}
@@ -1,40 +1,57 @@
 package org.eclipse.cargotracker.infrastructure.routing;
 
 import org.eclipse.cargotracker.domain.model.cargo.Itinerary;
-import org.eclipse.cargotracker.domain.model.cargo.Leg;
 import org.eclipse.cargotracker.domain.model.cargo.RouteSpecification;
 import org.eclipse.cargotracker.domain.model.location.LocationRepository;
-import org.eclipse.cargotracker.domain.model.location.UnLocode;
-import org.eclipse.cargotracker.domain.model.voyage.VoyageNumber;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageDisruption;
 import org.eclipse.cargotracker.domain.model.voyage.VoyageRepository;
 import org.eclipse.cargotracker.domain.service.RoutingService;
-import org.eclipse.cargotracker.infrastructure.routing.client.GraphTraversalResourceClient;
-import org.eclipse.pathfinder.api.TransitEdge;
+import org.eclipse.cargotracker.infrastructure.routing.client.ResilientGraphTraversalClient;
+import org.eclipse.cargotracker.infrastructure.routing.table.RouteTable;
+import org.eclipse.pathfinder.api.GraphTraversalService;
+import org.eclipse.pathfinder.api.ShortestPathQuery;
 import org.eclipse.pathfinder.api.TransitPath;
 
+import javax.ejb.LocalBean;
 import javax.ejb.Stateless;
 import javax.inject.Inject;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.Logger;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * Our end of the routing service. This is basically a data model translation layer between our
  * domain model and the API put forward by the routing team, which operates in a different context
  * from us.
+ *
+ * <p>Reaches the path-finder over its REST API, for deployments where it runs apart from us. Which
+ * routing service is used is up to the {@link RoutingServiceProducer}. Routes precomputed for the
+ * lane in the {@link RouteTable} are used instead of calling it. Calls are made through a {@link
+ * ResilientGraphTraversalClient}, so a degraded path-finder does not hold up the callers.
  */
 @Stateless
+@LocalBean
 public class ExternalRoutingService implements RoutingService {
 
-    private static final Logger LOGGER = Logger.getLogger(ExternalRoutingService.class.getName());
+    // As many candidates as the path-finder returns by default.
+    public static final int CANDIDATE_COUNT = 5;
 
-    @Inject private LocationRepository locationRepository;
+    @Inject private TransitPathTranslator transitPathTranslator;
 
-    @Inject private VoyageRepository voyageRepository;
+    @Inject private ResilientGraphTraversalClient graphTraversalResource;
 
-    @Inject private GraphTraversalResourceClient graphTraversalResource;
+    @Inject private RouteCandidateCache routeCandidateCache;
+
+    @Inject private RouteTable routeTable;
 
     // reserved by CDI.
     public ExternalRoutingService() {}
@@ -42,10 +59,14 @@ public class ExternalRoutingService implements RoutingService {
     public ExternalRoutingService(
             LocationRepository locationRepository,
             VoyageRepository voyageRepository,
-            GraphTraversalResourceClient graphTraversalResource) {
-        this.locationRepository = locationRepository;
-        this.voyageRepository = voyageRepository;
+            ResilientGraphTraversalClient graphTraversalResource,
+            RouteCandidateCache routeCandidateCache,
+            RouteTable routeTable) {
+        this.transitPathTranslator =
+                new TransitPathTranslator(locationRepository, voyageRepository);
         this.graphTraversalResource = graphTraversalResource;
+        this.routeCandidateCache = routeCandidateCache;
+        this.routeTable = routeTable;
     }
 
     //    @PostConstruct
@@ -62,43 +83,141 @@ public class ExternalRoutingService implements RoutingService {
         String destination = routeSpecification.getDestination().getUnLocode().getIdString();
 
         List<TransitPath> transitPaths =
-                this.graphTraversalResource.findShortestPath(origin, destination);
-
-        // The returned result is then translated back into our domain model.
-        List<Itinerary> itineraries = new ArrayList<>();
-
-        // Use the specification to safe-guard against invalid itineraries
-        transitPaths.stream()
-                .map(this::toItinerary)
-                .forEach(
-                        itinerary -> {
-                            if (routeSpecification.isSatisfiedBy(itinerary)) {
-                                itineraries.add(itinerary);
-                            } else {
-                                LOGGER.log(
-                                        Level.FINE,
-                                        "Received itinerary that did not satisfy the route specification: {0}",
-                                        itinerary);
+                join(
+                        findShortestPathAsync(
+                                origin, destination, routeSpecification.getArrivalDeadline()));
+
+        // Translated here rather than on the thread completing the request, so the repositories
+        // are read within the transaction of this bean.
+        return transitPathTranslator.toItineraries(transitPaths, routeSpecification);
+    }
+
+    /**
+     * Asks the path-finder to search without the disrupted movements. Neither the cache nor the
+     * route table is consulted, their paths were searched for with the disrupted ones.
+     */
+    @Override
+    public List<Itinerary> fetchRoutesForSpecification(
+            RouteSpecification routeSpecification, VoyageDisruption disruption) {
+        String origin = routeSpecification.getOrigin().getUnLocode().getIdString();
+        String destination = routeSpecification.getDestination().getUnLocode().getIdString();
+
+        List<TransitPath> transitPaths =
+                join(
+                        graphTraversalResource.findShortestPathAsync(
+                                origin,
+                                destination,
+                                routeSpecification.getArrivalDeadline(),
+                                TransitPathTranslator.toVoyageExclusion(disruption)));
+
+        return transitPathTranslator.toItineraries(transitPaths, routeSpecification);
+    }
+
+    /**
+     * Asks the path-finder for all the route specifications in one batch, each query without the
+     * disrupted movements. Batches larger than the path-finder accepts are split, and the parts
+     * are sent at once. Neither the cache nor the route table is consulted.
+     */
+    @Override
+    public Map<RouteSpecification, List<Itinerary>> fetchRoutesForSpecifications(
+            Collection<RouteSpecification> routeSpecifications, VoyageDisruption disruption) {
+        List<RouteSpecification> indexed = new ArrayList<>(routeSpecifications);
+        List<ShortestPathQuery> queries =
+                TransitPathTranslator.toShortestPathQueries(indexed, disruption);
+
+        List<CompletionStage<Map<String, List<TransitPath>>>> batches = new ArrayList<>();
+        for (int from = 0; from < queries.size(); from += GraphTraversalService.MAX_BATCH_SIZE) {
+            int to = Math.min(from + GraphTraversalService.MAX_BATCH_SIZE, queries.size());
+            batches.add(graphTraversalResource.findShortestPathsAsync(queries.subList(from, to)));
+        }
+
+        Map<String, List<TransitPath>> transitPathsById = new HashMap<>();
+        for (CompletionStage<Map<String, List<TransitPath>>> batch : batches) {
+            transitPathsById.putAll(join(batch));
+        }
+
+        return transitPathTranslator.toItineraries(indexed, transitPathsById);
+    }
+
+    /**
+     * Streams the path-finder's candidates on a cache miss, each one is translated and handed over
+     * as it arrives. Cached paths are handed over at once. The streamed paths are cached like a
+     * requested answer.
+     */
+    @Override
+    public CompletionStage<Void> streamRoutesForSpecification(
+            RouteSpecification routeSpecification, Consumer<Itinerary> consumer) {
+        String origin = routeSpecification.getOrigin().getUnLocode().getIdString();
+        String destination = routeSpecification.getDestination().getUnLocode().getIdString();
+        // Unless the loader streams them, the paths are handed over once known.
+        AtomicBoolean streamed = new AtomicBoolean();
+
+        return routeCandidateCache
+                .get(
+                        origin,
+                        destination,
+                        routeSpecification.getArrivalDeadline(),
+                        deadline -> {
+                            List<TransitPath> precomputed =
+                                    routeTable.find(origin, destination, deadline);
+                            if (precomputed != null) {
+                                return CompletableFuture.completedFuture(precomputed);
                             }
-                        });
 
-        return itineraries;
+                            streamed.set(true);
+                            List<TransitPath> transitPaths = new CopyOnWriteArrayList<>();
+                            return graphTraversalResource
+                                    .streamShortestPath(
+                                            origin,
+                                            destination,
+                                            deadline,
+                                            CANDIDATE_COUNT,
+                                            transitPath -> {
+                                                transitPaths.add(transitPath);
+                                                transitPathTranslator
+                                                        .toItineraries(
+                                                                List.of(transitPath),
+                                                                routeSpecification)
+                                                        .forEach(consumer);
+                                            })
+                                    .thenApply(done -> List.copyOf(transitPaths));
+                        })
+                .thenAccept(
+                        transitPaths -> {
+                            if (!streamed.get()) {
+                                transitPathTranslator
+                                        .toItineraries(transitPaths, routeSpecification)
+                                        .forEach(consumer);
+                            }
+                        });
     }
 
-    private Itinerary toItinerary(TransitPath transitPath) {
-        List<Leg> legs =
-                transitPath.getTransitEdges().stream()
-                        .map(this::toLeg)
-                        .collect(Collectors.toList());
-        return new Itinerary(legs);
+    private CompletionStage<List<TransitPath>> findShortestPathAsync(
+            String origin, String destination, LocalDate deadline) {
+        return routeCandidateCache.get(
+                origin,
+                destination,
+                deadline,
+                searchDeadline -> {
+                    List<TransitPath> precomputed =
+                            routeTable.find(origin, destination, searchDeadline);
+
+                    return precomputed != null
+                            ? CompletableFuture.completedFuture(precomputed)
+                            : graphTraversalResource.findShortestPathAsync(
+                                    origin, destination, searchDeadline);
+                });
     }
 
-    private Leg toLeg(TransitEdge edge) {
-        return new Leg(
-                voyageRepository.find(new VoyageNumber(edge.getVoyageNumber())),
-                locationRepository.find(new UnLocode(edge.getFromUnLocode())),
-                locationRepository.find(new UnLocode(edge.getToUnLocode())),
-                edge.getFromDate(),
-                edge.getToDate());
+    /** Waits for the path-finder on the calling thread, failing with what failed the request. */
+    private static <T> T join(CompletionStage<T> request) {
+        try {
+            return request.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
     }
 }
@@ -0,0 +1,144 @@
+package org.eclipse.cargotracker.infrastructure.routing;
+
+import org.eclipse.cargotracker.domain.model.cargo.Itinerary;
+import org.eclipse.cargotracker.domain.model.cargo.RouteSpecification;
+import org.eclipse.cargotracker.domain.model.location.LocationRepository;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageDisruption;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageRepository;
+import org.eclipse.cargotracker.domain.service.RoutingService;
+import org.eclipse.cargotracker.infrastructure.routing.table.RouteTable;
+import org.eclipse.pathfinder.api.GraphTraversalService;
+import org.eclipse.pathfinder.api.ShortestPathQuery;
+import org.eclipse.pathfinder.api.TransitPath;
+
+import javax.ejb.LocalBean;
+import javax.ejb.Stateless;
+import javax.inject.Inject;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Routes with the path-finder deployed in the same application, calling its graph traversal
+ * service directly. The transit paths are handed over as objects, so there is no socket hop and no
+ * JSON to write and parse. Searches run on the calling thread, there is nothing to wait on. Routes
+ * precomputed for the lane in the {@link RouteTable} are used instead of searching.
+ *
+ * <p>Which routing service is used is up to the {@link RoutingServiceProducer}.
+ */
+@Stateless
+@LocalBean
+public class InProcessRoutingService implements RoutingService {
+
+    // As many candidates as the path-finder returns over HTTP by default.
+    public static final int CANDIDATE_COUNT = 5;
+
+    @Inject private TransitPathTranslator transitPathTranslator;
+
+    @Inject private GraphTraversalService graphTraversalService;
+
+    @Inject private RouteCandidateCache routeCandidateCache;
+
+    @Inject private RouteTable routeTable;
+
+    // reserved by CDI.
+    public InProcessRoutingService() {}
+
+    public InProcessRoutingService(
+            LocationRepository locationRepository,
+            VoyageRepository voyageRepository,
+            GraphTraversalService graphTraversalService,
+            RouteCandidateCache routeCandidateCache,
+            RouteTable routeTable) {
+        this.transitPathTranslator =
+                new TransitPathTranslator(locationRepository, voyageRepository);
+        this.graphTraversalService = graphTraversalService;
+        this.routeCandidateCache = routeCandidateCache;
+        this.routeTable = routeTable;
+    }
+
+    @Override
+    public List<Itinerary> fetchRoutesForSpecification(RouteSpecification routeSpecification) {
+        String origin = routeSpecification.getOrigin().getUnLocode().getIdString();
+        String destination = routeSpecification.getDestination().getUnLocode().getIdString();
+
+        List<TransitPath> transitPaths;
+
+        try {
+            // A miss searches right here, a concurrent miss for the same lane waits for it.
+            transitPaths =
+                    routeCandidateCache
+                            .get(
+                                    origin,
+                                    destination,
+                                    routeSpecification.getArrivalDeadline(),
+                                    deadline ->
+                                            CompletableFuture.completedFuture(
+                                                    findShortestPath(
+                                                            origin, destination, deadline)))
+                            .toCompletableFuture()
+                            .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+
+        return transitPathTranslator.toItineraries(transitPaths, routeSpecification);
+    }
+
+    /**
+     * Searches without the disrupted movements. Neither the cache nor the route table is
+     * consulted, their paths were searched for with the disrupted ones.
+     */
+    @Override
+    public List<Itinerary> fetchRoutesForSpecification(
+            RouteSpecification routeSpecification, VoyageDisruption disruption) {
+        return transitPathTranslator.toItineraries(
+                graphTraversalService.findShortestPath(
+                        routeSpecification.getOrigin().getUnLocode().getIdString(),
+                        routeSpecification.getDestination().getUnLocode().getIdString(),
+                        routeSpecification.getArrivalDeadline(),
+                        CANDIDATE_COUNT,
+                        TransitPathTranslator.toVoyageExclusion(disruption)),
+                routeSpecification);
+    }
+
+    /**
+     * Searches all the route specifications as one batch over the same timetable snapshot, each
+     * one without the disrupted movements. Neither the cache nor the route table is consulted.
+     */
+    @Override
+    public Map<RouteSpecification, List<Itinerary>> fetchRoutesForSpecifications(
+            Collection<RouteSpecification> routeSpecifications, VoyageDisruption disruption) {
+        List<RouteSpecification> indexed = new ArrayList<>(routeSpecifications);
+        List<ShortestPathQuery> queries =
+                TransitPathTranslator.toShortestPathQueries(indexed, disruption);
+
+        Map<String, List<TransitPath>> transitPathsById = new HashMap<>();
+        for (int from = 0; from < queries.size(); from += GraphTraversalService.MAX_BATCH_SIZE) {
+            int to = Math.min(from + GraphTraversalService.MAX_BATCH_SIZE, queries.size());
+            transitPathsById.putAll(
+                    graphTraversalService.findShortestPaths(
+                            queries.subList(from, to), CANDIDATE_COUNT));
+        }
+
+        return transitPathTranslator.toItineraries(indexed, transitPathsById);
+    }
+
+    private List<TransitPath> findShortestPath(
+            String origin, String destination, LocalDate deadline) {
+        List<TransitPath> precomputed = routeTable.find(origin, destination, deadline);
+
+        return precomputed != null
+                ? precomputed
+                : graphTraversalService.findShortestPath(
+                        origin, destination, deadline, CANDIDATE_COUNT);
+    }
+}
@@ -0,0 +1,76 @@
+package org.eclipse.cargotracker.infrastructure.routing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The transitive closure of the links between locations, one bit per pair. Each location owns a
+ * row of words holding the locations reachable from it, so a lookup is a single bit test.
+ */
+public class ReachabilityMatrix {
+
+    private final Map<String, Integer> indices;
+    private final int wordsPerRow;
+    private final long[] bits;
+
+    private ReachabilityMatrix(Map<String, Integer> indices, int wordsPerRow, long[] bits) {
+        this.indices = indices;
+        this.wordsPerRow = wordsPerRow;
+        this.bits = bits;
+    }
+
+    /** @param links pairs of departure and arrival UN/LOCODEs of the carrier movements */
+    public static ReachabilityMatrix of(Iterable<String[]> links) {
+        Map<String, Integer> indices = new HashMap<>();
+        for (String[] link : links) {
+            indices.putIfAbsent(link[0], indices.size());
+            indices.putIfAbsent(link[1], indices.size());
+        }
+
+        int size = indices.size();
+        int wordsPerRow = (size + Long.SIZE - 1) / Long.SIZE;
+        long[] bits = new long[size * wordsPerRow];
+
+        for (String[] link : links) {
+            int target = indices.get(link[1]);
+            bits[indices.get(link[0]) * wordsPerRow + target / Long.SIZE] |= 1L << target;
+        }
+
+        // Warshall's algorithm a word at a time: whatever reaches k reaches all k reaches.
+        for (int k = 0; k < size; k++) {
+            int kRow = k * wordsPerRow;
+            int kWord = k / Long.SIZE;
+            long kBit = 1L << k;
+
+            for (int i = 0; i < size; i++) {
+                int iRow = i * wordsPerRow;
+                if (i != k && (bits[iRow + kWord] & kBit) != 0) {
+                    for (int w = 0; w < wordsPerRow; w++) {
+                        bits[iRow + w] |= bits[kRow + w];
+                    }
+                }
+            }
+        }
+
+        return new ReachabilityMatrix(indices, wordsPerRow, bits);
+    }
+
+    public boolean isReachable(String origin, String destination) {
+        if (origin.equals(destination)) {
+            return true;
+        }
+
+        Integer source = indices.get(origin);
+        Integer target = indices.get(destination);
+
+        if (source == null || target == null) {
+            return false;
+        }
+
+        return (bits[source * wordsPerRow + target / Long.SIZE] & (1L << target)) != 0;
+    }
+
+    public int locationCount() {
+        return indices.size();
+    }
+}
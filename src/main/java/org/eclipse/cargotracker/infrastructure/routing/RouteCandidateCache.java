@@ -0,0 +1,179 @@
+package org.eclipse.cargotracker.infrastructure.routing;
+
+import org.eclipse.cargotracker.infrastructure.events.cdi.ScheduleChanged;
+import org.eclipse.pathfinder.api.TransitPath;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Remembers the transit paths the path-finder returned per lane, so that repeated route requests
+ * for a busy lane do not each pay a remote call. Requests still in flight are shared as well.
+ *
+ * <p>Entries are keyed on origin, destination and the week the deadline falls in. The cache holds
+ * a bounded number of lanes, evicting the least recently used one, and entries expire after a
+ * while since departures in the past drop out of the answer. All entries are dropped once a change
+ * to any voyage schedule is committed.
+ *
+ * <p>Only the path-finder's answer is cached, not itineraries: legs are entities and must not be
+ * shared between cargoes.
+ */
+@ApplicationScoped
+public class RouteCandidateCache {
+
+    private static final Logger LOGGER = Logger.getLogger(RouteCandidateCache.class.getName());
+
+    private static final int MAX_LANES = 1000;
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(10);
+    private static final int DEADLINE_BUCKET_DAYS = 7;
+
+    private final Map<Lane, CachedPaths> entries =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Lane, CachedPaths> eldest) {
+                    return size() > MAX_LANES;
+                }
+            };
+
+    /**
+     * Concurrent misses for the same lane share one request to the path-finder. Failed requests are
+     * not cached.
+     *
+     * @param loader requests the paths arriving before the given day, the last deadline of the
+     *     week the deadline falls in, or null if there is no deadline. The cached paths may hence
+     *     arrive later than the deadline asked for, callers filter them with their own.
+     */
+    public CompletionStage<List<TransitPath>> get(
+            String origin,
+            String destination,
+            LocalDate deadline,
+            Function<LocalDate, CompletionStage<List<TransitPath>>> loader) {
+        long deadlineBucket = deadlineBucket(deadline);
+        Lane lane = new Lane(origin, destination, deadlineBucket);
+        long now = System.nanoTime();
+        CachedPaths entry;
+
+        synchronized (entries) {
+            CachedPaths cached = entries.get(lane);
+            if (cached != null && now - cached.loadedAt < TIME_TO_LIVE.toNanos()) {
+                return cached.transitPaths.minimalCompletionStage();
+            }
+
+            entry = new CachedPaths(new CompletableFuture<>(), now);
+            entries.put(lane, entry);
+        }
+
+        try {
+            loader.apply(lastDeadlineOf(deadlineBucket))
+                    .whenComplete(
+                            (transitPaths, failure) -> {
+                                if (failure == null) {
+                                    entry.transitPaths.complete(List.copyOf(transitPaths));
+                                } else {
+                                    fail(lane, entry, failure);
+                                }
+                            });
+        } catch (RuntimeException e) {
+            fail(lane, entry, e);
+        }
+
+        return entry.transitPaths.minimalCompletionStage();
+    }
+
+    private void fail(Lane lane, CachedPaths entry, Throwable failure) {
+        synchronized (entries) {
+            entries.remove(lane, entry);
+        }
+
+        entry.transitPaths.completeExceptionally(failure);
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public void onScheduleChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) @ScheduleChanged Object changed) {
+        LOGGER.log(Level.FINE, "Dropping cached routes after schedule change of {0}", changed);
+        invalidateAll();
+    }
+
+    /**
+     * @return The deadline the path-finder is asked for in place of the given one, the last of its
+     *     week, or null if there is none.
+     */
+    public static LocalDate searchDeadlineFor(LocalDate deadline) {
+        return lastDeadlineOf(deadlineBucket(deadline));
+    }
+
+    private static long deadlineBucket(LocalDate deadline) {
+        return deadline == null
+                ? Long.MAX_VALUE
+                : Math.floorDiv(deadline.toEpochDay(), DEADLINE_BUCKET_DAYS);
+    }
+
+    private static LocalDate lastDeadlineOf(long deadlineBucket) {
+        return deadlineBucket == Long.MAX_VALUE
+                ? null
+                : LocalDate.ofEpochDay((deadlineBucket + 1) * DEADLINE_BUCKET_DAYS - 1);
+    }
+
+    private static class Lane {
+
+        private final String origin;
+        private final String destination;
+        private final long deadlineBucket;
+
+        Lane(String origin, String destination, long deadlineBucket) {
+            this.origin = origin;
+            this.destination = destination;
+            this.deadlineBucket = deadlineBucket;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Lane)) {
+                return false;
+            }
+
+            Lane that = (Lane) o;
+
+            return deadlineBucket == that.deadlineBucket
+                    && origin.equals(that.origin)
+                    && destination.equals(that.destination);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(origin, destination, deadlineBucket);
+        }
+    }
+
+    private static class CachedPaths {
+
+        private final CompletableFuture<List<TransitPath>> transitPaths;
+        private final long loadedAt;
+
+        CachedPaths(CompletableFuture<List<TransitPath>> transitPaths, long loadedAt) {
+            this.transitPaths = transitPaths;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.eclipse.cargotracker.infrastructure.routing;
+
+import org.eclipse.cargotracker.domain.service.RoutingService;
+
+import javax.annotation.Resource;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Produces;
+import javax.inject.Inject;
+
+/**
+ * Picks the routing service named by the routing mode configuration entry: {@code in-process}
+ * calls the path-finder deployed in this application directly, {@code external} goes through its
+ * REST API at the graph traversal URL, for deployments that run the path-finder apart.
+ */
+@ApplicationScoped
+public class RoutingServiceProducer {
+
+    public static final String IN_PROCESS = "in-process";
+    public static final String EXTERNAL = "external";
+
+    @Resource(lookup = "java:app/configuration/RoutingMode")
+    private String routingMode;
+
+    @Inject private InProcessRoutingService inProcessRoutingService;
+
+    @Inject private ExternalRoutingService externalRoutingService;
+
+    @Produces
+    public RoutingService routingService() {
+        switch (routingMode.trim()) {
+            case IN_PROCESS:
+                return inProcessRoutingService;
+            case EXTERNAL:
+                return externalRoutingService;
+            default:
+                throw new IllegalStateException(
+                        "Unknown routing mode "
+                                + routingMode
+                                + ", expected "
+                                + IN_PROCESS
+                                + " or "
+                                + EXTERNAL
+                                + ".");
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.eclipse.cargotracker.infrastructure.routing;
+
+import org.eclipse.cargotracker.domain.model.cargo.Itinerary;
+import org.eclipse.cargotracker.domain.model.cargo.Leg;
+import org.eclipse.cargotracker.domain.model.cargo.RouteSpecification;
+import org.eclipse.cargotracker.domain.model.location.Location;
+import org.eclipse.cargotracker.domain.model.location.LocationRepository;
+import org.eclipse.cargotracker.domain.model.location.UnLocode;
+import org.eclipse.cargotracker.domain.model.voyage.Voyage;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageDisruption;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageNumber;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageRepository;
+import org.eclipse.pathfinder.api.ShortestPathQuery;
+import org.eclipse.pathfinder.api.TransitEdge;
+import org.eclipse.pathfinder.api.TransitPath;
+import org.eclipse.pathfinder.api.VoyageExclusion;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Translates the transit paths of the path-finder back into our domain model, however the paths
+ * were obtained, and disruptions into the movements the path-finder is to exclude.
+ */
+public class TransitPathTranslator {
+
+    private static final Logger LOGGER = Logger.getLogger(TransitPathTranslator.class.getName());
+
+    @Inject private LocationRepository locationRepository;
+
+    @Inject private VoyageRepository voyageRepository;
+
+    // reserved by CDI.
+    public TransitPathTranslator() {}
+
+    public TransitPathTranslator(
+            LocationRepository locationRepository, VoyageRepository voyageRepository) {
+        this.locationRepository = locationRepository;
+        this.voyageRepository = voyageRepository;
+    }
+
+    /**
+     * Looks up the voyages and locations of the legs, so it is called on the thread of the routing
+     * request, within its transaction.
+     *
+     * @return The itineraries of the paths that satisfy the route specification, in path order.
+     */
+    public List<Itinerary> toItineraries(
+            List<TransitPath> transitPaths, RouteSpecification routeSpecification) {
+        // Every voyage and location the candidates touch is loaded with one query per kind,
+        // rather than one query per leg end.
+        Map<VoyageNumber, Voyage> voyages = findVoyages(transitPaths);
+        Map<UnLocode, Location> locations = findLocations(transitPaths);
+
+        return toItineraries(transitPaths, routeSpecification, voyages, locations);
+    }
+
+    /** @return The movements the path-finder is to leave out of its search for the disruption. */
+    public static VoyageExclusion toVoyageExclusion(VoyageDisruption disruption) {
+        return new VoyageExclusion(
+                disruption.getVoyageNumber().getIdString(),
+                disruption.getStart(),
+                disruption.getEnd());
+    }
+
+    /**
+     * @return One batch query per route specification, each excluding the disrupted movements. The
+     *     query ids are the indexes of the route specifications.
+     */
+    public static List<ShortestPathQuery> toShortestPathQueries(
+            List<RouteSpecification> routeSpecifications, VoyageDisruption disruption) {
+        VoyageExclusion excluded = toVoyageExclusion(disruption);
+        List<ShortestPathQuery> queries = new ArrayList<>(routeSpecifications.size());
+
+        for (int i = 0; i < routeSpecifications.size(); i++) {
+            RouteSpecification routeSpecification = routeSpecifications.get(i);
+            queries.add(
+                    new ShortestPathQuery(
+                            String.valueOf(i),
+                            routeSpecification.getOrigin().getUnLocode().getIdString(),
+                            routeSpecification.getDestination().getUnLocode().getIdString(),
+                            routeSpecification.getArrivalDeadline(),
+                            excluded));
+        }
+
+        return queries;
+    }
+
+    /**
+     * Same as {@link #toItineraries(List, RouteSpecification)} for the answer to the {@link
+     * #toShortestPathQueries(List, VoyageDisruption) queries} of many route specifications. The
+     * voyages and locations of all of them are looked up at once.
+     *
+     * @return The itineraries of each route specification, none for those the answer lacks.
+     */
+    public Map<RouteSpecification, List<Itinerary>> toItineraries(
+            List<RouteSpecification> routeSpecifications,
+            Map<String, List<TransitPath>> transitPathsById) {
+        List<TransitPath> allTransitPaths =
+                transitPathsById.values().stream()
+                        .flatMap(List::stream)
+                        .collect(Collectors.toList());
+        Map<VoyageNumber, Voyage> voyages = findVoyages(allTransitPaths);
+        Map<UnLocode, Location> locations = findLocations(allTransitPaths);
+
+        Map<RouteSpecification, List<Itinerary>> itineraries = new HashMap<>();
+
+        for (int i = 0; i < routeSpecifications.size(); i++) {
+            RouteSpecification routeSpecification = routeSpecifications.get(i);
+            itineraries.put(
+                    routeSpecification,
+                    toItineraries(
+                            transitPathsById.getOrDefault(
+                                    String.valueOf(i), Collections.emptyList()),
+                            routeSpecification,
+                            voyages,
+                            locations));
+        }
+
+        return itineraries;
+    }
+
+    private List<Itinerary> toItineraries(
+            List<TransitPath> transitPaths,
+            RouteSpecification routeSpecification,
+            Map<VoyageNumber, Voyage> voyages,
+            Map<UnLocode, Location> locations) {
+        List<Itinerary> itineraries = new ArrayList<>();
+
+        // Use the specification to safe-guard against invalid itineraries
+        transitPaths.stream()
+                .map(transitPath -> toItinerary(transitPath, voyages, locations))
+                .forEach(
+                        itinerary -> {
+                            if (routeSpecification.isSatisfiedBy(itinerary)) {
+                                itineraries.add(itinerary);
+                            } else {
+                                LOGGER.log(
+                                        Level.FINE,
+                                        "Received itinerary that did not satisfy the route specification: {0}",
+                                        itinerary);
+                            }
+                        });
+
+        return itineraries;
+    }
+
+    private Map<VoyageNumber, Voyage> findVoyages(List<TransitPath> transitPaths) {
+        Set<VoyageNumber> voyageNumbers =
+                transitPaths.stream()
+                        .flatMap(transitPath -> transitPath.getTransitEdges().stream())
+                        .map(edge -> new VoyageNumber(edge.getVoyageNumber()))
+                        .collect(Collectors.toSet());
+
+        return voyageRepository.findAll(voyageNumbers).stream()
+                .collect(Collectors.toMap(Voyage::getVoyageNumber, Function.identity()));
+    }
+
+    private Map<UnLocode, Location> findLocations(List<TransitPath> transitPaths) {
+        Set<UnLocode> unLocodes =
+                transitPaths.stream()
+                        .flatMap(transitPath -> transitPath.getTransitEdges().stream())
+                        .flatMap(
+                                edge ->
+                                        Stream.of(
+                                                new UnLocode(edge.getFromUnLocode()),
+                                                new UnLocode(edge.getToUnLocode())))
+                        .collect(Collectors.toSet());
+
+        return locationRepository.findAll(unLocodes).stream()
+                .collect(Collectors.toMap(Location::getUnLocode, Function.identity()));
+    }
+
+    private Itinerary toItinerary(
+            TransitPath transitPath,
+            Map<VoyageNumber, Voyage> voyages,
+            Map<UnLocode, Location> locations) {
+        List<Leg> legs =
+                transitPath.getTransitEdges().stream()
+                        .map(edge -> toLeg(edge, voyages, locations))
+                        .collect(Collectors.toList());
+        return new Itinerary(legs);
+    }
+
+    private Leg toLeg(
+            TransitEdge edge,
+            Map<VoyageNumber, Voyage> voyages,
+            Map<UnLocode, Location> locations) {
+        return new Leg(
+                voyages.get(new VoyageNumber(edge.getVoyageNumber())),
+                locations.get(new UnLocode(edge.getFromUnLocode())),
+                locations.get(new UnLocode(edge.getToUnLocode())),
+                edge.getFromDate(),
+                edge.getToDate());
+    }
+}
@@ -0,0 +1,99 @@
+package org.eclipse.cargotracker.infrastructure.routing;
+
+import org.eclipse.cargotracker.domain.model.location.Location;
+import org.eclipse.cargotracker.domain.service.NetworkReachability;
+import org.eclipse.cargotracker.infrastructure.events.cdi.ScheduleChanged;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Reachability over the voyage network, built from the locations each carrier movement links and
+ * shared until a change to any voyage schedule is committed. The next lookup rebuilds it then, and
+ * lookups arriving meanwhile wait for that one rebuild rather than read the network again.
+ */
+@ApplicationScoped
+public class VoyageNetworkReachability implements NetworkReachability {
+
+    private static final Logger LOGGER =
+            Logger.getLogger(VoyageNetworkReachability.class.getName());
+
+    private static final String LINKS_QUERY =
+            "Select distinct d.unLocode.unlocode, a.unLocode.unlocode"
+                    + " from Voyage v join v.schedule.carrierMovements m"
+                    + " join m.departureLocation d join m.arrivalLocation a";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    private volatile ReachabilityMatrix matrix;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Tells a rebuild whether the schedules changed while it was reading them.
+    private final AtomicInteger scheduleChanges = new AtomicInteger();
+
+    @Override
+    public boolean isReachable(Location origin, Location destination) {
+        return getMatrix()
+                .isReachable(
+                        origin.getUnLocode().getIdString(),
+                        destination.getUnLocode().getIdString());
+    }
+
+    public synchronized void onScheduleChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) @ScheduleChanged Object changed) {
+        scheduleChanges.incrementAndGet();
+        matrix = null;
+    }
+
+    private ReachabilityMatrix getMatrix() {
+        ReachabilityMatrix current = matrix;
+
+        if (current != null) {
+            return current;
+        }
+
+        rebuildLock.lock();
+        try {
+            // Built by the lookup this one waited for.
+            current = matrix;
+            if (current != null) {
+                return current;
+            }
+
+            int seen = scheduleChanges.get();
+            List<String[]> links =
+                    entityManager
+                            .createQuery(LINKS_QUERY, Object[].class)
+                            .getResultStream()
+                            .map(row -> new String[] {(String) row[0], (String) row[1]})
+                            .collect(Collectors.toList());
+            current = ReachabilityMatrix.of(links);
+
+            // Kept only if no change arrived meanwhile, the next lookup rebuilds otherwise.
+            synchronized (this) {
+                if (scheduleChanges.get() == seen) {
+                    matrix = current;
+                }
+            }
+
+            LOGGER.log(
+                    Level.FINE,
+                    "Built reachability over {0} locations from {1} links.",
+                    new Object[] {current.locationCount(), links.size()});
+
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+}
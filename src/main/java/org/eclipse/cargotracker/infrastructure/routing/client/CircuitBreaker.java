@@ -0,0 +1,69 @@
+package org.eclipse.cargotracker.infrastructure.routing.client;
+
+import java.time.Duration;
+
+/**
+ * Opens after a number of consecutive failures, so that callers stop waiting on a service that is
+ * down. Once open for a while a single trial request is let through, which closes the breaker
+ * again if it succeeds and keeps it open for another while if it fails.
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /** @return True if a request may go out, the trial request when the breaker is half open. */
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt >= openNanos) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                // The trial request is still out.
+                return false;
+        }
+    }
+
+    synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    /** @return True if this failure opened the breaker. */
+    synchronized boolean recordFailure() {
+        consecutiveFailures++;
+
+        if (state == State.HALF_OPEN
+                || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            return true;
+        }
+
+        return false;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
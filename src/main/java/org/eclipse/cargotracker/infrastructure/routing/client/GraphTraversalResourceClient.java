@@ -1,33 +1,94 @@
 package org.eclipse.cargotracker.infrastructure.routing.client;
 
+import org.eclipse.pathfinder.api.ShortestPathQuery;
 import org.eclipse.pathfinder.api.TransitPath;
+import org.eclipse.pathfinder.api.VoyageExclusion;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.enterprise.context.ApplicationScoped;
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Client for the path-finder's graph traversal resource.
+ *
+ * <p>A single JAX-RS client is shared by all requests, so connections to the path-finder are kept
+ * alive and reused. Responses of asynchronous requests are handled on the container's managed
+ * executor instead of a request thread.
+ */
 @ApplicationScoped
 public class GraphTraversalResourceClient {
     private static final Logger LOGGER =
             Logger.getLogger(GraphTraversalResourceClient.class.getName());
 
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(30);
+    // All requests go to the same host, so the pool and the per-route limit are the same.
+    private static final int MAX_CONNECTIONS = 20;
+
+    // Newline delimited JSON, as streamed by the path-finder.
+    private static final String NDJSON = "application/x-ndjson";
+
+    // The format the path-finder expects deadlines in.
+    private static final DateTimeFormatter DEADLINE_FORMAT =
+            DateTimeFormatter.ofPattern("M/d/yyyy");
+
+    private static final GenericType<List<TransitPath>> TRANSIT_PATHS = new GenericType<>() {};
+    private static final GenericType<Map<String, List<TransitPath>>> TRANSIT_PATHS_BY_QUERY =
+            new GenericType<>() {};
+
     @Resource(lookup = "java:app/configuration/GraphTraversalUrl")
     private String graphTraversalUrl;
 
+    @Resource private ManagedExecutorService managedExecutorService;
+
     private Client jaxrsClient = null;
 
+    // Reads the streamed lines, the JAX-RS client only binds whole entities.
+    private Jsonb jsonb = null;
+
     @PostConstruct
     public void init() {
-        this.jaxrsClient = ClientBuilder.newClient();
+        ClientBuilder clientBuilder =
+                ClientBuilder.newBuilder()
+                        .connectTimeout(CONNECT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout(READ_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                        .executorService(managedExecutorService);
+        configureConnectionPool(clientBuilder);
+
+        this.jaxrsClient = clientBuilder.build();
+        this.jsonb = JsonbBuilder.create();
         try {
             Class<?> clazz =
                     Class.forName(
@@ -42,23 +103,193 @@ public class GraphTraversalResourceClient {
         }
     }
 
+    /**
+     * RESTEasy only pools connections when asked to, while Jersey's default connector relies on
+     * the keep-alive cache of the JDK. The RESTEasy builder is configured by reflection, since it
+     * is only on the class path on WildFly.
+     */
+    private void configureConnectionPool(ClientBuilder clientBuilder) {
+        try {
+            clientBuilder
+                    .getClass()
+                    .getMethod("connectionPoolSize", int.class)
+                    .invoke(clientBuilder, MAX_CONNECTIONS);
+            clientBuilder
+                    .getClass()
+                    .getMethod("maxPooledPerRoute", int.class)
+                    .invoke(clientBuilder, MAX_CONNECTIONS);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            LOGGER.log(
+                    Level.FINE,
+                    "Using the default connection handling of {0}",
+                    clientBuilder.getClass().getName());
+        }
+    }
+
     @PreDestroy
     public void destroy() {
         this.jaxrsClient.close();
+        try {
+            this.jsonb.close();
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "Closing the JSON binding failed", e);
+        }
     }
 
     public List<TransitPath> findShortestPath(String origin, String destination) {
+        return findShortestPath(origin, destination, null);
+    }
+
+    /**
+     * @param deadline paths must arrive before this day starts, may be null. The path-finder
+     *     prunes the paths that cannot make it while searching.
+     */
+    public List<TransitPath> findShortestPath(
+            String origin, String destination, LocalDate deadline) {
+        return shortestPathRequest(origin, destination, deadline).get(TRANSIT_PATHS);
+    }
+
+    public CompletionStage<List<TransitPath>> findShortestPathAsync(
+            String origin, String destination) {
+        return findShortestPathAsync(origin, destination, null);
+    }
+
+    /**
+     * Does not block the calling thread while the path-finder computes.
+     *
+     * @param deadline paths must arrive before this day starts, may be null
+     * @return Completes with the transit paths, or exceptionally with a {@link
+     *     javax.ws.rs.ProcessingException} on timeouts and connection failures.
+     */
+    public CompletionStage<List<TransitPath>> findShortestPathAsync(
+            String origin, String destination, LocalDate deadline) {
+        return findShortestPathAsync(origin, destination, deadline, null);
+    }
+
+    /** @param excluded movements the paths must not use, may be null */
+    public CompletionStage<List<TransitPath>> findShortestPathAsync(
+            String origin, String destination, LocalDate deadline, VoyageExclusion excluded) {
+        WebTarget target = shortestPathTarget(origin, destination, deadline);
+
+        if (excluded != null) {
+            target =
+                    target.queryParam("excludedVoyage", excluded.getVoyageNumber())
+                            .queryParam("excludedFrom", excluded.getFrom())
+                            .queryParam("excludedTo", excluded.getTo());
+        }
+
+        return target.request(MediaType.APPLICATION_JSON_TYPE).rx().get(TRANSIT_PATHS);
+    }
+
+    /**
+     * Routes many origin and destination pairs in a single round trip.
+     *
+     * @return The transit paths of every query, keyed by query id.
+     */
+    public Map<String, List<TransitPath>> findShortestPaths(List<ShortestPathQuery> queries) {
+        return shortestPathsRequest().post(Entity.json(queries), TRANSIT_PATHS_BY_QUERY);
+    }
+
+    public CompletionStage<Map<String, List<TransitPath>>> findShortestPathsAsync(
+            List<ShortestPathQuery> queries) {
+        return shortestPathsRequest().rx().post(Entity.json(queries), TRANSIT_PATHS_BY_QUERY);
+    }
+
+    /**
+     * Reads the candidates as newline delimited JSON and hands each one to the consumer as soon as
+     * it arrives, rather than after the path-finder has found all of them. The consumer is called
+     * on a managed executor thread.
+     *
+     * @param deadline paths must arrive before this day starts, may be null
+     * @param k maximum number of candidates
+     * @return Completes once the last candidate has been consumed, or exceptionally with a {@link
+     *     javax.ws.rs.ProcessingException} on timeouts and connection failures. Cancelling it
+     *     closes the stream after the candidate at hand.
+     */
+    public CompletionStage<Void> streamShortestPath(
+            String origin,
+            String destination,
+            LocalDate deadline,
+            int k,
+            Consumer<TransitPath> consumer) {
+        CompletableFuture<Void> stream = new CompletableFuture<>();
+
+        managedExecutorService.execute(
+                () -> {
+                    try {
+                        readShortestPathStream(origin, destination, deadline, k, consumer, stream);
+                        stream.complete(null);
+                    } catch (RuntimeException e) {
+                        stream.completeExceptionally(e);
+                    }
+                });
+
+        return stream;
+    }
+
+    private void readShortestPathStream(
+            String origin,
+            String destination,
+            LocalDate deadline,
+            int k,
+            Consumer<TransitPath> consumer,
+            CompletableFuture<Void> stream) {
+        try (Response response =
+                shortestPathTarget(origin, destination, deadline)
+                        .queryParam("k", k)
+                        .request(NDJSON)
+                        .get()) {
+            if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                throw new WebApplicationException(response);
+            }
+
+            BufferedReader reader =
+                    new BufferedReader(
+                            new InputStreamReader(
+                                    response.readEntity(InputStream.class),
+                                    StandardCharsets.UTF_8));
+            String line;
+            while (!stream.isDone() && (line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    consumer.accept(jsonb.fromJson(line, TransitPath.class));
+                }
+            }
+        } catch (IOException e) {
+            throw new ProcessingException(e);
+        }
+    }
+
+    private Invocation.Builder shortestPathsRequest() {
+        // The batch resource sits next to the configured single pair resource.
+        URI shortestPathsUrl = URI.create(graphTraversalUrl.trim()).resolve("shortest-paths");
+        LOGGER.log(
+                Level.FINE,
+                "fetch the shortest paths in batch from external resource: {0}",
+                shortestPathsUrl);
+
+        return jaxrsClient.target(shortestPathsUrl).request(MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    private Invocation.Builder shortestPathRequest(
+            String origin, String destination, LocalDate deadline) {
+        return shortestPathTarget(origin, destination, deadline)
+                .request(MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    private WebTarget shortestPathTarget(String origin, String destination, LocalDate deadline) {
         LOGGER.log(
                 Level.FINE,
                 "fetch the shortest paths from external resource: {0}",
                 graphTraversalUrl);
-        WebTarget graphTraversalResource = jaxrsClient.target(graphTraversalUrl);
         // @formatter:off
-        return graphTraversalResource
+        WebTarget target = jaxrsClient
+                .target(graphTraversalUrl)
                 .queryParam("origin", origin)
-                .queryParam("destination", destination)
-                .request(MediaType.APPLICATION_JSON_TYPE)
-                .get(new GenericType<>() {});
+                .queryParam("destination", destination);
         // @formatter:on
+
+        return deadline == null
+                ? target
+                : target.queryParam("deadline", DEADLINE_FORMAT.format(deadline));
     }
 }
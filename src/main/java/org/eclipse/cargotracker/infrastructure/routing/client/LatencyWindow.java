@@ -0,0 +1,51 @@
+package org.eclipse.cargotracker.infrastructure.routing.client;
+
+import java.util.Arrays;
+
+/**
+ * The latencies of the most recent requests, and a percentile over them. The percentile is worked
+ * out again every so many samples rather than on every read.
+ */
+class LatencyWindow {
+
+    private static final int SAMPLES_PER_UPDATE = 10;
+
+    private final long[] samples;
+    private final int percentile;
+    private final int minSamples;
+
+    private int next;
+    private int filled;
+    private int sinceUpdate;
+    private volatile long percentileNanos = -1;
+
+    /**
+     * @param size how many of the most recent latencies are kept
+     * @param percentile the percentile to maintain, such as 95
+     * @param minSamples how many latencies are needed before the percentile is known
+     */
+    LatencyWindow(int size, int percentile, int minSamples) {
+        this.samples = new long[size];
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        filled = Math.min(filled + 1, samples.length);
+        sinceUpdate++;
+
+        if (filled >= minSamples && sinceUpdate >= SAMPLES_PER_UPDATE) {
+            sinceUpdate = 0;
+            long[] sorted = Arrays.copyOf(samples, filled);
+            Arrays.sort(sorted);
+            percentileNanos = sorted[(sorted.length * percentile + 99) / 100 - 1];
+        }
+    }
+
+    /** @return The percentile in nanoseconds, or -1 while too few latencies are known. */
+    long getPercentileNanos() {
+        return percentileNanos;
+    }
+}
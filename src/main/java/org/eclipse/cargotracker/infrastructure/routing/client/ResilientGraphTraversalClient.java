@@ -0,0 +1,404 @@
+package org.eclipse.cargotracker.infrastructure.routing.client;
+
+import org.eclipse.pathfinder.api.ShortestPathQuery;
+import org.eclipse.pathfinder.api.TransitPath;
+import org.eclipse.pathfinder.api.VoyageExclusion;
+
+import javax.annotation.Resource;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps route requests from piling up behind a slow or failing path-finder.
+ *
+ * <ul>
+ *   <li>A request still unanswered after the 95th percentile of recent latencies is sent a second
+ *       time, and whichever answer comes first is used. The other one is cancelled.
+ *   <li>A request unanswered for too long fails, and whatever is still out for it is cancelled.
+ *   <li>After a run of time-outs, connection failures or server errors the circuit opens: no
+ *       requests go out for a while, and then a single one probes whether the path-finder is
+ *       back.
+ *   <li>While the circuit is open, or when a request fails, the last answer received for the lane
+ *       is returned instead, without the paths that have departed since. Only lanes without one
+ *       fail.
+ * </ul>
+ *
+ * <p>A stale answer is cached by the {@link
+ * org.eclipse.cargotracker.infrastructure.routing.RouteCandidateCache} like any other.
+ */
+@ApplicationScoped
+public class ResilientGraphTraversalClient {
+
+    private static final Logger LOGGER =
+            Logger.getLogger(ResilientGraphTraversalClient.class.getName());
+
+    // Bounds the wait well below the read timeout, a hung request need not hold up a booking.
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    // A batch holds many searches, it is given as long as the read timeout allows.
+    private static final Duration BATCH_TIMEOUT = Duration.ofSeconds(30);
+    // Until enough latencies are known to take their percentile.
+    private static final Duration INITIAL_HEDGE_DELAY = Duration.ofSeconds(2);
+    private static final Duration MIN_HEDGE_DELAY = Duration.ofMillis(50);
+    private static final int LATENCY_WINDOW = 200;
+    private static final int HEDGE_PERCENTILE = 95;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+    private static final int MAX_LANES = 1000;
+
+    @Inject private GraphTraversalResourceClient graphTraversalResource;
+
+    @Resource(lookup = "java:comp/DefaultManagedScheduledExecutorService")
+    private ScheduledExecutorService scheduledExecutorService;
+
+    private final LatencyWindow latencies =
+            new LatencyWindow(LATENCY_WINDOW, HEDGE_PERCENTILE, MIN_LATENCY_SAMPLES);
+
+    private final CircuitBreaker circuitBreaker =
+            new CircuitBreaker(FAILURE_THRESHOLD, OPEN_DURATION);
+
+    private final Map<String, List<TransitPath>> lastKnownGood =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<TransitPath>> eldest) {
+                    return size() > MAX_LANES;
+                }
+            };
+
+    // no-args constructor required by CDI
+    public ResilientGraphTraversalClient() {}
+
+    public ResilientGraphTraversalClient(
+            GraphTraversalResourceClient graphTraversalResource,
+            ScheduledExecutorService scheduledExecutorService) {
+        this.graphTraversalResource = graphTraversalResource;
+        this.scheduledExecutorService = scheduledExecutorService;
+    }
+
+    /**
+     * @param deadline paths must arrive before this day starts, may be null
+     * @return Completes with the transit paths, possibly the last ones known for the lane, or
+     *     exceptionally with a {@link ProcessingException} if there are none to fall back on.
+     */
+    public CompletionStage<List<TransitPath>> findShortestPathAsync(
+            String origin, String destination, LocalDate deadline) {
+        return findShortestPathAsync(origin, destination, deadline, null);
+    }
+
+    /** @param excluded movements the paths must not use, may be null */
+    public CompletionStage<List<TransitPath>> findShortestPathAsync(
+            String origin, String destination, LocalDate deadline, VoyageExclusion excluded) {
+        String lane =
+                origin
+                        + "->"
+                        + destination
+                        + "@"
+                        + deadline
+                        + (excluded == null ? "" : " without " + excluded);
+
+        if (!circuitBreaker.tryAcquire()) {
+            return fallBack(
+                    lane,
+                    new ProcessingException("The path-finder circuit is open, not calling it"));
+        }
+
+        CompletableFuture<List<TransitPath>> result = new CompletableFuture<>();
+        // Attempts not failed yet, the result only fails with the last of them.
+        AtomicInteger pending = new AtomicInteger(1);
+        // Cancelled once there is a result, whichever attempt it came from.
+        List<CompletableFuture<List<TransitPath>>> attempts = new CopyOnWriteArrayList<>();
+
+        attempts.add(send(origin, destination, deadline, excluded, result, pending));
+        ScheduledFuture<?> hedge =
+                scheduledExecutorService.schedule(
+                        () -> {
+                            if (!result.isDone()) {
+                                LOGGER.log(Level.FINE, "Hedging the route request for {0}", lane);
+                                pending.incrementAndGet();
+                                CompletableFuture<List<TransitPath>> attempt =
+                                        send(
+                                                origin,
+                                                destination,
+                                                deadline,
+                                                excluded,
+                                                result,
+                                                pending);
+                                attempts.add(attempt);
+                                if (result.isDone()) {
+                                    attempt.cancel(true);
+                                }
+                            }
+                        },
+                        hedgeDelayNanos(),
+                        TimeUnit.NANOSECONDS);
+
+        return result.orTimeout(REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                .handle(
+                        (transitPaths, failure) -> {
+                            hedge.cancel(false);
+                            attempts.forEach(attempt -> attempt.cancel(true));
+
+                            if (failure != null) {
+                                return recordFailure(failure)
+                                        ? fallBack(lane, failure)
+                                        : CompletableFuture.<List<TransitPath>>failedFuture(
+                                                failure);
+                            }
+
+                            circuitBreaker.recordSuccess();
+                            synchronized (lastKnownGood) {
+                                lastKnownGood.put(lane, transitPaths);
+                            }
+                            return CompletableFuture.completedFuture(transitPaths);
+                        })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Sends a batch through the circuit breaker. A batch is neither hedged, it holds many searches,
+     * nor answered with last known paths, its queries seldom repeat.
+     *
+     * @return Completes with the transit paths of every query, keyed by query id, or exceptionally
+     *     with a {@link ProcessingException} if the circuit is open.
+     */
+    public CompletionStage<Map<String, List<TransitPath>>> findShortestPathsAsync(
+            List<ShortestPathQuery> queries) {
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new ProcessingException("The path-finder circuit is open, not calling it"));
+        }
+
+        CompletableFuture<Map<String, List<TransitPath>>> request;
+        try {
+            request = graphTraversalResource.findShortestPathsAsync(queries).toCompletableFuture();
+        } catch (RuntimeException e) {
+            request = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Map<String, List<TransitPath>>> sent = request;
+
+        return request.copy()
+                .orTimeout(BATCH_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete(
+                        (transitPathsById, failure) -> {
+                            sent.cancel(true);
+                            if (failure == null) {
+                                circuitBreaker.recordSuccess();
+                            } else {
+                                recordFailure(failure);
+                            }
+                        });
+    }
+
+    /**
+     * Streams the candidates through the circuit breaker. A stream is not hedged, a second one
+     * would hand the same candidates over again. Should it fail before the first candidate, the
+     * last known paths of the lane are handed over instead, like for a request.
+     *
+     * @param deadline paths must arrive before this day starts, may be null
+     * @return Completes once the last candidate has been handed over, or exceptionally if the
+     *     stream failed after the first one or there are no paths to fall back on.
+     */
+    public CompletionStage<Void> streamShortestPath(
+            String origin,
+            String destination,
+            LocalDate deadline,
+            int k,
+            Consumer<TransitPath> consumer) {
+        String lane = origin + "->" + destination + "@" + deadline;
+
+        if (!circuitBreaker.tryAcquire()) {
+            return fallBack(
+                            lane,
+                            new ProcessingException(
+                                    "The path-finder circuit is open, not calling it"))
+                    .thenAccept(transitPaths -> transitPaths.forEach(consumer));
+        }
+
+        List<TransitPath> streamed = new ArrayList<>();
+        // A stream read on past its timeout hands nothing over any more.
+        AtomicBoolean closed = new AtomicBoolean();
+
+        CompletableFuture<Void> stream;
+        try {
+            stream =
+                    graphTraversalResource
+                            .streamShortestPath(
+                                    origin,
+                                    destination,
+                                    deadline,
+                                    k,
+                                    transitPath -> {
+                                        synchronized (streamed) {
+                                            if (!closed.get()) {
+                                                streamed.add(transitPath);
+                                                consumer.accept(transitPath);
+                                            }
+                                        }
+                                    })
+                            .toCompletableFuture();
+        } catch (RuntimeException e) {
+            stream = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Void> sent = stream;
+
+        return stream.copy()
+                .orTimeout(REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                .handle(
+                        (done, failure) -> {
+                            sent.cancel(true);
+                            List<TransitPath> handedOver;
+                            synchronized (streamed) {
+                                closed.set(true);
+                                handedOver = new ArrayList<>(streamed);
+                            }
+
+                            if (failure != null) {
+                                return recordFailure(failure) && handedOver.isEmpty()
+                                        ? fallBack(lane, failure)
+                                                .thenAccept(
+                                                        transitPaths ->
+                                                                transitPaths.forEach(consumer))
+                                        : CompletableFuture.<Void>failedFuture(failure);
+                            }
+
+                            circuitBreaker.recordSuccess();
+                            synchronized (lastKnownGood) {
+                                lastKnownGood.put(lane, handedOver);
+                            }
+                            return CompletableFuture.<Void>completedFuture(null);
+                        })
+                .thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<List<TransitPath>> send(
+            String origin,
+            String destination,
+            LocalDate deadline,
+            VoyageExclusion excluded,
+            CompletableFuture<List<TransitPath>> result,
+            AtomicInteger pending) {
+        long start = System.nanoTime();
+        CompletableFuture<List<TransitPath>> attempt;
+
+        try {
+            attempt =
+                    graphTraversalResource
+                            .findShortestPathAsync(origin, destination, deadline, excluded)
+                            .toCompletableFuture();
+        } catch (RuntimeException e) {
+            attempt = CompletableFuture.failedFuture(e);
+        }
+
+        attempt.whenComplete(
+                (transitPaths, failure) -> {
+                    if (failure == null) {
+                        latencies.record(System.nanoTime() - start);
+                        result.complete(transitPaths);
+                    } else if (pending.decrementAndGet() == 0) {
+                        result.completeExceptionally(failure);
+                    }
+                });
+
+        return attempt;
+    }
+
+    /**
+     * Only time-outs, connection failures and server errors count against the path-finder. A
+     * request it turned down was still answered, so it closes the circuit like a success.
+     *
+     * @return True if the failure counted against the path-finder.
+     */
+    private boolean recordFailure(Throwable failure) {
+        Throwable cause = failure;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        boolean pathFinderFailure;
+        if (cause instanceof WebApplicationException) {
+            pathFinderFailure =
+                    ((WebApplicationException) cause).getResponse().getStatusInfo().getFamily()
+                            == Response.Status.Family.SERVER_ERROR;
+        } else {
+            pathFinderFailure =
+                    cause instanceof TimeoutException || cause instanceof ProcessingException;
+        }
+
+        if (!pathFinderFailure) {
+            circuitBreaker.recordSuccess();
+        } else if (circuitBreaker.recordFailure()) {
+            LOGGER.log(
+                    Level.WARNING,
+                    "Opened the path-finder circuit for {0} s",
+                    OPEN_DURATION.getSeconds());
+        }
+
+        return pathFinderFailure;
+    }
+
+    private long hedgeDelayNanos() {
+        long percentile = latencies.getPercentileNanos();
+
+        return percentile < 0
+                ? INITIAL_HEDGE_DELAY.toNanos()
+                : Math.max(percentile, MIN_HEDGE_DELAY.toNanos());
+    }
+
+    private CompletionStage<List<TransitPath>> fallBack(String lane, Throwable failure) {
+        List<TransitPath> stale;
+        synchronized (lastKnownGood) {
+            stale = lastKnownGood.get(lane);
+        }
+
+        if (stale == null) {
+            return CompletableFuture.failedFuture(failure);
+        }
+
+        LOGGER.log(
+                Level.INFO,
+                "Answering the route request for {0} with the last known paths, due to: {1}",
+                new Object[] {lane, failure.toString()});
+
+        LocalDateTime now = LocalDateTime.now();
+
+        return CompletableFuture.completedFuture(
+                stale.stream()
+                        .filter(
+                                path ->
+                                        !path.getTransitEdges().isEmpty()
+                                                && path.getTransitEdges()
+                                                        .get(0)
+                                                        .getFromDate()
+                                                        .isAfter(now))
+                        .collect(Collectors.toList()));
+    }
+
+    CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+}
@@ -0,0 +1,37 @@
+package org.eclipse.cargotracker.infrastructure.routing.table;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/** A much booked lane and a deadline to precompute its routes for. */
+public class PopularLane implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String origin;
+    private final String destination;
+    private final LocalDate deadline;
+
+    public PopularLane(String origin, String destination, LocalDate deadline) {
+        this.origin = origin;
+        this.destination = destination;
+        this.deadline = deadline;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
+    @Override
+    public String toString() {
+        return origin + " to " + destination + " by " + deadline;
+    }
+}
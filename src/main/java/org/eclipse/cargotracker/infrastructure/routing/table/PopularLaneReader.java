@@ -0,0 +1,85 @@
+package org.eclipse.cargotracker.infrastructure.routing.table;
+
+import org.eclipse.cargotracker.infrastructure.routing.RouteCandidateCache;
+
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.batch.runtime.context.JobContext;
+import javax.enterprise.context.Dependent;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads the most booked origin and destination pairs, each once for every deadline week of the
+ * horizon. The deadlines are the ones a live search for the week would ask for.
+ */
+@Dependent
+@Named("PopularLaneReader")
+public class PopularLaneReader extends AbstractItemReader {
+
+    private static final String LANE_COUNT = "lane_count";
+    private static final String HORIZON_WEEKS = "horizon_weeks";
+
+    private static final String MOST_BOOKED_LANES_QUERY =
+            "Select c.routeSpecification.origin.unLocode.unlocode,"
+                    + " c.routeSpecification.destination.unLocode.unlocode"
+                    + " from Cargo c"
+                    + " group by c.routeSpecification.origin.unLocode.unlocode,"
+                    + " c.routeSpecification.destination.unLocode.unlocode"
+                    + " order by count(c) desc";
+
+    @Inject private Logger logger;
+
+    @Inject private JobContext jobContext;
+
+    @PersistenceContext private EntityManager entityManager;
+
+    private List<PopularLane> lanes;
+    private int next;
+
+    @Override
+    public void open(Serializable checkpoint) throws Exception {
+        int laneCount = Integer.parseInt(jobContext.getProperties().getProperty(LANE_COUNT));
+        int horizonWeeks = Integer.parseInt(jobContext.getProperties().getProperty(HORIZON_WEEKS));
+        List<Object[]> mostBooked =
+                entityManager
+                        .createQuery(MOST_BOOKED_LANES_QUERY, Object[].class)
+                        .setMaxResults(laneCount)
+                        .getResultList();
+        LocalDate today = LocalDate.now();
+
+        lanes = new ArrayList<>(mostBooked.size() * horizonWeeks);
+        for (Object[] lane : mostBooked) {
+            for (int week = 0; week < horizonWeeks; week++) {
+                lanes.add(
+                        new PopularLane(
+                                (String) lane[0],
+                                (String) lane[1],
+                                RouteCandidateCache.searchDeadlineFor(today.plusWeeks(week))));
+            }
+        }
+        next = checkpoint == null ? 0 : (Integer) checkpoint;
+
+        logger.log(
+                Level.INFO,
+                "Precomputing routes of {0} lanes for {1} weeks",
+                new Object[] {mostBooked.size(), horizonWeeks});
+    }
+
+    @Override
+    public Object readItem() throws Exception {
+        return next < lanes.size() ? lanes.get(next++) : null;
+    }
+
+    @Override
+    public Serializable checkpointInfo() throws Exception {
+        return next;
+    }
+}
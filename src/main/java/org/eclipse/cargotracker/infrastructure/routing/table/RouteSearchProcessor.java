@@ -0,0 +1,59 @@
+package org.eclipse.cargotracker.infrastructure.routing.table;
+
+import org.eclipse.cargotracker.infrastructure.routing.InProcessRoutingService;
+import org.eclipse.pathfinder.api.GraphTraversalService;
+
+import javax.batch.api.chunk.ItemProcessor;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.context.JobContext;
+import javax.enterprise.context.Dependent;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Searches the routes of a lane with the path-finder deployed in this application, whichever way
+ * the routing services reach it. Every route is stamped with the start of the job, a schedule
+ * change since may have come too late for any search of the run.
+ */
+@Dependent
+@Named("RouteSearchProcessor")
+public class RouteSearchProcessor implements ItemProcessor {
+
+    @Inject private GraphTraversalService graphTraversalService;
+
+    @Inject private JobContext jobContext;
+
+    private LocalDateTime jobStart;
+
+    @Override
+    public Object processItem(Object item) throws Exception {
+        PopularLane lane = (PopularLane) item;
+
+        return new RouteTableEntry(
+                lane.getOrigin(),
+                lane.getDestination(),
+                lane.getDeadline(),
+                jobStart(),
+                graphTraversalService.findShortestPath(
+                        lane.getOrigin(),
+                        lane.getDestination(),
+                        lane.getDeadline(),
+                        InProcessRoutingService.CANDIDATE_COUNT));
+    }
+
+    private LocalDateTime jobStart() {
+        if (jobStart == null) {
+            jobStart =
+                    LocalDateTime.ofInstant(
+                            BatchRuntime.getJobOperator()
+                                    .getJobExecution(jobContext.getExecutionId())
+                                    .getStartTime()
+                                    .toInstant(),
+                            ZoneId.systemDefault());
+        }
+
+        return jobStart;
+    }
+}
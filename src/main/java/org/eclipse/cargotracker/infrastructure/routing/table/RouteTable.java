@@ -0,0 +1,142 @@
+package org.eclipse.cargotracker.infrastructure.routing.table;
+
+import org.eclipse.cargotracker.infrastructure.events.cdi.ScheduleChanged;
+import org.eclipse.pathfinder.api.TransitPath;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Routes precomputed for the most booked lanes by the nightly RouteTableJob, consulted by the
+ * routing services before they search. Answers are only used while they are as good as a live
+ * search would be: computed since the last schedule change, not older than a day and a half, and
+ * with every path still to depart.
+ */
+@ApplicationScoped
+public class RouteTable {
+
+    // A day and some slack, should a nightly run be late or fail.
+    private static final Duration MAX_AGE = Duration.ofHours(36);
+
+    @Inject private Logger logger;
+
+    @PersistenceContext private EntityManager entityManager;
+
+    // Spares a delete per schedule change while the table is known to be empty.
+    private final AtomicBoolean filled = new AtomicBoolean(true);
+
+    // Routes computed before it may sail on the old schedules. A nightly run still under way when
+    // a schedule changes would otherwise write them again after the table was cleared.
+    private volatile LocalDateTime lastChange = LocalDateTime.MIN;
+
+    // no-args constructor required by CDI
+    public RouteTable() {}
+
+    public RouteTable(EntityManager entityManager, Logger logger) {
+        this.entityManager = entityManager;
+        this.logger = logger;
+    }
+
+    /**
+     * @param deadline the deadline the path-finder would be asked for
+     * @return The precomputed paths, or null if there are none to rely on.
+     */
+    public List<TransitPath> find(String origin, String destination, LocalDate deadline) {
+        if (deadline == null) {
+            return null;
+        }
+
+        List<RouteTableEntry> entries =
+                entityManager
+                        .createNamedQuery("RouteTableEntry.findByLane", RouteTableEntry.class)
+                        .setParameter("origin", origin)
+                        .setParameter("destination", destination)
+                        .setParameter("deadline", deadline)
+                        .getResultList();
+        LocalDateTime now = LocalDateTime.now();
+
+        if (entries.isEmpty()
+                || isStale(entries.get(0))
+                || entries.get(0).getComputedAt().isBefore(now.minus(MAX_AGE))) {
+            return null;
+        }
+
+        List<TransitPath> transitPaths = entries.get(0).getTransitPaths();
+
+        // A departure missed since leaves a gap a live search would fill with a later one.
+        if (transitPaths.stream()
+                .anyMatch(path -> path.getTransitEdges().get(0).getFromDate().isBefore(now))) {
+            return null;
+        }
+
+        return transitPaths;
+    }
+
+    @Transactional
+    public void store(List<RouteTableEntry> computed) {
+        for (RouteTableEntry entry : computed) {
+            if (isStale(entry)) {
+                logger.log(
+                        Level.FINE,
+                        "Dropping routes computed before a schedule change: {0}",
+                        entry);
+                continue;
+            }
+
+            List<RouteTableEntry> existing =
+                    entityManager
+                            .createNamedQuery("RouteTableEntry.findByLane", RouteTableEntry.class)
+                            .setParameter("origin", entry.getOrigin())
+                            .setParameter("destination", entry.getDestination())
+                            .setParameter("deadline", entry.getDeadline())
+                            .getResultList();
+
+            if (existing.isEmpty()) {
+                entityManager.persist(entry);
+            } else {
+                existing.get(0).replaceWith(entry);
+            }
+        }
+
+        filled.set(true);
+    }
+
+    @Transactional
+    public void clear() {
+        // Removed one by one, a bulk delete would leave the edges behind.
+        entityManager
+                .createNamedQuery("RouteTableEntry.findAll", RouteTableEntry.class)
+                .getResultList()
+                .forEach(entityManager::remove);
+    }
+
+    @Transactional
+    public void onScheduleChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) @ScheduleChanged Object changed) {
+        lastChange = LocalDateTime.now();
+
+        if (filled.getAndSet(false)) {
+            logger.log(
+                    Level.INFO,
+                    "Dropping precomputed routes after schedule change of {0}",
+                    changed);
+            clear();
+        }
+    }
+
+    private boolean isStale(RouteTableEntry entry) {
+        return entry.getComputedAt().isBefore(lastChange);
+    }
+}
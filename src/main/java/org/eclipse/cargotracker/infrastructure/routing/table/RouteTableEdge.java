@@ -0,0 +1,61 @@
+package org.eclipse.cargotracker.infrastructure.routing.table;
+
+import org.eclipse.pathfinder.api.TransitEdge;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/** One edge of a precomputed transit path, as the path-finder answered it. */
+@Embeddable
+public class RouteTableEdge implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Which of the lane's paths the edge belongs to.
+    @Column(name = "path_index")
+    private int pathIndex;
+
+    @Column(name = "voyage_number")
+    @NotNull
+    private String voyageNumber;
+
+    @Column(name = "from_unlocode")
+    @NotNull
+    private String fromUnLocode;
+
+    @Column(name = "to_unlocode")
+    @NotNull
+    private String toUnLocode;
+
+    @Column(name = "from_date")
+    @NotNull
+    private LocalDateTime fromDate;
+
+    @Column(name = "to_date")
+    @NotNull
+    private LocalDateTime toDate;
+
+    public RouteTableEdge() {
+        // Nothing to initialize.
+    }
+
+    public RouteTableEdge(int pathIndex, TransitEdge transitEdge) {
+        this.pathIndex = pathIndex;
+        this.voyageNumber = transitEdge.getVoyageNumber();
+        this.fromUnLocode = transitEdge.getFromUnLocode();
+        this.toUnLocode = transitEdge.getToUnLocode();
+        this.fromDate = transitEdge.getFromDate();
+        this.toDate = transitEdge.getToDate();
+    }
+
+    public int getPathIndex() {
+        return pathIndex;
+    }
+
+    public TransitEdge toTransitEdge() {
+        return new TransitEdge(voyageNumber, fromUnLocode, toUnLocode, fromDate, toDate);
+    }
+}
@@ -0,0 +1,119 @@
+package org.eclipse.cargotracker.infrastructure.routing.table;
+
+import org.eclipse.pathfinder.api.TransitEdge;
+import org.eclipse.pathfinder.api.TransitPath;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The transit paths precomputed for a lane and deadline. The deadline is the one the path-finder
+ * was asked for, the last of a week as for a live search.
+ */
+@Entity
+@NamedQuery(name = "RouteTableEntry.findAll", query = "Select e from RouteTableEntry e")
+@NamedQuery(
+        name = "RouteTableEntry.findByLane",
+        query =
+                "Select e from RouteTableEntry e where e.origin = :origin"
+                        + " and e.destination = :destination and e.deadline = :deadline")
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"origin", "destination", "deadline"}))
+public class RouteTableEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id @GeneratedValue private Long id;
+
+    @NotNull private String origin;
+
+    @NotNull private String destination;
+
+    @NotNull private LocalDate deadline;
+
+    @Column(name = "computed_at")
+    @NotNull
+    private LocalDateTime computedAt;
+
+    @ElementCollection
+    @CollectionTable(name = "RouteTableEdge", joinColumns = @JoinColumn(name = "entry_id"))
+    @OrderColumn(name = "edge_order")
+    private List<RouteTableEdge> edges = new ArrayList<>();
+
+    public RouteTableEntry() {
+        // Nothing to initialize.
+    }
+
+    /** @param computedAt when the search started, the schedules are the ones of that time */
+    public RouteTableEntry(
+            String origin,
+            String destination,
+            LocalDate deadline,
+            LocalDateTime computedAt,
+            List<TransitPath> transitPaths) {
+        this.origin = origin;
+        this.destination = destination;
+        this.deadline = deadline;
+        this.computedAt = computedAt;
+
+        for (int i = 0; i < transitPaths.size(); i++) {
+            for (TransitEdge transitEdge : transitPaths.get(i).getTransitEdges()) {
+                edges.add(new RouteTableEdge(i, transitEdge));
+            }
+        }
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+
+    /** Takes over the paths of a newer computation for the same lane and deadline. */
+    public void replaceWith(RouteTableEntry newer) {
+        this.computedAt = newer.computedAt;
+        this.edges.clear();
+        this.edges.addAll(newer.edges);
+    }
+
+    public List<TransitPath> getTransitPaths() {
+        List<TransitPath> transitPaths = new ArrayList<>();
+
+        for (RouteTableEdge edge : edges) {
+            if (edge.getPathIndex() == transitPaths.size()) {
+                transitPaths.add(new TransitPath(new ArrayList<>()));
+            }
+            transitPaths.get(edge.getPathIndex()).getTransitEdges().add(edge.toTransitEdge());
+        }
+
+        return transitPaths;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteTableEntry{"
+                + "origin="
+                + origin
+                + ", destination="
+                + destination
+                + ", deadline="
+                + deadline
+                + ", computedAt="
+                + computedAt
+                + '}';
+    }
+}
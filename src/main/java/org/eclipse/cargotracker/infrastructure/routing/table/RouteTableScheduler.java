@@ -0,0 +1,23 @@
+package org.eclipse.cargotracker.infrastructure.routing.table;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchRuntime;
+import javax.ejb.Schedule;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionManagement;
+import javax.ejb.TransactionManagementType;
+
+/**
+ * Refreshes the route table every night, ahead of the morning booking peak. Routes of lanes that
+ * are no longer among the most booked ones simply age out.
+ */
+@Stateless
+@TransactionManagement(TransactionManagementType.BEAN) // Batch steps manage their own transactions.
+public class RouteTableScheduler {
+
+    @Schedule(hour = "2")
+    public void precomputeRoutes() {
+        JobOperator jobOperator = BatchRuntime.getJobOperator();
+        jobOperator.start("RouteTableJob", null);
+    }
+}
@@ -0,0 +1,21 @@
+package org.eclipse.cargotracker.infrastructure.routing.table;
+
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.enterprise.context.Dependent;
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Dependent
+@Named("RouteTableWriter")
+public class RouteTableWriter extends AbstractItemWriter {
+
+    @Inject private RouteTable routeTable;
+
+    @Override
+    public void writeItems(List<Object> items) throws Exception {
+        routeTable.store(
+                items.stream().map(RouteTableEntry.class::cast).collect(Collectors.toList()));
+    }
+}
@@ -1,12 +1,16 @@
 package org.eclipse.cargotracker.interfaces.booking.facade;
 
+import org.eclipse.cargotracker.interfaces.booking.facade.dto.CargoListFilter;
 import org.eclipse.cargotracker.interfaces.booking.facade.dto.CargoRouteDto;
 import org.eclipse.cargotracker.interfaces.booking.facade.dto.CargoStatusDto;
+import org.eclipse.cargotracker.interfaces.booking.facade.dto.CargoSummaryDto;
 import org.eclipse.cargotracker.interfaces.booking.facade.dto.LocationDto;
 import org.eclipse.cargotracker.interfaces.booking.facade.dto.RouteCandidateDto;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 
 /**
  * This facade shields the domain layer - model, services, repositories - from concerns about such
@@ -14,6 +18,9 @@ import java.util.List;
  */
 public interface BookingServiceFacade {
 
+    /** @return True if voyages lead from the origin to the destination, so cargo can be booked. */
+    boolean isServed(String origin, String destination);
+
     String bookNewCargo(String origin, String destination, LocalDate arrivalDeadline);
 
     CargoRouteDto loadCargoForRouting(String trackingId);
@@ -28,10 +35,24 @@ public interface BookingServiceFacade {
 
     List<RouteCandidateDto> requestPossibleRoutesForCargo(String trackingId);
 
+    /**
+     * Hands the route candidates over one by one as they are found, best first.
+     *
+     * @return Completes once the last candidate has been handed over.
+     */
+    CompletionStage<Void> streamPossibleRoutesForCargo(
+            String trackingId, Consumer<RouteCandidateDto> consumer);
+
     List<LocationDto> listShippingLocations();
 
-    // TODO [DDD] Is this the right DTO here?
-    List<CargoRouteDto> listAllCargos();
+    /**
+     * Lists the cargoes a page at a time, in tracking ID order.
+     *
+     * @param afterTrackingId the last tracking ID of the previous page, or null for the first page
+     * @return At most the limit of cargoes, fewer only on the last page.
+     */
+    List<CargoSummaryDto> listCargos(CargoListFilter filter, String afterTrackingId, int limit);
 
-    List<String> listAllTrackingIds();
+    /** @return At most the limit of tracking IDs starting with the prefix, in order. */
+    List<String> listTrackingIds(String prefix, int limit);
 }
@@ -0,0 +1,9 @@
+package org.eclipse.cargotracker.interfaces.booking.facade.dto;
+
+/** The cargo lists of the admin dashboard. */
+public enum CargoListFilter {
+    ALL,
+    NOT_ROUTED,
+    ROUTED_UNCLAIMED,
+    CLAIMED
+}
@@ -0,0 +1,71 @@
+package org.eclipse.cargotracker.interfaces.booking.facade.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import org.eclipse.cargotracker.application.util.DateUtil;
+
+/** DTO for a line in the cargo lists, without the route. */
+public class CargoSummaryDto implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String trackingId;
+    private final String originCode;
+    private final String originName;
+    private final String finalDestinationCode;
+    private final String finalDestinationName;
+    private final String arrivalDeadline;
+    private final String routingStatus;
+    private final String transportStatus;
+
+    public CargoSummaryDto(
+            String trackingId,
+            String originCode,
+            String originName,
+            String finalDestinationCode,
+            String finalDestinationName,
+            LocalDate arrivalDeadline,
+            String routingStatus,
+            String transportStatus) {
+        this.trackingId = trackingId;
+        this.originCode = originCode;
+        this.originName = originName;
+        this.finalDestinationCode = finalDestinationCode;
+        this.finalDestinationName = finalDestinationName;
+        this.arrivalDeadline = DateUtil.toString(arrivalDeadline);
+        this.routingStatus = routingStatus;
+        this.transportStatus = transportStatus;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public String getOriginCode() {
+        return originCode;
+    }
+
+    public String getOriginName() {
+        return originName;
+    }
+
+    public String getFinalDestinationCode() {
+        return finalDestinationCode;
+    }
+
+    public String getFinalDestinationName() {
+        return finalDestinationName;
+    }
+
+    public String getArrivalDeadline() {
+        return arrivalDeadline;
+    }
+
+    public String getRoutingStatus() {
+        return routingStatus;
+    }
+
+    public String getTransportStatus() {
+        return transportStatus;
+    }
+}
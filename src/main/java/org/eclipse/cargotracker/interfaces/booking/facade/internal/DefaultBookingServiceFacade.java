@@ -2,22 +2,31 @@ package org.eclipse.cargotracker.interfaces.booking.facade.internal;
 
 import org.eclipse.cargotracker.application.BookingService;
 import org.eclipse.cargotracker.domain.model.cargo.Cargo;
+import org.eclipse.cargotracker.domain.model.cargo.CargoFetchPlan;
+import org.eclipse.cargotracker.domain.model.cargo.CargoFilter;
 import org.eclipse.cargotracker.domain.model.cargo.CargoRepository;
+import org.eclipse.cargotracker.domain.model.cargo.CargoSummary;
 import org.eclipse.cargotracker.domain.model.cargo.Itinerary;
+import org.eclipse.cargotracker.domain.model.cargo.RoutingStatus;
 import org.eclipse.cargotracker.domain.model.cargo.TrackingId;
+import org.eclipse.cargotracker.domain.model.cargo.TransportStatus;
 import org.eclipse.cargotracker.domain.model.handling.HandlingEvent;
 import org.eclipse.cargotracker.domain.model.handling.HandlingEventRepository;
 import org.eclipse.cargotracker.domain.model.location.Location;
 import org.eclipse.cargotracker.domain.model.location.LocationRepository;
 import org.eclipse.cargotracker.domain.model.location.UnLocode;
 import org.eclipse.cargotracker.domain.model.voyage.VoyageRepository;
+import org.eclipse.cargotracker.domain.service.NetworkReachability;
 import org.eclipse.cargotracker.interfaces.booking.facade.BookingServiceFacade;
+import org.eclipse.cargotracker.interfaces.booking.facade.dto.CargoListFilter;
 import org.eclipse.cargotracker.interfaces.booking.facade.dto.CargoRouteDto;
 import org.eclipse.cargotracker.interfaces.booking.facade.dto.CargoStatusDto;
+import org.eclipse.cargotracker.interfaces.booking.facade.dto.CargoSummaryDto;
 import org.eclipse.cargotracker.interfaces.booking.facade.dto.LocationDto;
 import org.eclipse.cargotracker.interfaces.booking.facade.dto.RouteCandidateDto;
 import org.eclipse.cargotracker.interfaces.booking.facade.internal.assembler.CargoRouteDtoAssembler;
 import org.eclipse.cargotracker.interfaces.booking.facade.internal.assembler.CargoStatusDtoAssembler;
+import org.eclipse.cargotracker.interfaces.booking.facade.internal.assembler.CargoSummaryDtoAssembler;
 import org.eclipse.cargotracker.interfaces.booking.facade.internal.assembler.ItineraryCandidateDtoAssembler;
 import org.eclipse.cargotracker.interfaces.booking.facade.internal.assembler.LocationDtoAssembler;
 
@@ -27,7 +36,10 @@ import javax.transaction.Transactional;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
@@ -46,6 +58,26 @@ public class DefaultBookingServiceFacade implements BookingServiceFacade, Serial
 
     @Inject private HandlingEventRepository handlingEventRepository;
 
+    @Inject private NetworkReachability networkReachability;
+
+    // no-args constructor required by CDI
+    public DefaultBookingServiceFacade() {}
+
+    public DefaultBookingServiceFacade(
+            BookingService bookingService,
+            LocationRepository locationRepository,
+            CargoRepository cargoRepository,
+            VoyageRepository voyageRepository,
+            HandlingEventRepository handlingEventRepository,
+            NetworkReachability networkReachability) {
+        this.bookingService = bookingService;
+        this.locationRepository = locationRepository;
+        this.cargoRepository = cargoRepository;
+        this.voyageRepository = voyageRepository;
+        this.handlingEventRepository = handlingEventRepository;
+        this.networkReachability = networkReachability;
+    }
+
     @Override
     public List<LocationDto> listShippingLocations() {
         List<Location> allLocations = locationRepository.findAll();
@@ -53,6 +85,19 @@ public class DefaultBookingServiceFacade implements BookingServiceFacade, Serial
         return assembler.toDtoList(allLocations);
     }
 
+    @Override
+    public boolean isServed(String origin, String destination) {
+        Location originLocation = locationRepository.find(new UnLocode(origin));
+        Location destinationLocation = locationRepository.find(new UnLocode(destination));
+
+        // No voyage leads to or from a location we do not know.
+        if (originLocation == null || destinationLocation == null) {
+            return false;
+        }
+
+        return networkReachability.isReachable(originLocation, destinationLocation);
+    }
+
     @Override
     public String bookNewCargo(String origin, String destination, LocalDate arrivalDeadline) {
         TrackingId trackingId =
@@ -63,7 +108,7 @@ public class DefaultBookingServiceFacade implements BookingServiceFacade, Serial
 
     @Override
     public CargoRouteDto loadCargoForRouting(String trackingId) {
-        Cargo cargo = cargoRepository.find(new TrackingId(trackingId));
+        Cargo cargo = cargoRepository.find(new TrackingId(trackingId), CargoFetchPlan.ROUTING);
         CargoRouteDtoAssembler assembler = new CargoRouteDtoAssembler();
         return assembler.toDto(cargo);
     }
@@ -90,32 +135,51 @@ public class DefaultBookingServiceFacade implements BookingServiceFacade, Serial
     }
 
     @Override
-    // TODO [DDD] Is this the correct DTO here?
-    public List<CargoRouteDto> listAllCargos() {
-        List<Cargo> cargos = cargoRepository.findAll();
-        List<CargoRouteDto> routes;
-
-        CargoRouteDtoAssembler assembler = new CargoRouteDtoAssembler();
-
-        routes = cargos.stream().map(assembler::toDto).collect(Collectors.toList());
+    public List<CargoSummaryDto> listCargos(
+            CargoListFilter filter, String afterTrackingId, int limit) {
+        List<CargoSummary> cargos =
+                cargoRepository.findSummaryPage(
+                        toCargoFilter(filter),
+                        afterTrackingId == null ? null : new TrackingId(afterTrackingId),
+                        limit);
+        CargoSummaryDtoAssembler assembler = new CargoSummaryDtoAssembler();
+
+        return cargos.stream().map(assembler::toDto).collect(Collectors.toList());
+    }
 
-        return routes;
+    private CargoFilter toCargoFilter(CargoListFilter filter) {
+        switch (filter) {
+            case NOT_ROUTED:
+                return CargoFilter.ALL.withRoutingStatuses(EnumSet.of(RoutingStatus.NOT_ROUTED));
+            case ROUTED_UNCLAIMED:
+                return CargoFilter.ALL
+                        .withRoutingStatuses(
+                                EnumSet.complementOf(EnumSet.of(RoutingStatus.NOT_ROUTED)))
+                        .withTransportStatuses(
+                                EnumSet.complementOf(EnumSet.of(TransportStatus.CLAIMED)));
+            case CLAIMED:
+                return CargoFilter.ALL.withTransportStatuses(EnumSet.of(TransportStatus.CLAIMED));
+            default:
+                return CargoFilter.ALL;
+        }
     }
 
     @Override
-    public List<String> listAllTrackingIds() {
-        List<String> trackingIds = new ArrayList<>();
-        cargoRepository
-                .findAll()
-                .forEach(cargo -> trackingIds.add(cargo.getTrackingId().getIdString()));
-
-        return trackingIds;
+    public List<String> listTrackingIds(String prefix, int limit) {
+        CargoFilter filter =
+                prefix == null || prefix.isEmpty()
+                        ? CargoFilter.ALL
+                        : CargoFilter.ALL.withTrackingIdPrefix(prefix.toUpperCase());
+
+        return cargoRepository.findTrackingIdPage(filter, null, limit).stream()
+                .map(TrackingId::getIdString)
+                .collect(Collectors.toList());
     }
 
     @Override
     public CargoStatusDto loadCargoForTracking(String trackingIdValue) {
         TrackingId trackingId = new TrackingId(trackingIdValue);
-        Cargo cargo = cargoRepository.find(trackingId);
+        Cargo cargo = cargoRepository.find(trackingId, CargoFetchPlan.TRACKING);
 
         if (cargo == null) {
             return null;
@@ -143,4 +207,14 @@ public class DefaultBookingServiceFacade implements BookingServiceFacade, Serial
 
         return routeCandidates;
     }
+
+    @Override
+    public CompletionStage<Void> streamPossibleRoutesForCargo(
+            String trackingId, Consumer<RouteCandidateDto> consumer) {
+        ItineraryCandidateDtoAssembler dtoAssembler = new ItineraryCandidateDtoAssembler();
+
+        return bookingService.streamPossibleRoutesForCargo(
+                new TrackingId(trackingId),
+                itinerary -> consumer.accept(dtoAssembler.toDto(itinerary)));
+    }
 }
@@ -0,0 +1,19 @@
+package org.eclipse.cargotracker.interfaces.booking.facade.internal.assembler;
+
+import org.eclipse.cargotracker.domain.model.cargo.CargoSummary;
+import org.eclipse.cargotracker.interfaces.booking.facade.dto.CargoSummaryDto;
+
+public class CargoSummaryDtoAssembler {
+
+    public CargoSummaryDto toDto(CargoSummary summary) {
+        return new CargoSummaryDto(
+                summary.getTrackingId().getIdString(),
+                summary.getOriginCode(),
+                summary.getOriginName(),
+                summary.getDestinationCode(),
+                summary.getDestinationName(),
+                summary.getArrivalDeadline(),
+                summary.getRoutingStatus().name(),
+                summary.getTransportStatus().name());
+    }
+}
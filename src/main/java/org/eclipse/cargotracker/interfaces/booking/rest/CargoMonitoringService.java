@@ -1,57 +1,138 @@
 package org.eclipse.cargotracker.interfaces.booking.rest;
 
-import org.eclipse.cargotracker.domain.model.cargo.Cargo;
+import org.eclipse.cargotracker.domain.model.cargo.CargoFilter;
 import org.eclipse.cargotracker.domain.model.cargo.CargoRepository;
+import org.eclipse.cargotracker.domain.model.cargo.CargoSummary;
+import org.eclipse.cargotracker.domain.model.cargo.RoutingStatus;
+import org.eclipse.cargotracker.domain.model.cargo.TrackingId;
+import org.eclipse.cargotracker.domain.model.cargo.TransportStatus;
 
 import javax.ejb.Stateless;
 import javax.inject.Inject;
 import javax.json.Json;
-import javax.json.JsonArray;
 import javax.json.JsonArrayBuilder;
 import javax.json.JsonObjectBuilder;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.UriInfo;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * Lists the cargoes a page at a time, in tracking ID order. A full page links to the next one in
+ * its {@code Link} header, starting after its last tracking ID. The cargoes can be narrowed down by
+ * routing status, transport status and tracking ID prefix, each status parameter may be repeated.
+ */
 @Stateless
 @Path("/cargo")
 public class CargoMonitoringService {
 
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+
     @Inject private CargoRepository cargoRepository;
 
+    @Context private UriInfo uriInfo;
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public JsonArray getAllCargo() {
-        List<Cargo> cargos = cargoRepository.findAll();
+    public Response getAllCargo(
+            @QueryParam("after") String after,
+            @QueryParam("limit") @DefaultValue("" + DEFAULT_LIMIT) int limit,
+            @QueryParam("routingStatus") List<String> routingStatuses,
+            @QueryParam("transportStatus") List<String> transportStatuses,
+            @QueryParam("trackingIdPrefix") String trackingIdPrefix) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return badRequest("The limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+
+        CargoFilter filter = CargoFilter.ALL;
+
+        try {
+            if (!routingStatuses.isEmpty()) {
+                filter =
+                        filter.withRoutingStatuses(toEnumSet(RoutingStatus.class, routingStatuses));
+            }
+            if (!transportStatuses.isEmpty()) {
+                filter =
+                        filter.withTransportStatuses(
+                                toEnumSet(TransportStatus.class, transportStatuses));
+            }
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage());
+        }
+
+        if (trackingIdPrefix != null && !trackingIdPrefix.isEmpty()) {
+            filter = filter.withTrackingIdPrefix(trackingIdPrefix);
+        }
+
+        List<CargoSummary> cargos =
+                cargoRepository.findSummaryPage(
+                        filter,
+                        after == null || after.isEmpty() ? null : new TrackingId(after),
+                        limit);
 
         JsonArrayBuilder builder = Json.createArrayBuilder();
 
         cargos.stream().map(this::cargoToJson).forEach(builder::add);
 
-        return builder.build();
+        ResponseBuilder response = Response.ok(builder.build());
+
+        if (cargos.size() == limit) {
+            response.link(
+                    uriInfo.getRequestUriBuilder()
+                            .replaceQueryParam(
+                                    "after", cargos.get(limit - 1).getTrackingId().getIdString())
+                            .build(),
+                    "next");
+        }
+
+        return response.build();
+    }
+
+    private static <E extends Enum<E>> Set<E> toEnumSet(Class<E> enumClass, List<String> names) {
+        Set<E> values = EnumSet.noneOf(enumClass);
+
+        for (String name : names) {
+            try {
+                values.add(Enum.valueOf(enumClass, name));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                        name + " is not a " + enumClass.getSimpleName() + ".", e);
+            }
+        }
+
+        return values;
+    }
+
+    private Response badRequest(String message) {
+        return Response.status(Status.BAD_REQUEST)
+                .entity(Collections.singletonMap("error", message))
+                .build();
     }
 
-    private JsonObjectBuilder cargoToJson(Cargo cargo) {
+    private JsonObjectBuilder cargoToJson(CargoSummary cargo) {
         return Json.createObjectBuilder()
                 .add("trackingId", cargo.getTrackingId().getIdString())
-                .add("routingStatus", cargo.getDelivery().getRoutingStatus().toString())
-                .add("misdirected", cargo.getDelivery().isMisdirected())
-                .add("transportStatus", cargo.getDelivery().getTransportStatus().toString())
-                .add("atDestination", cargo.getDelivery().isUnloadedAtDestination())
-                .add("origin", cargo.getOrigin().getUnLocode().getIdString())
+                .add("routingStatus", cargo.getRoutingStatus().toString())
+                .add("misdirected", cargo.isMisdirected())
+                .add("transportStatus", cargo.getTransportStatus().toString())
+                .add("atDestination", cargo.isUnloadedAtDestination())
+                .add("origin", cargo.getOriginCode())
                 .add(
                         "lastKnownLocation",
-                        cargo.getDelivery()
-                                        .getLastKnownLocation()
-                                        .getUnLocode()
-                                        .getIdString()
-                                        .equals("XXXXX")
+                        cargo.getLastKnownLocationCode().equals("XXXXX")
                                 ? "Unknown"
-                                : cargo.getDelivery()
-                                        .getLastKnownLocation()
-                                        .getUnLocode()
-                                        .getIdString());
+                                : cargo.getLastKnownLocationCode());
     }
 }
@@ -0,0 +1,118 @@
+package org.eclipse.cargotracker.interfaces.booking.rest;
+
+import org.eclipse.cargotracker.application.ReroutingRun;
+import org.eclipse.cargotracker.application.ReroutingRun.Outcome;
+import org.eclipse.cargotracker.application.ReroutingService;
+import org.eclipse.cargotracker.application.util.DateUtil;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageNumber;
+
+import javax.ejb.Stateless;
+import javax.inject.Inject;
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObjectBuilder;
+import javax.validation.constraints.NotBlank;
+import javax.ws.rs.GET;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+
+/**
+ * Reports a voyage disruption, which re-routes the cargoes booked on the voyage in the background.
+ * The run it answers with, and the ones listed, tell how far re-routing got.
+ */
+@Stateless
+@Path("/voyage-disruptions")
+public class VoyageDisruptionService {
+
+    @Inject private ReroutingService reroutingService;
+
+    @POST
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response reportDisruption(
+            @NotBlank(message = "Missing voyage number.") @QueryParam("voyage")
+                    String voyageNumber,
+            @NotBlank(message = "Missing disruption start.") @QueryParam("from") String from,
+            @NotBlank(message = "Missing disruption end.") @QueryParam("to") String to) {
+        LocalDateTime disruptionStart;
+        LocalDateTime disruptionEnd;
+
+        try {
+            disruptionStart = DateUtil.toDateTime(from);
+            disruptionEnd = DateUtil.toDateTime(to);
+        } catch (DateTimeParseException e) {
+            return badRequest("Dates must be in the format " + DateUtil.DATE_TIME_FORMAT + ".");
+        }
+
+        if (!disruptionStart.isBefore(disruptionEnd)) {
+            return badRequest("The disruption must end after it starts.");
+        }
+
+        ReroutingRun run =
+                reroutingService.rerouteDisruptedCargo(
+                        new VoyageNumber(voyageNumber), disruptionStart, disruptionEnd);
+
+        return Response.accepted(runToJson(run).build()).build();
+    }
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public JsonArray getAllRuns() {
+        JsonArrayBuilder builder = Json.createArrayBuilder();
+
+        reroutingService.listRuns().stream().map(this::runToJson).forEach(builder::add);
+
+        return builder.build();
+    }
+
+    @GET
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getRun(@PathParam("id") String id) {
+        ReroutingRun run = reroutingService.findRun(id);
+
+        if (run == null) {
+            throw new NotFoundException("No re-routing run " + id + ".");
+        }
+
+        return Response.ok(runToJson(run).build()).build();
+    }
+
+    private Response badRequest(String message) {
+        return Response.status(Status.BAD_REQUEST)
+                .entity(Collections.singletonMap("error", message))
+                .build();
+    }
+
+    private JsonObjectBuilder runToJson(ReroutingRun run) {
+        JsonArrayBuilder planningQueue = Json.createArrayBuilder();
+        run.getQueuedForPlanner()
+                .forEach(trackingId -> planningQueue.add(trackingId.getIdString()));
+
+        return Json.createObjectBuilder()
+                .add("id", run.getId())
+                .add("voyageNumber", run.getVoyageNumber().getIdString())
+                .add("disruptionStart", DateUtil.toString(run.getDisruptionStart()))
+                .add("disruptionEnd", DateUtil.toString(run.getDisruptionEnd()))
+                .add("startedAt", DateUtil.toString(run.getStartedAt()))
+                .add("finished", run.isFinished())
+                .add("cargoCount", run.getCargoCount())
+                .add("processed", run.getProcessedCount())
+                .add("assigned", run.getCount(Outcome.ASSIGNED))
+                .add("queuedForPlanner", run.getCount(Outcome.QUEUED_FOR_PLANNER))
+                .add("unaffected", run.getCount(Outcome.UNAFFECTED))
+                .add("failed", run.getCount(Outcome.FAILED))
+                .add("cargoesPerSecond", run.getThroughput())
+                .add("planningQueue", planningQueue);
+    }
+}
@@ -111,6 +111,10 @@ public class Booking implements Serializable {
             Messages.addGlobalError("Origin and destination cannot be the same.");
             return null;
         }
+        if (!bookingServiceFacade.isServed(originUnlocode, destinationUnlocode)) {
+            Messages.addGlobalError("No voyages lead from the origin to the destination.");
+            return null;
+        }
         if (duration < MIN_JOURNEY_DURATION) {
             Messages.addGlobalError("Journey duration must be at least 1 day.");
             return null;
@@ -1,7 +1,13 @@
 package org.eclipse.cargotracker.interfaces.booking.web;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import javax.faces.view.ViewScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -24,7 +30,11 @@ import org.eclipse.cargotracker.interfaces.booking.facade.dto.RouteCandidateDto;
 public class ItinerarySelection implements Serializable {
 
     private static final long serialVersionUID = 1L;
+    // The page is shown once the first candidate is in, or after this long at the most.
+    private static final Duration FIRST_CANDIDATE_WAIT = Duration.ofSeconds(10);
     List<RouteCandidateDto> routeCandidates;
+    // Still handing over candidates while the page polls for them.
+    private transient CompletableFuture<Void> search;
     private String trackingId;
     private CargoRouteDto cargo;
     @Inject private BookingServiceFacade bookingServiceFacade;
@@ -49,9 +59,44 @@ public class ItinerarySelection implements Serializable {
         return routeCandidates;
     }
 
+    public boolean isSearching() {
+        return search != null && !search.isDone();
+    }
+
     public void load() {
         cargo = bookingServiceFacade.loadCargoForRouting(trackingId);
-        routeCandidates = bookingServiceFacade.requestPossibleRoutesForCargo(trackingId);
+
+        // Polled again while the candidates come in.
+        if (search != null) {
+            return;
+        }
+
+        List<RouteCandidateDto> candidates = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> first = new CompletableFuture<>();
+        routeCandidates = candidates;
+        search =
+                bookingServiceFacade
+                        .streamPossibleRoutesForCargo(
+                                trackingId,
+                                candidate -> {
+                                    candidates.add(candidate);
+                                    first.complete(null);
+                                })
+                        .toCompletableFuture();
+
+        try {
+            CompletableFuture.anyOf(first, search)
+                    .get(FIRST_CANDIDATE_WAIT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            // Shown without candidates yet, they are polled for.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     public String assignItinerary(int routeIndex) {
@@ -1,13 +1,12 @@
 package org.eclipse.cargotracker.interfaces.booking.web;
 
-import java.util.ArrayList;
 import java.util.List;
-import javax.annotation.PostConstruct;
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 import org.eclipse.cargotracker.interfaces.booking.facade.BookingServiceFacade;
-import org.eclipse.cargotracker.interfaces.booking.facade.dto.CargoRouteDto;
+import org.eclipse.cargotracker.interfaces.booking.facade.dto.CargoListFilter;
+import org.eclipse.cargotracker.interfaces.booking.facade.dto.CargoSummaryDto;
 
 /**
  * Handles listing cargo. Operates against a dedicated service facade, and could easily be rewritten
@@ -18,67 +17,96 @@ import org.eclipse.cargotracker.interfaces.booking.facade.dto.CargoRouteDto;
  * this approach is generally preferred to the one taken in the tracking controller. However, there
  * is never any one perfect solution for all situations, so we've chosen to demonstrate two
  * polarized ways to build user interfaces.
+ *
+ * <p>Each list is loaded a page at a time, and only when it is shown. A page starts after the
+ * tracking ID given by the view parameter of the list, the last one of the page before.
  */
 @Named
 @RequestScoped
 public class ListCargo {
 
-    private List<CargoRouteDto> cargos;
-    private List<CargoRouteDto> routedCargos;
-    private List<CargoRouteDto> claimedCargos;
-    private List<CargoRouteDto> routedUnclaimedCargos;
+    private static final int PAGE_SIZE = 100;
+
+    private String routedAfter;
+    private String notRoutedAfter;
+    private String claimedAfter;
+
+    private List<CargoSummaryDto> claimedCargos;
+    private List<CargoSummaryDto> routedUnclaimedCargos;
+    private List<CargoSummaryDto> notRoutedCargos;
 
     @Inject private BookingServiceFacade bookingServiceFacade;
 
-    public List<CargoRouteDto> getCargos() {
-        return cargos;
+    public String getRoutedAfter() {
+        return routedAfter;
     }
 
-    @PostConstruct
-    public void init() {
-        cargos = bookingServiceFacade.listAllCargos();
+    public void setRoutedAfter(String routedAfter) {
+        this.routedAfter = routedAfter;
     }
 
-    public List<CargoRouteDto> getRoutedCargos() {
-        routedCargos = new ArrayList<>();
+    public String getNotRoutedAfter() {
+        return notRoutedAfter;
+    }
 
-        for (CargoRouteDto route : cargos) {
-            if (route.isRouted()) {
-                routedCargos.add(route);
-            }
-        }
+    public void setNotRoutedAfter(String notRoutedAfter) {
+        this.notRoutedAfter = notRoutedAfter;
+    }
+
+    public String getClaimedAfter() {
+        return claimedAfter;
+    }
 
-        return routedCargos;
+    public void setClaimedAfter(String claimedAfter) {
+        this.claimedAfter = claimedAfter;
     }
 
-    public List<CargoRouteDto> getRoutedUnclaimedCargos() {
-        routedUnclaimedCargos = new ArrayList<>();
-        for (CargoRouteDto route : cargos) {
-            if (route.isRouted() && !route.isClaimed()) {
-                routedUnclaimedCargos.add(route);
-            }
+    public List<CargoSummaryDto> getRoutedUnclaimedCargos() {
+        if (routedUnclaimedCargos == null) {
+            routedUnclaimedCargos = loadPage(CargoListFilter.ROUTED_UNCLAIMED, routedAfter);
         }
 
         return routedUnclaimedCargos;
     }
 
-    public List<CargoRouteDto> getClaimedCargos() {
-        claimedCargos = new ArrayList<>();
+    /** @return Where the next page of routed cargo starts, or null if this is the last one. */
+    public String getNextRoutedAfter() {
+        return nextAfter(getRoutedUnclaimedCargos());
+    }
 
-        for (CargoRouteDto route : cargos) {
-            if (route.isClaimed()) {
-                claimedCargos.add(route);
-            }
+    public List<CargoSummaryDto> getClaimedCargos() {
+        if (claimedCargos == null) {
+            claimedCargos = loadPage(CargoListFilter.CLAIMED, claimedAfter);
         }
 
         return claimedCargos;
     }
 
-    public List<CargoRouteDto> getNotRoutedCargos() {
-        List<CargoRouteDto> notRoutedCargos = new ArrayList<>();
+    /** @return Where the next page of claimed cargo starts, or null if this is the last one. */
+    public String getNextClaimedAfter() {
+        return nextAfter(getClaimedCargos());
+    }
 
-        for (CargoRouteDto route : cargos) if (!route.isRouted()) notRoutedCargos.add(route);
+    public List<CargoSummaryDto> getNotRoutedCargos() {
+        if (notRoutedCargos == null) {
+            notRoutedCargos = loadPage(CargoListFilter.NOT_ROUTED, notRoutedAfter);
+        }
 
         return notRoutedCargos;
     }
+
+    /** @return Where the next page of cargo not routed starts, or null if this is the last one. */
+    public String getNextNotRoutedAfter() {
+        return nextAfter(getNotRoutedCargos());
+    }
+
+    private List<CargoSummaryDto> loadPage(CargoListFilter filter, String after) {
+        return bookingServiceFacade.listCargos(
+                filter, after == null || after.isEmpty() ? null : after, PAGE_SIZE);
+    }
+
+    // A full page may well be followed by an empty one, which is cheaper to show than to rule out.
+    private String nextAfter(List<CargoSummaryDto> page) {
+        return page.size() < PAGE_SIZE ? null : page.get(page.size() - 1).getTrackingId();
+    }
 }
@@ -71,21 +71,27 @@ public class Registration implements Serializable {
     }
 
     public String register() {
-        String trackingId = null;
-
-        if (!originUnlocode.equals(destinationUnlocode)) {
-            trackingId =
-                    bookingServiceFacade.bookNewCargo(
-                            originUnlocode, destinationUnlocode, DateUtil.toDate(arrivalDeadline));
-        } else {
-            // TODO [Jakarta EE 8] See if this can be injected.
-            FacesContext context = FacesContext.getCurrentInstance();
-            FacesMessage message = new FacesMessage("Origin and destination cannot be the same.");
-            message.setSeverity(FacesMessage.SEVERITY_ERROR);
-            context.addMessage(null, message);
+        if (originUnlocode.equals(destinationUnlocode)) {
+            addError("Origin and destination cannot be the same.");
             return null;
         }
+        if (!bookingServiceFacade.isServed(originUnlocode, destinationUnlocode)) {
+            addError("No voyages lead from the origin to the destination.");
+            return null;
+        }
+
+        String trackingId =
+                bookingServiceFacade.bookNewCargo(
+                        originUnlocode, destinationUnlocode, DateUtil.toDate(arrivalDeadline));
 
         return "show.xhtml?faces-redirect=true&trackingId=" + trackingId;
     }
+
+    private void addError(String summary) {
+        // TODO [Jakarta EE 8] See if this can be injected.
+        FacesContext context = FacesContext.getCurrentInstance();
+        FacesMessage message = new FacesMessage(summary);
+        message.setSeverity(FacesMessage.SEVERITY_ERROR);
+        context.addMessage(null, message);
+    }
 }
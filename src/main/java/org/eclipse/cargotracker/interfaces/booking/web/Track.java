@@ -2,7 +2,6 @@ package org.eclipse.cargotracker.interfaces.booking.web;
 
 import java.io.Serializable;
 import java.util.List;
-import javax.annotation.PostConstruct;
 import javax.faces.view.ViewScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -26,14 +25,16 @@ public class Track implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    // Suggestions offered as the tracking ID is typed.
+    private static final int MAX_SUGGESTIONS = 20;
+
     @Inject private BookingServiceFacade bookingServiceFacade;
 
-    private List<String> trackingIds;
     private String trackingId;
     private CargoStatusDto cargo;
 
     public List<String> getTrackingIds(String query) {
-        return trackingIds;
+        return bookingServiceFacade.listTrackingIds(query, MAX_SUGGESTIONS);
     }
 
     public String getTrackingId() {
@@ -48,11 +49,6 @@ public class Track implements Serializable {
         return this.cargo;
     }
 
-    @PostConstruct
-    public void init() {
-        trackingIds = bookingServiceFacade.listAllTrackingIds();
-    }
-
     public void onTrackById() {
         cargo = bookingServiceFacade.loadCargoForTracking(this.trackingId);
 
@@ -2,8 +2,9 @@ package org.eclipse.cargotracker.interfaces.handling.mobile;
 
 import org.eclipse.cargotracker.application.ApplicationEvents;
 import org.eclipse.cargotracker.application.util.DateUtil;
-import org.eclipse.cargotracker.domain.model.cargo.Cargo;
+import org.eclipse.cargotracker.domain.model.cargo.CargoFilter;
 import org.eclipse.cargotracker.domain.model.cargo.CargoRepository;
+import org.eclipse.cargotracker.domain.model.cargo.RoutingStatus;
 import org.eclipse.cargotracker.domain.model.cargo.TrackingId;
 import org.eclipse.cargotracker.domain.model.cargo.TransportStatus;
 import org.eclipse.cargotracker.domain.model.handling.HandlingEvent;
@@ -24,7 +25,10 @@ import javax.transaction.Transactional;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Named
 @ViewScoped
@@ -32,6 +36,16 @@ public class EventLogger implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    // Suggestions offered as the tracking ID is typed, more are of no use on a phone.
+    private static final int MAX_SUGGESTIONS = 20;
+
+    // Only routed cargo that is not claimed yet is handled.
+    private static final CargoFilter LOGGABLE_CARGO =
+            CargoFilter.ALL
+                    .withRoutingStatuses(EnumSet.complementOf(EnumSet.of(RoutingStatus.NOT_ROUTED)))
+                    .withTransportStatuses(
+                            EnumSet.complementOf(EnumSet.of(TransportStatus.CLAIMED)));
+
     @Inject private CargoRepository cargoRepository;
 
     @Inject private LocationRepository locationRepository;
@@ -40,7 +54,7 @@ public class EventLogger implements Serializable {
 
     @Inject private ApplicationEvents applicationEvents;
 
-    private List<SelectItem> trackingIds;
+    private List<String> trackingIds = Collections.emptyList();
     private List<SelectItem> locations;
     private List<SelectItem> voyages;
 
@@ -58,10 +72,29 @@ public class EventLogger implements Serializable {
         this.trackingId = trackingId;
     }
 
-    public List<SelectItem> getTrackingIds() {
+    public List<String> getTrackingIds() {
         return trackingIds;
     }
 
+    /** Looks up the tracking IDs starting with what has been typed so far. */
+    @Transactional
+    public void suggestTrackingIds() {
+        if (trackingId == null || trackingId.isEmpty()) {
+            trackingIds = Collections.emptyList();
+            return;
+        }
+
+        trackingIds =
+                cargoRepository
+                        .findTrackingIdPage(
+                                LOGGABLE_CARGO.withTrackingIdPrefix(trackingId.toUpperCase()),
+                                null,
+                                MAX_SUGGESTIONS)
+                        .stream()
+                        .map(TrackingId::getIdString)
+                        .collect(Collectors.toList());
+    }
+
     public String getLocation() {
         return location;
     }
@@ -112,20 +145,6 @@ public class EventLogger implements Serializable {
 
     @Transactional
     public void init() {
-        List<Cargo> cargos = cargoRepository.findAll();
-
-        trackingIds = new ArrayList<>(cargos.size());
-        for (Cargo cargo : cargos) {
-            // List only routed cargo that is not claimed yet.
-            if (!cargo.getItinerary().getLegs().isEmpty()
-                    && !(cargo.getDelivery()
-                            .getTransportStatus()
-                            .sameValueAs(TransportStatus.CLAIMED))) {
-                String trackingId = cargo.getTrackingId().getIdString();
-                trackingIds.add(new SelectItem(trackingId, trackingId));
-            }
-        }
-
         List<Location> locations = locationRepository.findAll();
 
         this.locations = new ArrayList<>(locations.size());
@@ -1,6 +1,7 @@
 package org.eclipse.cargotracker.interfaces.tracking.web;
 
 import org.eclipse.cargotracker.domain.model.cargo.Cargo;
+import org.eclipse.cargotracker.domain.model.cargo.CargoFetchPlan;
 import org.eclipse.cargotracker.domain.model.cargo.CargoRepository;
 import org.eclipse.cargotracker.domain.model.cargo.TrackingId;
 import org.eclipse.cargotracker.domain.model.handling.HandlingEvent;
@@ -59,7 +60,7 @@ public class Track implements Serializable {
 
     @Transactional(Transactional.TxType.REQUIRED)
     public void onTrackById() {
-        Cargo cargo = cargoRepository.find(new TrackingId(trackingId));
+        Cargo cargo = cargoRepository.find(new TrackingId(trackingId), CargoFetchPlan.TRACKING);
 
         if (cargo != null) {
             List<HandlingEvent> handlingEvents =
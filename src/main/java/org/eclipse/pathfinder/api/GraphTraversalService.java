@@ -1,35 +1,251 @@
 package org.eclipse.pathfinder.api;
 
 import org.eclipse.pathfinder.internal.GraphDao;
+import org.eclipse.pathfinder.internal.KShortestPathSearch;
+import org.eclipse.pathfinder.internal.ParetoPathSearch;
+import org.eclipse.pathfinder.internal.TimetableGraph;
 
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
 import javax.ejb.Stateless;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.inject.Inject;
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Size;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
-import java.security.SecureRandom;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 @Stateless
 @Path("/graph-traversal")
 public class GraphTraversalService {
 
-    private static final long ONE_MIN_MS = 1000L * 60;
-    private static final long ONE_DAY_MS = ONE_MIN_MS * 60 * 24;
-    private final SecureRandom random = new SecureRandom();
+    private static final Logger LOGGER = Logger.getLogger(GraphTraversalService.class.getName());
+
+    // Newline delimited JSON, one transit path per line.
+    public static final String NDJSON = "application/x-ndjson";
+
+    // Time needed to move a cargo from one voyage onto another at the same location.
+    private static final Duration MINIMUM_TRANSSHIPMENT_TIME = Duration.ofHours(2);
+
+    private static final String DEFAULT_CANDIDATE_COUNT = "5";
+    private static final int MAX_CANDIDATE_COUNT = 20;
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    // Same format as the deadline is entered in the booking application.
+    private static final DateTimeFormatter DEADLINE_FORMAT =
+            DateTimeFormatter.ofPattern("M/d/yyyy");
+
     @Inject private GraphDao dao;
 
+    // Writes the streamed lines, JAX-RS only binds whole entities.
+    private final Jsonb jsonb = JsonbBuilder.create();
+
+    @Resource private ManagedExecutorService managedExecutorService;
+
+    @PreDestroy
+    public void destroy() {
+        try {
+            jsonb.close();
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "Closing the JSON binding failed", e);
+        }
+    }
+
     @GET
     @Path("/shortest-path")
     @Produces({"application/json", "application/xml; qs=.75"})
     public List<TransitPath> findShortestPath(
+            @NotBlank(message = "Missing origin UN location code.")
+                    @Size(
+                            min = 5,
+                            max = 5,
+                            message = "Origin UN location code value must be five characters long.")
+                    @QueryParam("origin")
+                    String originUnLocode,
+            @NotBlank(message = "Missing destination UN location code.")
+                    @Size(
+                            min = 5,
+                            max = 5,
+                            message =
+                                    "Destination UN location code value must be five characters long.")
+                    @QueryParam("destination")
+                    String destinationUnLocode,
+            @Size(
+                            min = 8,
+                            max = 10,
+                            message =
+                                    "Deadline value must be between eight and ten characters long.")
+                    @QueryParam("deadline")
+                    String deadline,
+            @Min(value = 1, message = "At least one candidate must be requested.")
+                    @Max(
+                            value = MAX_CANDIDATE_COUNT,
+                            message = "At most twenty candidates can be requested.")
+                    @DefaultValue(DEFAULT_CANDIDATE_COUNT)
+                    @QueryParam("k")
+                    int k,
+            @QueryParam("excludedVoyage") String excludedVoyage,
+            @QueryParam("excludedFrom") String excludedFrom,
+            @QueryParam("excludedTo") String excludedTo) {
+        TimetableGraph graph = dao.getTimetableGraph();
+        KShortestPathSearch search = new KShortestPathSearch(graph, MINIMUM_TRANSSHIPMENT_TIME);
+        exclude(search, parseExclusion(excludedVoyage, excludedFrom, excludedTo));
+
+        return findPaths(
+                search,
+                originUnLocode,
+                destinationUnLocode,
+                LocalDateTime.now(),
+                parseDeadline(deadline),
+                k);
+    }
+
+    /**
+     * Same search as {@link #findShortestPath(String, String, String, int, String, String,
+     * String)}, for callers deployed in the same application as the path-finder. The transit paths
+     * are handed over as built, without a round trip through HTTP and JSON.
+     *
+     * @param deadline paths must arrive before this day starts, may be null
+     */
+    public List<TransitPath> findShortestPath(
+            String originUnLocode, String destinationUnLocode, LocalDate deadline, int k) {
+        return findShortestPath(originUnLocode, destinationUnLocode, deadline, k, null);
+    }
+
+    /** @param excluded movements the paths must not use, may be null */
+    public List<TransitPath> findShortestPath(
+            String originUnLocode,
+            String destinationUnLocode,
+            LocalDate deadline,
+            int k,
+            VoyageExclusion excluded) {
+        TimetableGraph graph = dao.getTimetableGraph();
+        KShortestPathSearch search = new KShortestPathSearch(graph, MINIMUM_TRANSSHIPMENT_TIME);
+        exclude(search, excluded);
+
+        return findPaths(
+                search,
+                originUnLocode,
+                destinationUnLocode,
+                LocalDateTime.now(),
+                deadline == null ? null : deadline.atStartOfDay(),
+                k);
+    }
+
+    /**
+     * Same as {@link #findShortestPath(String, String, String, int, String, String, String)}, but
+     * streamed as newline delimited JSON. Every path is written and flushed as soon as the search
+     * has found it, so the first candidate arrives while later ones are still being searched for.
+     * Only served when explicitly asked for.
+     */
+    @GET
+    @Path("/shortest-path")
+    @Produces(NDJSON + "; qs=.5")
+    public StreamingOutput streamShortestPath(
+            @NotBlank(message = "Missing origin UN location code.")
+                    @Size(
+                            min = 5,
+                            max = 5,
+                            message = "Origin UN location code value must be five characters long.")
+                    @QueryParam("origin")
+                    String originUnLocode,
+            @NotBlank(message = "Missing destination UN location code.")
+                    @Size(
+                            min = 5,
+                            max = 5,
+                            message =
+                                    "Destination UN location code value must be five characters long.")
+                    @QueryParam("destination")
+                    String destinationUnLocode,
+            @Size(
+                            min = 8,
+                            max = 10,
+                            message =
+                                    "Deadline value must be between eight and ten characters long.")
+                    @QueryParam("deadline")
+                    String deadline,
+            @Min(value = 1, message = "At least one candidate must be requested.")
+                    @Max(
+                            value = MAX_CANDIDATE_COUNT,
+                            message = "At most twenty candidates can be requested.")
+                    @DefaultValue(DEFAULT_CANDIDATE_COUNT)
+                    @QueryParam("k")
+                    int k,
+            @QueryParam("excludedVoyage") String excludedVoyage,
+            @QueryParam("excludedFrom") String excludedFrom,
+            @QueryParam("excludedTo") String excludedTo) {
+        // Everything that can fail the request is done before the response is committed.
+        TimetableGraph graph = dao.getTimetableGraph();
+        LocalDateTime earliestDeparture = LocalDateTime.now();
+        LocalDateTime arrivalDeadline = parseDeadline(deadline);
+        KShortestPathSearch search = new KShortestPathSearch(graph, MINIMUM_TRANSSHIPMENT_TIME);
+        exclude(search, parseExclusion(excludedVoyage, excludedFrom, excludedTo));
+
+        return output -> {
+            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            try {
+                search.find(
+                                originUnLocode,
+                                destinationUnLocode,
+                                earliestDeparture,
+                                arrivalDeadline,
+                                k,
+                                edges -> writeLine(writer, toTransitPath(graph, edges)));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+    }
+
+    /**
+     * Finds the paths worth a planner's consideration when speed is not all that counts: every
+     * path that no other one beats on arrival time, carrier movements and transshipments at once.
+     * Each path carries its score.
+     *
+     * <p>The departures from the origin are searched in slices over the same timetable snapshot,
+     * on the managed executor like the slices of a batch, with the last one on the request thread.
+     */
+    @GET
+    @Path("/pareto-paths")
+    @Produces({"application/json", "application/xml; qs=.75"})
+    public List<TransitPath> findParetoPaths(
             @NotBlank(message = "Missing origin UN location code.")
                     @Size(
                             min = 5,
@@ -52,76 +268,226 @@ public class GraphTraversalService {
                                     "Deadline value must be between eight and ten characters long.")
                     @QueryParam("deadline")
                     String deadline) {
-        LocalDateTime date = nextDate(LocalDateTime.now());
-
-        List<String> allVertices = dao.listLocations();
-        allVertices.remove(originUnLocode);
-        allVertices.remove(destinationUnLocode);
-
-        int candidateCount = getRandomNumberOfCandidates();
-        List<TransitPath> candidates = new ArrayList<>(candidateCount);
-
-        for (int i = 0; i < candidateCount; i++) {
-            allVertices = getRandomChunkOfLocations(allVertices);
-            List<TransitEdge> transitEdges = new ArrayList<>(allVertices.size() - 1);
-            String firstLegTo = allVertices.get(0);
-
-            LocalDateTime fromDate = nextDate(date);
-            LocalDateTime toDate = nextDate(fromDate);
-            date = nextDate(toDate);
-
-            transitEdges.add(
-                    new TransitEdge(
-                            dao.getVoyageNumber(originUnLocode, firstLegTo),
-                            originUnLocode,
-                            firstLegTo,
-                            fromDate,
-                            toDate));
-
-            for (int j = 0; j < allVertices.size() - 1; j++) {
-                String current = allVertices.get(j);
-                String next = allVertices.get(j + 1);
-                fromDate = nextDate(date);
-                toDate = nextDate(fromDate);
-                date = nextDate(toDate);
-                transitEdges.add(
-                        new TransitEdge(
-                                dao.getVoyageNumber(current, next),
-                                current,
-                                next,
-                                fromDate,
-                                toDate));
+        TimetableGraph graph = dao.getTimetableGraph();
+        ParetoPathSearch search =
+                new ParetoPathSearch(
+                        graph,
+                        MINIMUM_TRANSSHIPMENT_TIME,
+                        managedExecutorService,
+                        Runtime.getRuntime().availableProcessors());
+
+        return search
+                .find(
+                        originUnLocode,
+                        destinationUnLocode,
+                        LocalDateTime.now(),
+                        parseDeadline(deadline))
+                .stream()
+                .map(
+                        path -> {
+                            TransitPath transitPath = toTransitPath(graph, path.getEdges());
+                            transitPath.setScore(
+                                    new PathScore(
+                                            TimetableGraph.toLocalDateTime(path.getArrival()),
+                                            path.getCarrierMovements(),
+                                            path.getTransshipments()));
+                            return transitPath;
+                        })
+                .collect(Collectors.toList());
+    }
+
+    private void writeLine(Writer writer, TransitPath transitPath) {
+        try {
+            writer.write(jsonb.toJson(transitPath));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Solves many origin and destination pairs in one request. All queries are answered from the
+     * same timetable snapshot, split into one slice per processor. Each slice runs on the managed
+     * executor with its own search state, the last one on the request thread. A slice starts a new
+     * search whenever a query excludes other movements than the one before, which the queries of
+     * one disruption do not.
+     *
+     * @return The transit paths of every query, keyed by query id in request order.
+     */
+    @POST
+    @Path("/shortest-paths")
+    @Consumes("application/json")
+    @Produces("application/json")
+    public Map<String, List<TransitPath>> findShortestPaths(
+            @NotEmpty(message = "At least one query is required.")
+                    @Size(
+                            max = MAX_BATCH_SIZE,
+                            message = "At most a thousand queries can be sent at once.")
+                    @Valid
+                    List<ShortestPathQuery> queries,
+            @Min(value = 1, message = "At least one candidate must be requested.")
+                    @Max(
+                            value = MAX_CANDIDATE_COUNT,
+                            message = "At most twenty candidates can be requested.")
+                    @DefaultValue(DEFAULT_CANDIDATE_COUNT)
+                    @QueryParam("k")
+                    int k) {
+        // Malformed input fails the whole batch before any search starts.
+        LocalDateTime[] deadlines = new LocalDateTime[queries.size()];
+        VoyageExclusion[] exclusions = new VoyageExclusion[queries.size()];
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < queries.size(); i++) {
+            ShortestPathQuery query = queries.get(i);
+            if (!ids.add(query.getId())) {
+                throw new BadRequestException("Query id " + query.getId() + " is not unique.");
             }
+            deadlines[i] = parseDeadline(query.getDeadline());
+            exclusions[i] =
+                    parseExclusion(
+                            query.getExcludedVoyage(),
+                            query.getExcludedFrom(),
+                            query.getExcludedTo());
+        }
+
+        TimetableGraph graph = dao.getTimetableGraph();
+        LocalDateTime now = LocalDateTime.now();
+        // Every slice writes its own indexes, and joining the slices publishes them.
+        List<List<TransitPath>> results =
+                new ArrayList<>(Collections.nCopies(queries.size(), null));
+
+        int slices = Math.min(queries.size(), Runtime.getRuntime().availableProcessors());
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+        for (int slice = 0; slice < slices; slice++) {
+            int from = slice * queries.size() / slices;
+            int to = (slice + 1) * queries.size() / slices;
+            Runnable task =
+                    () -> {
+                        KShortestPathSearch search =
+                                new KShortestPathSearch(graph, MINIMUM_TRANSSHIPMENT_TIME);
+                        VoyageExclusion excluded = null;
+                        for (int i = from; i < to; i++) {
+                            ShortestPathQuery query = queries.get(i);
+                            // Excluded movements stay banned for the life of a search.
+                            if (!Objects.equals(exclusions[i], excluded)) {
+                                excluded = exclusions[i];
+                                search = new KShortestPathSearch(graph, MINIMUM_TRANSSHIPMENT_TIME);
+                                exclude(search, excluded);
+                            }
+                            results.set(
+                                    i,
+                                    findPaths(
+                                            search,
+                                            query.getOrigin(),
+                                            query.getDestination(),
+                                            now,
+                                            deadlines[i],
+                                            k));
+                        }
+                    };
+
+            if (slice == slices - 1) {
+                task.run();
+            } else {
+                running.add(CompletableFuture.runAsync(task, managedExecutorService));
+            }
+        }
+        CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[0])).join();
+
+        Map<String, List<TransitPath>> pathsById = new LinkedHashMap<>();
+        for (int i = 0; i < queries.size(); i++) {
+            pathsById.put(queries.get(i).getId(), results.get(i));
+        }
+
+        return pathsById;
+    }
+
+    private List<TransitPath> findPaths(
+            KShortestPathSearch search,
+            String originUnLocode,
+            String destinationUnLocode,
+            LocalDateTime earliestDeparture,
+            LocalDateTime deadline,
+            int k) {
+        return search.find(originUnLocode, destinationUnLocode, earliestDeparture, deadline, k)
+                .stream()
+                .map(edges -> toTransitPath(search.getGraph(), edges))
+                .collect(Collectors.toList());
+    }
+
+    private void exclude(KShortestPathSearch search, VoyageExclusion excluded) {
+        if (excluded != null) {
+            search.excludeVoyage(
+                    excluded.getVoyageNumber(), excluded.getFrom(), excluded.getTo());
+        }
+    }
+
+    /**
+     * The excluded window is given in ISO local date-time format, such as 2030-01-31T12:00.
+     *
+     * @return The movements to exclude, or null if no voyage is excluded.
+     */
+    private VoyageExclusion parseExclusion(String voyageNumber, String from, String to) {
+        if (voyageNumber == null || voyageNumber.isBlank()) {
+            return null;
+        }
 
-            String lastLegFrom = allVertices.get(allVertices.size() - 1);
-            fromDate = nextDate(date);
-            toDate = nextDate(fromDate);
-            transitEdges.add(
-                    new TransitEdge(
-                            dao.getVoyageNumber(lastLegFrom, destinationUnLocode),
-                            lastLegFrom,
-                            destinationUnLocode,
-                            fromDate,
-                            toDate));
-
-            candidates.add(new TransitPath(transitEdges));
+        if (from == null || to == null) {
+            throw new BadRequestException("An excluded voyage needs an excluded window.");
         }
 
-        return candidates;
+        try {
+            return new VoyageExclusion(
+                    voyageNumber, LocalDateTime.parse(from), LocalDateTime.parse(to));
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException(
+                    "Excluded window values must be date-times in ISO format.", e);
+        }
     }
 
-    private LocalDateTime nextDate(LocalDateTime date) {
-        return date.plus(ONE_DAY_MS + (random.nextInt(1000) - 500) * ONE_MIN_MS, ChronoUnit.MILLIS);
+    /**
+     * A cargo meets its deadline if it arrives before the deadline day starts.
+     *
+     * @return The time the cargo must arrive before, or null if there is no deadline.
+     */
+    private LocalDateTime parseDeadline(String deadline) {
+        if (deadline == null || deadline.isBlank()) {
+            return null;
+        }
+
+        try {
+            return LocalDate.parse(deadline, DEADLINE_FORMAT).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Deadline value must be a date in M/d/yyyy format.", e);
+        }
     }
 
-    private int getRandomNumberOfCandidates() {
-        return 3 + random.nextInt(3);
+    /**
+     * Consecutive movements on the same voyage are one leg for the cargo, it is only loaded and
+     * unloaded where it changes voyage.
+     */
+    private TransitPath toTransitPath(TimetableGraph graph, int[] edges) {
+        List<TransitEdge> transitEdges = new ArrayList<>();
+        int legStart = edges[0];
+
+        for (int i = 1; i < edges.length; i++) {
+            if (graph.voyage(edges[i]) != graph.voyage(edges[i - 1])) {
+                transitEdges.add(toTransitEdge(graph, legStart, edges[i - 1]));
+                legStart = edges[i];
+            }
+        }
+
+        transitEdges.add(toTransitEdge(graph, legStart, edges[edges.length - 1]));
+
+        return new TransitPath(transitEdges);
     }
 
-    private List<String> getRandomChunkOfLocations(List<String> allLocations) {
-        Collections.shuffle(allLocations);
-        int total = allLocations.size();
-        int chunk = total > 4 ? 1 + new SecureRandom().nextInt(5) : total;
-        return allLocations.subList(0, chunk);
+    private TransitEdge toTransitEdge(TimetableGraph graph, int first, int last) {
+        return new TransitEdge(
+                graph.voyageNumber(first),
+                graph.unLocode(graph.source(first)),
+                graph.unLocode(graph.target(last)),
+                TimetableGraph.toLocalDateTime(graph.departure(first)),
+                TimetableGraph.toLocalDateTime(graph.arrival(last)));
     }
 }
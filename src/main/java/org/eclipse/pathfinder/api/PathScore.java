@@ -0,0 +1,64 @@
+package org.eclipse.pathfinder.api;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * How a transit path scores on the criteria of the multi-criteria search. Each leg of a path is a
+ * run of carrier movements on one voyage, so the movements count the port calls on the way and
+ * the transshipments count the changes of voyage.
+ */
+public class PathScore implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private LocalDateTime arrival;
+    private int carrierMovements;
+    private int transshipments;
+
+    public PathScore() {
+        // Nothing to do.
+    }
+
+    public PathScore(LocalDateTime arrival, int carrierMovements, int transshipments) {
+        this.arrival = arrival;
+        this.carrierMovements = carrierMovements;
+        this.transshipments = transshipments;
+    }
+
+    public LocalDateTime getArrival() {
+        return arrival;
+    }
+
+    public void setArrival(LocalDateTime arrival) {
+        this.arrival = arrival;
+    }
+
+    public int getCarrierMovements() {
+        return carrierMovements;
+    }
+
+    public void setCarrierMovements(int carrierMovements) {
+        this.carrierMovements = carrierMovements;
+    }
+
+    public int getTransshipments() {
+        return transshipments;
+    }
+
+    public void setTransshipments(int transshipments) {
+        this.transshipments = transshipments;
+    }
+
+    @Override
+    public String toString() {
+        return "PathScore{"
+                + "arrival="
+                + arrival
+                + ", carrierMovements="
+                + carrierMovements
+                + ", transshipments="
+                + transshipments
+                + '}';
+    }
+}
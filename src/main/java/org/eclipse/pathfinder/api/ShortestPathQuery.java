@@ -0,0 +1,151 @@
+package org.eclipse.pathfinder.api;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * One origin and destination pair of a batch request, identified by a caller chosen id. Like a
+ * single pair request, a query may name a voyage whose movements under way in a window of ISO
+ * local date-times the paths must not use.
+ */
+public class ShortestPathQuery implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // Same format as the deadline of a single pair request.
+    private static final DateTimeFormatter DEADLINE_FORMAT =
+            DateTimeFormatter.ofPattern("M/d/yyyy");
+
+    @NotBlank(message = "Missing query id.")
+    private String id;
+
+    @NotBlank(message = "Missing origin UN location code.")
+    @Size(min = 5, max = 5, message = "Origin UN location code value must be five characters long.")
+    private String origin;
+
+    @NotBlank(message = "Missing destination UN location code.")
+    @Size(
+            min = 5,
+            max = 5,
+            message = "Destination UN location code value must be five characters long.")
+    private String destination;
+
+    @Size(
+            min = 8,
+            max = 10,
+            message = "Deadline value must be between eight and ten characters long.")
+    private String deadline;
+
+    private String excludedVoyage;
+    private String excludedFrom;
+    private String excludedTo;
+
+    public ShortestPathQuery() {
+        // Nothing to do.
+    }
+
+    public ShortestPathQuery(String id, String origin, String destination, String deadline) {
+        this.id = id;
+        this.origin = origin;
+        this.destination = destination;
+        this.deadline = deadline;
+    }
+
+    /**
+     * @param deadline paths must arrive before this day starts, may be null
+     * @param excluded movements the paths must not use, may be null
+     */
+    public ShortestPathQuery(
+            String id,
+            String origin,
+            String destination,
+            LocalDate deadline,
+            VoyageExclusion excluded) {
+        this(id, origin, destination, deadline == null ? null : DEADLINE_FORMAT.format(deadline));
+
+        if (excluded != null) {
+            this.excludedVoyage = excluded.getVoyageNumber();
+            this.excludedFrom = excluded.getFrom().toString();
+            this.excludedTo = excluded.getTo().toString();
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public String getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(String deadline) {
+        this.deadline = deadline;
+    }
+
+    public String getExcludedVoyage() {
+        return excludedVoyage;
+    }
+
+    public void setExcludedVoyage(String excludedVoyage) {
+        this.excludedVoyage = excludedVoyage;
+    }
+
+    public String getExcludedFrom() {
+        return excludedFrom;
+    }
+
+    public void setExcludedFrom(String excludedFrom) {
+        this.excludedFrom = excludedFrom;
+    }
+
+    public String getExcludedTo() {
+        return excludedTo;
+    }
+
+    public void setExcludedTo(String excludedTo) {
+        this.excludedTo = excludedTo;
+    }
+
+    @Override
+    public String toString() {
+        return "ShortestPathQuery{"
+                + "id="
+                + id
+                + ", origin="
+                + origin
+                + ", destination="
+                + destination
+                + ", deadline="
+                + deadline
+                + ", excludedVoyage="
+                + excludedVoyage
+                + ", excludedFrom="
+                + excludedFrom
+                + ", excludedTo="
+                + excludedTo
+                + '}';
+    }
+}
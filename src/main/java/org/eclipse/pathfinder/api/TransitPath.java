@@ -11,6 +11,8 @@ public class TransitPath implements Serializable {
     private static final long serialVersionUID = 1L;
 
     private List<TransitEdge> transitEdges;
+    // Only set by the multi-criteria search.
+    private PathScore score;
 
     public TransitPath() {
         this.transitEdges = new ArrayList<>();
@@ -28,8 +30,16 @@ public class TransitPath implements Serializable {
         this.transitEdges = transitEdges;
     }
 
+    public PathScore getScore() {
+        return score;
+    }
+
+    public void setScore(PathScore score) {
+        this.score = score;
+    }
+
     @Override
     public String toString() {
-        return "TransitPath{" + "transitEdges=" + transitEdges + '}';
+        return "TransitPath{" + "transitEdges=" + transitEdges + ", score=" + score + '}';
     }
 }
@@ -0,0 +1,62 @@
+package org.eclipse.pathfinder.api;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * The movements of a voyage a search must not use, those under way at some point of a window. Used
+ * to route around a disrupted voyage rather than pick the disrupted paths out afterwards.
+ */
+public class VoyageExclusion implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String voyageNumber;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    public VoyageExclusion(String voyageNumber, LocalDateTime from, LocalDateTime to) {
+        this.voyageNumber = voyageNumber;
+        this.from = from;
+        this.to = to;
+    }
+
+    public String getVoyageNumber() {
+        return voyageNumber;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        VoyageExclusion that = (VoyageExclusion) o;
+
+        return voyageNumber.equals(that.voyageNumber)
+                && from.equals(that.from)
+                && to.equals(that.to);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(voyageNumber, from, to);
+    }
+
+    @Override
+    public String toString() {
+        return voyageNumber + "@" + from + ".." + to;
+    }
+}
@@ -0,0 +1,300 @@
+package org.eclipse.pathfinder.internal;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Time-dependent earliest arrival search over a {@link TimetableGraph}.
+ *
+ * <p>The arrival time of a scheduled movement is fixed by the timetable, so the search runs
+ * Dijkstra over movements rather than over locations. A movement can follow another one if it
+ * leaves the location the previous one arrived at no earlier than that arrival, plus the minimum
+ * transshipment time whenever the cargo changes voyage. Movements are settled in order of their
+ * arrival plus the {@link TravelTimeBounds lower bound} on the time still needed from there, so
+ * the first settled movement that reaches the destination ends the earliest arriving path, while
+ * movements heading away from the destination wait in the queue and hopeless ones are pruned.
+ *
+ * <p>All search state lives in int arrays indexed by edge or location id. They are allocated once
+ * per instance and invalidated between searches by a generation stamp, so an instance is cheap to
+ * search repeatedly but must not be shared between threads.
+ */
+public class EarliestArrivalSearch {
+
+    static final int[] NO_PATH = new int[0];
+    static final long NO_DEADLINE = Long.MAX_VALUE;
+    static final int AT_ORIGIN = -1;
+
+    private final TimetableGraph graph;
+    private final long minimumTransshipmentSeconds;
+
+    private final int[] previous;
+    private final int[] hops;
+    private final long[] priority;
+    private final int[] reachedStamp;
+    private final int[] scannedStamp;
+    private final int[] scannedHops;
+    private final EdgeQueue queue;
+    private int generation;
+    private long[] remaining;
+
+    public EarliestArrivalSearch(TimetableGraph graph, Duration minimumTransshipmentTime) {
+        this.graph = graph;
+        this.minimumTransshipmentSeconds = minimumTransshipmentTime.getSeconds();
+        this.previous = new int[graph.edgeCount()];
+        this.hops = new int[graph.edgeCount()];
+        this.priority = new long[graph.edgeCount()];
+        this.reachedStamp = new int[graph.edgeCount()];
+        this.scannedStamp = new int[graph.locationCount()];
+        this.scannedHops = new int[graph.locationCount()];
+        this.queue = new EdgeQueue(graph, hops, priority);
+    }
+
+    TimetableGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @param originUnLocode UN location code the cargo leaves from
+     * @param destinationUnLocode UN location code the cargo must reach
+     * @param earliestDeparture no movement departing before this time is used
+     * @return The edges of the earliest arriving path, in travel order. Empty if the destination
+     *     cannot be reached.
+     */
+    public int[] find(
+            String originUnLocode, String destinationUnLocode, LocalDateTime earliestDeparture) {
+        int origin = graph.locationId(originUnLocode);
+        int destination = graph.locationId(destinationUnLocode);
+
+        if (origin < 0 || destination < 0 || origin == destination) {
+            return NO_PATH;
+        }
+
+        return find(
+                origin,
+                TimetableGraph.toEpochSecond(earliestDeparture),
+                AT_ORIGIN,
+                destination,
+                NO_DEADLINE,
+                null,
+                null);
+    }
+
+    /**
+     * @param origin location id the search starts from
+     * @param earliestDeparture epoch second before which nothing departs from the origin
+     * @param arrivedBy edge the cargo arrived at the origin with, or {@link #AT_ORIGIN} if it is
+     *     waiting there. The edge itself is not part of the returned path.
+     * @param destination location id to reach
+     * @param deadline epoch second the cargo must arrive before. Movements arriving later are
+     *     pruned as soon as they are reached, since arrival times only grow along a path.
+     * @param bannedEdges edges that must not be used, may be null
+     * @param bannedLocations locations that must not be entered, may be null
+     * @return The edges of the earliest arriving path, in travel order, or {@link #NO_PATH}.
+     */
+    int[] find(
+            int origin,
+            long earliestDeparture,
+            int arrivedBy,
+            int destination,
+            long deadline,
+            boolean[] bannedEdges,
+            boolean[] bannedLocations) {
+        generation++;
+        queue.clear();
+        remaining = graph.travelTimeBounds().toDestination(destination);
+
+        if (arrivedBy == AT_ORIGIN) {
+            for (int edge = graph.firstDepartureAtOrAfter(origin, earliestDeparture);
+                    edge < graph.lastEdge(origin);
+                    edge++) {
+                reach(edge, AT_ORIGIN, deadline, bannedEdges, bannedLocations);
+            }
+        } else {
+            reachedStamp[arrivedBy] = generation;
+            hops[arrivedBy] = 0;
+            expand(arrivedBy, deadline, bannedEdges, bannedLocations);
+        }
+
+        while (!queue.isEmpty()) {
+            int edge = queue.poll();
+
+            if (graph.target(edge) == destination) {
+                return toPath(edge);
+            }
+
+            expand(edge, deadline, bannedEdges, bannedLocations);
+        }
+
+        return NO_PATH;
+    }
+
+    private void expand(int edge, long deadline, boolean[] bannedEdges, boolean[] bannedLocations) {
+        int location = graph.target(edge);
+        long arrival = graph.arrival(edge);
+        long transshipmentReady = arrival + minimumTransshipmentSeconds;
+        int last = graph.lastEdge(location);
+
+        // Staying on board, the same voyage may leave before a transshipment is possible.
+        for (int next = graph.firstDepartureAtOrAfter(location, arrival);
+                next < last && graph.departure(next) < transshipmentReady;
+                next++) {
+            if (graph.voyage(next) == graph.voyage(edge)) {
+                reach(next, edge, deadline, bannedEdges, bannedLocations);
+            }
+        }
+
+        // Any later departure can be reached by changing voyage. Arrivals are settled in time
+        // order, so the first one at a location already covers those of all later arrivals,
+        // unless a later one got there in fewer hops.
+        if (scannedStamp[location] != generation || hops[edge] < scannedHops[location]) {
+            scannedStamp[location] = generation;
+            scannedHops[location] = hops[edge];
+            for (int next = graph.firstDepartureAtOrAfter(location, transshipmentReady);
+                    next < last;
+                    next++) {
+                reach(next, edge, deadline, bannedEdges, bannedLocations);
+            }
+        }
+    }
+
+    private void reach(
+            int edge, int from, long deadline, boolean[] bannedEdges, boolean[] bannedLocations) {
+        long remainingSeconds = remaining[graph.target(edge)];
+
+        // Also prunes movements that cannot make the deadline even on the fastest links onwards.
+        if (remainingSeconds == TravelTimeBounds.UNREACHABLE
+                || graph.arrival(edge) + remainingSeconds >= deadline
+                || (bannedEdges != null && bannedEdges[edge])
+                || (bannedLocations != null && bannedLocations[graph.target(edge)])) {
+            return;
+        }
+
+        int edgeHops = from == AT_ORIGIN ? 1 : hops[from] + 1;
+
+        if (reachedStamp[edge] != generation) {
+            reachedStamp[edge] = generation;
+            previous[edge] = from;
+            hops[edge] = edgeHops;
+            priority[edge] = graph.arrival(edge) + remainingSeconds;
+            queue.add(edge);
+        } else if (edgeHops < hops[edge] && queue.contains(edge)) {
+            // Same arrival, fewer hops: keeps ties between paths ordered by length.
+            previous[edge] = from;
+            hops[edge] = edgeHops;
+            queue.decreased(edge);
+        }
+    }
+
+    private int[] toPath(int lastEdge) {
+        int[] path = new int[hops[lastEdge]];
+
+        for (int edge = lastEdge, i = path.length - 1; i >= 0; edge = previous[edge], i--) {
+            path[i] = edge;
+        }
+
+        return path;
+    }
+
+    /**
+     * Binary min-heap of edge ids, ordered by priority and then by number of hops. Heap positions
+     * are tracked per edge so the hops of a queued edge can still be decreased.
+     */
+    private static class EdgeQueue {
+
+        private static final int NOT_QUEUED = -1;
+
+        private final int[] hops;
+        private final long[] priority;
+        private final int[] position;
+        private int[] heap = new int[16];
+        private int size;
+
+        EdgeQueue(TimetableGraph graph, int[] hops, long[] priority) {
+            this.hops = hops;
+            this.priority = priority;
+            this.position = new int[graph.edgeCount()];
+            Arrays.fill(position, NOT_QUEUED);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                position[heap[i]] = NOT_QUEUED;
+            }
+            size = 0;
+        }
+
+        boolean contains(int edge) {
+            return position[edge] != NOT_QUEUED;
+        }
+
+        void add(int edge) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+
+            siftUp(size++, edge);
+        }
+
+        /** Restores the heap order after the hops of a queued edge went down. */
+        void decreased(int edge) {
+            siftUp(position[edge], edge);
+        }
+
+        int poll() {
+            int result = heap[0];
+            position[result] = NOT_QUEUED;
+
+            if (--size == 0) {
+                return result;
+            }
+
+            int edge = heap[size];
+
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!before(heap[child], edge)) {
+                    break;
+                }
+                place(i, heap[child]);
+                i = child;
+            }
+            place(i, edge);
+
+            return result;
+        }
+
+        private void siftUp(int i, int edge) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(edge, heap[parent])) {
+                    break;
+                }
+                place(i, heap[parent]);
+                i = parent;
+            }
+            place(i, edge);
+        }
+
+        private void place(int i, int edge) {
+            heap[i] = edge;
+            position[edge] = i;
+        }
+
+        private boolean before(int edge, int other) {
+            return priority[edge] < priority[other]
+                    || (priority[edge] == priority[other] && hops[edge] < hops[other]);
+        }
+    }
+}
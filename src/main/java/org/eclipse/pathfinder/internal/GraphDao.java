@@ -1,40 +1,212 @@
 package org.eclipse.pathfinder.internal;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.io.Serializable;
-import java.security.SecureRandom;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+/**
+ * Reads the voyage timetable. The path-finder shares the database with the core application, but
+ * not its domain model, so only the plain columns are projected out of the voyage schedules.
+ *
+ * <p>The timetable is compiled into a {@link TimetableGraph} on first use, and that snapshot is
+ * shared by all route searches. Committed schedule changes are queued, and the next search applies
+ * them as a {@link TimetableGraph.Update} reading just the changed voyages back. Searches running
+ * meanwhile, or arriving while an update is being applied, keep using the snapshot they have.
+ */
 @ApplicationScoped
 public class GraphDao implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
-    private final SecureRandom random = new SecureRandom();
+    private static final Logger LOGGER = Logger.getLogger(GraphDao.class.getName());
 
-    public List<String> listLocations() {
-        return new ArrayList<>(
-                Arrays.asList(
-                        "CNHKG", "AUMEL", "SESTO", "FIHEL", "USCHI", "JNTKO", "DEHAM", "CNSHA",
-                        "NLRTM", "SEGOT", "CNHGH", "USNYC", "USDAL"));
+    private static final String VOYAGE = "Voyage";
+    private static final String CARRIER_MOVEMENT = "CarrierMovement";
+
+    private static final String SCHEDULED_MOVEMENTS_QUERY =
+            "Select v.voyageNumber.number, d.unLocode.unlocode, a.unLocode.unlocode,"
+                    + " m.departureTime, m.arrivalTime, v.id"
+                    + " from Voyage v join v.schedule.carrierMovements m"
+                    + " join m.departureLocation d join m.arrivalLocation a";
+    private static final String VOYAGE_MOVEMENTS_QUERY =
+            SCHEDULED_MOVEMENTS_QUERY + " where v.id in :voyageIds";
+    private static final String VOYAGES_OF_MOVEMENTS_QUERY =
+            "Select distinct v.id from Voyage v join v.schedule.carrierMovements m"
+                    + " where m.id in :movementIds";
+
+    @PersistenceContext private EntityManager entityManager;
+
+    private transient volatile TimetableGraph timetableGraph;
+
+    // Guards loading and updating the snapshot, never held by a search.
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private final Queue<TimetableChange> pendingChanges = new ConcurrentLinkedQueue<>();
+
+    // Removed voyages can no longer be read back, their number is remembered from the load.
+    private final Map<Long, String> voyageNumbers = new ConcurrentHashMap<>();
+
+    public TimetableGraph getTimetableGraph() {
+        TimetableGraph graph = timetableGraph;
+
+        if (graph == null) {
+            updateLock.lock();
+            try {
+                graph = refresh();
+            } finally {
+                updateLock.unlock();
+            }
+        } else if (!pendingChanges.isEmpty() && updateLock.tryLock()) {
+            try {
+                graph = refresh();
+            } finally {
+                updateLock.unlock();
+            }
+        }
+
+        return graph;
     }
 
-    public String getVoyageNumber(String from, String to) {
-        int i = random.nextInt(5);
-
-        switch (i) {
-            case 0:
-                return "0100S";
-            case 1:
-                return "0200T";
-            case 2:
-                return "0300A";
-            case 3:
-                return "0301S";
-            default:
-                return "0400S";
+    /** Drops the current snapshot, the next search reloads the timetable. */
+    public void invalidate() {
+        updateLock.lock();
+        try {
+            timetableGraph = null;
+        } finally {
+            updateLock.unlock();
         }
     }
+
+    public void onTimetableChanged(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) TimetableChange change) {
+        pendingChanges.add(change);
+    }
+
+    Object identifierOf(Object entity) {
+        return entityManager
+                .getEntityManagerFactory()
+                .getPersistenceUnitUtil()
+                .getIdentifier(entity);
+    }
+
+    // Called with the update lock held.
+    private TimetableGraph refresh() {
+        TimetableGraph graph = timetableGraph;
+
+        if (graph == null) {
+            // Changes queued so far were committed before the load reads the timetable.
+            pendingChanges.clear();
+            graph = loadTimetableGraph();
+        } else if (!pendingChanges.isEmpty()) {
+            graph = applyPendingChanges(graph);
+        }
+
+        timetableGraph = graph;
+
+        return graph;
+    }
+
+    private TimetableGraph loadTimetableGraph() {
+        TimetableGraph.Builder builder = new TimetableGraph.Builder();
+
+        voyageNumbers.clear();
+        entityManager
+                .createQuery(SCHEDULED_MOVEMENTS_QUERY, Object[].class)
+                .getResultStream()
+                .forEach(
+                        row -> {
+                            builder.addMovement(
+                                    (String) row[0],
+                                    (String) row[1],
+                                    (String) row[2],
+                                    (LocalDateTime) row[3],
+                                    (LocalDateTime) row[4]);
+                            voyageNumbers.put((Long) row[5], (String) row[0]);
+                        });
+
+        TimetableGraph graph = builder.build();
+        LOGGER.log(
+                Level.INFO,
+                "Loaded timetable graph with {0} locations, {1} carrier movements and {2} links.",
+                new Object[] {
+                    graph.locationCount(), graph.edgeCount(), graph.travelTimeBounds().linkCount()
+                });
+
+        return graph;
+    }
+
+    private TimetableGraph applyPendingChanges(TimetableGraph graph) {
+        long start = System.nanoTime();
+        Set<Long> voyageIds = new HashSet<>();
+        Set<Long> movementIds = new HashSet<>();
+        TimetableChange change;
+
+        while ((change = pendingChanges.poll()) != null) {
+            if (VOYAGE.equals(change.getEntityName())) {
+                voyageIds.add((Long) change.getId());
+            } else if (CARRIER_MOVEMENT.equals(change.getEntityName())) {
+                movementIds.add((Long) change.getId());
+            }
+        }
+
+        // Movements are only deleted along with their voyage, whose removal is queued as well.
+        if (!movementIds.isEmpty()) {
+            voyageIds.addAll(
+                    entityManager
+                            .createQuery(VOYAGES_OF_MOVEMENTS_QUERY, Long.class)
+                            .setParameter("movementIds", new ArrayList<>(movementIds))
+                            .getResultList());
+        }
+
+        if (voyageIds.isEmpty()) {
+            return graph;
+        }
+
+        TimetableGraph.Update update = graph.update();
+        for (Long voyageId : voyageIds) {
+            String voyageNumber = voyageNumbers.remove(voyageId);
+            if (voyageNumber != null) {
+                update.replaceVoyage(voyageNumber);
+            }
+        }
+
+        List<Object[]> rows =
+                entityManager
+                        .createQuery(VOYAGE_MOVEMENTS_QUERY, Object[].class)
+                        .setParameter("voyageIds", new ArrayList<>(voyageIds))
+                        .getResultList();
+        for (Object[] row : rows) {
+            update.replaceVoyage((String) row[0])
+                    .addMovement(
+                            (String) row[0],
+                            (String) row[1],
+                            (String) row[2],
+                            (LocalDateTime) row[3],
+                            (LocalDateTime) row[4]);
+            voyageNumbers.put((Long) row[5], (String) row[0]);
+        }
+
+        TimetableGraph updated = update.apply();
+        LOGGER.log(
+                Level.FINE,
+                "Applied changes of {0} voyages to the timetable graph in {1} ms.",
+                new Object[] {voyageIds.size(), (System.nanoTime() - start) / 1_000_000});
+
+        return updated;
+    }
 }
@@ -0,0 +1,216 @@
+package org.eclipse.pathfinder.internal;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Yen's k shortest loopless paths over the timetable, ranked by arrival time and then by number of
+ * movements.
+ *
+ * <p>Every accepted path is used as a template: for each of its movements, the prefix before it is
+ * kept as root, the movements that accepted paths with the same root take next are banned, the
+ * root locations are closed, and an {@link EarliestArrivalSearch} spur search completes the path
+ * from there. The best spur found becomes the next accepted path. The arrival deadline is handed
+ * down to every spur search, so branches that cannot make it are never expanded. Excluded movements
+ * stay banned throughout, no accepted path uses them.
+ *
+ * <p>Not thread-safe, use one instance per request.
+ */
+public class KShortestPathSearch {
+
+    private final TimetableGraph graph;
+    private final EarliestArrivalSearch search;
+    private final boolean[] bannedEdges;
+    private final boolean[] bannedLocations;
+    private boolean excluding;
+
+    public KShortestPathSearch(TimetableGraph graph, Duration minimumTransshipmentTime) {
+        this.graph = graph;
+        this.search = new EarliestArrivalSearch(graph, minimumTransshipmentTime);
+        this.bannedEdges = new boolean[graph.edgeCount()];
+        this.bannedLocations = new boolean[graph.locationCount()];
+    }
+
+    public TimetableGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Keeps the movements of the voyage under way at some point between the two times out of the
+     * paths found from now on.
+     */
+    public void excludeVoyage(String voyageNumber, LocalDateTime from, LocalDateTime to) {
+        long start = TimetableGraph.toEpochSecond(from);
+        long end = TimetableGraph.toEpochSecond(to);
+
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            if (graph.departure(edge) < end
+                    && graph.arrival(edge) > start
+                    && graph.voyageNumber(edge).equals(voyageNumber)) {
+                bannedEdges[edge] = true;
+                excluding = true;
+            }
+        }
+    }
+
+    /**
+     * @param originUnLocode UN location code the cargo leaves from
+     * @param destinationUnLocode UN location code the cargo must reach
+     * @param earliestDeparture no movement departing before this time is used
+     * @param deadline the cargo must arrive before this time, may be null
+     * @param k maximum number of paths
+     * @return Up to k distinct loopless paths as edge arrays in travel order, best first.
+     */
+    public List<int[]> find(
+            String originUnLocode,
+            String destinationUnLocode,
+            LocalDateTime earliestDeparture,
+            LocalDateTime deadline,
+            int k) {
+        List<int[]> paths = new ArrayList<>();
+        find(originUnLocode, destinationUnLocode, earliestDeparture, deadline, k, paths::add);
+        return paths;
+    }
+
+    /**
+     * Hands every path to the consumer as soon as it is known to be the next best one, so callers
+     * can pass the first paths on while later ones are still searched for.
+     */
+    public void find(
+            String originUnLocode,
+            String destinationUnLocode,
+            LocalDateTime earliestDeparture,
+            LocalDateTime deadline,
+            int k,
+            Consumer<int[]> pathConsumer) {
+        int origin = graph.locationId(originUnLocode);
+        int destination = graph.locationId(destinationUnLocode);
+
+        if (origin < 0 || destination < 0 || origin == destination || k < 1) {
+            return;
+        }
+
+        long departure = TimetableGraph.toEpochSecond(earliestDeparture);
+        long arrivalLimit =
+                deadline == null
+                        ? EarliestArrivalSearch.NO_DEADLINE
+                        : TimetableGraph.toEpochSecond(deadline);
+
+        int[] first =
+                search.find(
+                        origin,
+                        departure,
+                        EarliestArrivalSearch.AT_ORIGIN,
+                        destination,
+                        arrivalLimit,
+                        excluding ? bannedEdges : null,
+                        null);
+
+        if (first.length == 0) {
+            return;
+        }
+
+        List<int[]> accepted = new ArrayList<>(k);
+        accepted.add(first);
+        pathConsumer.accept(first);
+
+        PriorityQueue<int[]> candidates = new PriorityQueue<>(pathOrder());
+        Set<Path> seen = new HashSet<>();
+        seen.add(new Path(first));
+
+        while (accepted.size() < k) {
+            int[] template = accepted.get(accepted.size() - 1);
+
+            for (int spur = 0; spur < template.length; spur++) {
+                ban(accepted, template, spur, true);
+
+                int[] spurPath =
+                        search.find(
+                                graph.source(template[spur]),
+                                departure,
+                                spur == 0 ? EarliestArrivalSearch.AT_ORIGIN : template[spur - 1],
+                                destination,
+                                arrivalLimit,
+                                bannedEdges,
+                                bannedLocations);
+
+                ban(accepted, template, spur, false);
+
+                if (spurPath.length > 0) {
+                    int[] candidate = Arrays.copyOf(template, spur + spurPath.length);
+                    System.arraycopy(spurPath, 0, candidate, spur, spurPath.length);
+
+                    if (isLoopless(candidate) && seen.add(new Path(candidate))) {
+                        candidates.add(candidate);
+                    }
+                }
+            }
+
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            int[] next = candidates.poll();
+            accepted.add(next);
+            pathConsumer.accept(next);
+        }
+    }
+
+    private void ban(List<int[]> accepted, int[] template, int spur, boolean banned) {
+        for (int[] path : accepted) {
+            if (path.length > spur && Arrays.equals(path, 0, spur, template, 0, spur)) {
+                bannedEdges[path[spur]] = banned;
+            }
+        }
+
+        for (int i = 0; i < spur; i++) {
+            bannedLocations[graph.source(template[i])] = banned;
+        }
+    }
+
+    private boolean isLoopless(int[] path) {
+        Set<Integer> visited = new HashSet<>();
+        visited.add(graph.source(path[0]));
+
+        for (int edge : path) {
+            if (!visited.add(graph.target(edge))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private Comparator<int[]> pathOrder() {
+        return Comparator.<int[]>comparingLong(path -> graph.arrival(path[path.length - 1]))
+                .thenComparingInt(path -> path.length);
+    }
+
+    /** Value wrapper so edge arrays can be de-duplicated in a set. */
+    private static class Path {
+
+        private final int[] edges;
+
+        Path(int[] edges) {
+            this.edges = edges;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Path && Arrays.equals(edges, ((Path) o).edges);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(edges);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package org.eclipse.pathfinder.internal;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Multi-criteria search for the paths no other path beats on every one of arrival time, number of
+ * carrier movements and number of transshipments.
+ *
+ * <p>Each search is a label-setting Dijkstra over movements. A label is one way of getting onto a
+ * movement, scored by the movements and transshipments so far, and a movement keeps every label
+ * not dominated by another one on it. Labels are settled in the same {@link TravelTimeBounds A*}
+ * order as the earliest arrival search, so complete paths are found in arrival order and a label
+ * that cannot beat them any more is dropped before it is queued.
+ *
+ * <p>The departures from the origin are divided into slices. Each slice is searched on the given
+ * executor with its own labels, except the last one, which is searched on the calling thread, and
+ * the fronts of the slices are merged into one. Instances only hold the immutable graph and can be
+ * shared between threads.
+ */
+public class ParetoPathSearch {
+
+    // Split the origin departures into about this many slices per worker, to balance the load.
+    private static final int SLICES_PER_WORKER = 4;
+
+    private final TimetableGraph graph;
+    private final long minimumTransshipmentSeconds;
+    private final Executor executor;
+    private final int parallelism;
+
+    /**
+     * @param executor runs the slices of a search, the searches do not block on each other
+     * @param parallelism number of threads of the executor a search may keep busy
+     */
+    public ParetoPathSearch(
+            TimetableGraph graph,
+            Duration minimumTransshipmentTime,
+            Executor executor,
+            int parallelism) {
+        this.graph = graph;
+        this.minimumTransshipmentSeconds = minimumTransshipmentTime.getSeconds();
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public TimetableGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @param originUnLocode UN location code the cargo leaves from
+     * @param destinationUnLocode UN location code the cargo must reach
+     * @param earliestDeparture no movement departing before this time is used
+     * @param deadline the cargo must arrive before this time, may be null
+     * @return One path for every distinct Pareto optimal score, by arrival, then by transshipments
+     *     and then by carrier movements.
+     */
+    public List<ScoredPath> find(
+            String originUnLocode,
+            String destinationUnLocode,
+            LocalDateTime earliestDeparture,
+            LocalDateTime deadline) {
+        int origin = graph.locationId(originUnLocode);
+        int destination = graph.locationId(destinationUnLocode);
+
+        if (origin < 0 || destination < 0 || origin == destination) {
+            return List.of();
+        }
+
+        int first = graph.firstDepartureAtOrAfter(origin, toEpochSecond(earliestDeparture));
+        int last = graph.lastEdge(origin);
+        long arrivalLimit =
+                deadline == null ? EarliestArrivalSearch.NO_DEADLINE : toEpochSecond(deadline);
+
+        if (first == last) {
+            return List.of();
+        }
+
+        int slices = Math.min(last - first, parallelism * SLICES_PER_WORKER);
+        List<CompletableFuture<List<ScoredPath>>> running = new ArrayList<>(slices - 1);
+
+        for (int slice = 0; slice < slices - 1; slice++) {
+            int from = first + slice * (last - first) / slices;
+            int to = first + (slice + 1) * (last - first) / slices;
+            running.add(
+                    CompletableFuture.supplyAsync(
+                            () -> new LabelSearch(destination, arrivalLimit).search(from, to),
+                            executor));
+        }
+
+        List<ScoredPath> front =
+                new LabelSearch(destination, arrivalLimit)
+                        .search(first + (slices - 1) * (last - first) / slices, last);
+        for (CompletableFuture<List<ScoredPath>> slice : running) {
+            front = merge(front, slice.join());
+        }
+
+        front.sort(scoreOrder());
+        return front;
+    }
+
+    /** @return The paths of both fronts that no path of the other one beats. */
+    private static List<ScoredPath> merge(List<ScoredPath> front, List<ScoredPath> other) {
+        List<ScoredPath> merged = new ArrayList<>(front.size() + other.size());
+
+        for (ScoredPath path : front) {
+            if (other.stream().noneMatch(o -> beats(o, path))) {
+                merged.add(path);
+            }
+        }
+        for (ScoredPath path : other) {
+            if (front.stream().noneMatch(f -> beats(f, path))) {
+                merged.add(path);
+            }
+        }
+
+        return merged;
+    }
+
+    private static boolean beats(ScoredPath path, ScoredPath other) {
+        if (!path.dominates(other)) {
+            return false;
+        }
+
+        return !other.dominates(path) || path.preferredOver(other);
+    }
+
+    private static long toEpochSecond(LocalDateTime time) {
+        return TimetableGraph.toEpochSecond(time);
+    }
+
+    private static Comparator<ScoredPath> scoreOrder() {
+        return Comparator.comparingLong(ScoredPath::getArrival)
+                .thenComparingInt(ScoredPath::getTransshipments)
+                .thenComparingInt(ScoredPath::getCarrierMovements);
+    }
+
+    /** A complete path with its score. */
+    public static class ScoredPath {
+
+        private final int[] edges;
+        private final long arrival;
+        private final int transshipments;
+
+        ScoredPath(int[] edges, long arrival, int transshipments) {
+            this.edges = edges;
+            this.arrival = arrival;
+            this.transshipments = transshipments;
+        }
+
+        /** @return The movements in travel order. */
+        public int[] getEdges() {
+            return edges;
+        }
+
+        /** @return The arrival at the destination, in epoch seconds. */
+        public long getArrival() {
+            return arrival;
+        }
+
+        public int getCarrierMovements() {
+            return edges.length;
+        }
+
+        public int getTransshipments() {
+            return transshipments;
+        }
+
+        boolean dominates(ScoredPath other) {
+            return arrival <= other.arrival
+                    && getCarrierMovements() <= other.getCarrierMovements()
+                    && transshipments <= other.transshipments;
+        }
+
+        /**
+         * Of two paths with the same score, the one leaving last waits the least. Edges leaving the
+         * origin are numbered in departure order.
+         */
+        boolean preferredOver(ScoredPath other) {
+            return edges[0] != other.edges[0]
+                    ? edges[0] > other.edges[0]
+                    : Arrays.compare(edges, other.edges) < 0;
+        }
+    }
+
+    /** One way of getting onto a movement. */
+    private static class Label {
+
+        private final int edge;
+        private final int movements;
+        private final int transshipments;
+        private final long priority;
+        private final Label previous;
+        // The departure from the origin, the last one is preferred on equal scores.
+        private final int firstEdge;
+        // Next label on the same movement.
+        private Label sibling;
+        private boolean dominated;
+
+        Label(int edge, int movements, int transshipments, long priority, Label previous) {
+            this.edge = edge;
+            this.movements = movements;
+            this.transshipments = transshipments;
+            this.priority = priority;
+            this.previous = previous;
+            this.firstEdge = previous == null ? edge : previous.firstEdge;
+        }
+
+        boolean covers(int otherMovements, int otherTransshipments) {
+            return movements <= otherMovements && transshipments <= otherTransshipments;
+        }
+    }
+
+    /** The search state of one slice. */
+    private class LabelSearch {
+
+        private final int destination;
+        private final long deadline;
+        private final long[] remaining;
+
+        private final Label[] labels = new Label[graph.edgeCount()];
+        // Scores of the labels that already looked for transshipments, per location.
+        private final List<List<int[]>> transferScans;
+        private final List<ScoredPath> front = new ArrayList<>();
+        private final PriorityQueue<Label> queue =
+                new PriorityQueue<>(
+                        Comparator.<Label>comparingLong(label -> label.priority)
+                                .thenComparingInt(label -> label.movements)
+                                .thenComparingInt(label -> label.transshipments)
+                                .thenComparingInt(label -> -label.firstEdge));
+
+        LabelSearch(int destination, long deadline) {
+            this.destination = destination;
+            this.deadline = deadline;
+            this.remaining = graph.travelTimeBounds().toDestination(destination);
+            this.transferScans = new ArrayList<>(Collections.nCopies(graph.locationCount(), null));
+        }
+
+        List<ScoredPath> search(int firstDeparture, int lastDeparture) {
+            for (int edge = firstDeparture; edge < lastDeparture; edge++) {
+                reach(edge, 1, 0, null);
+            }
+
+            while (!queue.isEmpty()) {
+                Label label = queue.poll();
+
+                if (label.dominated) {
+                    continue;
+                }
+
+                if (graph.target(label.edge) == destination) {
+                    // Paths are settled in arrival order, so only the other two criteria decide.
+                    if (front.stream()
+                            .noneMatch(
+                                    path ->
+                                            path.getCarrierMovements() <= label.movements
+                                                    && path.transshipments
+                                                            <= label.transshipments)) {
+                        front.add(toScoredPath(label));
+                    }
+                } else {
+                    expand(label);
+                }
+            }
+
+            return front;
+        }
+
+        private void expand(Label label) {
+            int location = graph.target(label.edge);
+            long arrival = graph.arrival(label.edge);
+            long transshipmentReady = arrival + minimumTransshipmentSeconds;
+            int voyage = graph.voyage(label.edge);
+
+            // Labels are settled in arrival order per location, so an earlier one with no more
+            // movements and transshipments has already made every transshipment this one could.
+            boolean transfer = !hasTransferred(location, label);
+            if (transfer) {
+                if (transferScans.get(location) == null) {
+                    transferScans.set(location, new ArrayList<>());
+                }
+                transferScans
+                        .get(location)
+                        .add(new int[] {label.movements, label.transshipments});
+            }
+
+            for (int next = graph.firstDepartureAtOrAfter(location, arrival);
+                    next < graph.lastEdge(location);
+                    next++) {
+                if (graph.voyage(next) == voyage) {
+                    reach(next, label.movements + 1, label.transshipments, label);
+                } else if (transfer && graph.departure(next) >= transshipmentReady) {
+                    reach(next, label.movements + 1, label.transshipments + 1, label);
+                }
+            }
+        }
+
+        private boolean hasTransferred(int location, Label label) {
+            List<int[]> scans = transferScans.get(location);
+            if (scans == null) {
+                return false;
+            }
+
+            return scans.stream()
+                    .anyMatch(
+                            scan -> scan[0] <= label.movements && scan[1] <= label.transshipments);
+        }
+
+        private void reach(int edge, int movements, int transshipments, Label previous) {
+            int target = graph.target(edge);
+            long remainingSeconds = remaining[target];
+
+            if (remainingSeconds == TravelTimeBounds.UNREACHABLE
+                    || graph.arrival(edge) + remainingSeconds >= deadline) {
+                return;
+            }
+
+            // The best any continuation can score, dropped if a path found already scores at
+            // least as well.
+            long leastArrival = graph.arrival(edge) + remainingSeconds;
+            int leastMovements = target == destination ? movements : movements + 1;
+            for (ScoredPath path : front) {
+                if (path.arrival <= leastArrival
+                        && path.getCarrierMovements() <= leastMovements
+                        && path.transshipments <= transshipments) {
+                    return;
+                }
+            }
+
+            for (Label other = labels[edge]; other != null; other = other.sibling) {
+                if (!other.dominated && other.covers(movements, transshipments)) {
+                    return;
+                }
+            }
+            for (Label other = labels[edge]; other != null; other = other.sibling) {
+                if (!other.dominated && other.movements >= movements
+                        && other.transshipments >= transshipments) {
+                    other.dominated = true;
+                }
+            }
+
+            Label label = new Label(edge, movements, transshipments, leastArrival, previous);
+            label.sibling = labels[edge];
+            labels[edge] = label;
+            queue.add(label);
+        }
+
+        private ScoredPath toScoredPath(Label label) {
+            int[] edges = new int[label.movements];
+            for (Label step = label; step != null; step = step.previous) {
+                edges[step.movements - 1] = step.edge;
+            }
+
+            return new ScoredPath(edges, graph.arrival(label.edge), label.transshipments);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.eclipse.pathfinder.internal;
+
+import java.io.Serializable;
+
+/**
+ * A committed write to a voyage or one of its carrier movements. The path-finder does not share
+ * the domain model, so the entity is only known by its name and identifier.
+ */
+public class TimetableChange implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String entityName;
+    private final Object id;
+
+    public TimetableChange(String entityName, Object id) {
+        this.entityName = entityName;
+        this.id = id;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    public Object getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return entityName + " " + id;
+    }
+}
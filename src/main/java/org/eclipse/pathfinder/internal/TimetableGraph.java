@@ -0,0 +1,480 @@
+package org.eclipse.pathfinder.internal;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The voyage timetable arranged as a directed graph, in compressed sparse row form.
+ *
+ * <p>UN location codes and voyage numbers are interned to dense int ids. Every scheduled carrier
+ * movement is an edge, and the edges leaving a location occupy the index range {@code
+ * [firstEdge(location), lastEdge(location))} of the primitive edge arrays, ordered by departure
+ * time. Times are kept as epoch seconds, so a search never allocates per edge.
+ *
+ * <p>A graph is immutable once built and can be shared between concurrent searches. Building it
+ * also prepares its {@link TravelTimeBounds}. Schedule changes are applied with an {@link Update},
+ * which copies the graph with the movements of some voyages replaced, while searches carry on with
+ * the graph they started with.
+ */
+public class TimetableGraph {
+
+    private final String[] locations;
+    private final Map<String, Integer> locationIds;
+    private final String[] voyages;
+
+    private final int[] offsets;
+    private final int[] sources;
+    private final int[] targets;
+    private final int[] voyageIds;
+    private final long[] departures;
+    private final long[] arrivals;
+
+    private final TravelTimeBounds travelTimeBounds;
+
+    private TimetableGraph(
+            String[] locations,
+            Map<String, Integer> locationIds,
+            String[] voyages,
+            int[] offsets,
+            int[] sources,
+            int[] targets,
+            int[] voyageIds,
+            long[] departures,
+            long[] arrivals,
+            TravelTimeBounds travelTimeBounds) {
+        this.locations = locations;
+        this.locationIds = locationIds;
+        this.voyages = voyages;
+        this.offsets = offsets;
+        this.sources = sources;
+        this.targets = targets;
+        this.voyageIds = voyageIds;
+        this.departures = departures;
+        this.arrivals = arrivals;
+        this.travelTimeBounds =
+                travelTimeBounds != null ? travelTimeBounds : new TravelTimeBounds(this);
+    }
+
+    public static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * @return The id of the location, or -1 if no movement touches it.
+     */
+    public int locationId(String unLocode) {
+        return locationIds.getOrDefault(unLocode, -1);
+    }
+
+    public String unLocode(int location) {
+        return locations[location];
+    }
+
+    public int locationCount() {
+        return locations.length;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public int firstEdge(int location) {
+        return offsets[location];
+    }
+
+    public int lastEdge(int location) {
+        return offsets[location + 1];
+    }
+
+    /**
+     * @return The first edge leaving the location at or after the given time, or {@link
+     *     #lastEdge(int)} if there is none.
+     */
+    public int firstDepartureAtOrAfter(int location, long epochSecond) {
+        int low = offsets[location];
+        int high = offsets[location + 1];
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (departures[middle] < epochSecond) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    public int source(int edge) {
+        return sources[edge];
+    }
+
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    public int voyage(int edge) {
+        return voyageIds[edge];
+    }
+
+    public String voyageNumber(int edge) {
+        return voyages[voyageIds[edge]];
+    }
+
+    public long departure(int edge) {
+        return departures[edge];
+    }
+
+    public long arrival(int edge) {
+        return arrivals[edge];
+    }
+
+    /** @return The lower bound index prepared along with this graph. */
+    public TravelTimeBounds travelTimeBounds() {
+        return travelTimeBounds;
+    }
+
+    /** @return An update of this graph, which is left as it is. */
+    public Update update() {
+        return new Update(this);
+    }
+
+    /** Collects carrier movements into growable primitive arrays, then lays them out as CSR. */
+    public static class Builder {
+
+        private final Map<String, Integer> locationIds = new HashMap<>();
+        private final Map<String, Integer> voyageIds = new HashMap<>();
+
+        private int size;
+        private int[] sources = new int[64];
+        private int[] targets = new int[64];
+        private int[] voyages = new int[64];
+        private long[] departures = new long[64];
+        private long[] arrivals = new long[64];
+
+        public Builder addMovement(
+                String voyageNumber,
+                String fromUnLocode,
+                String toUnLocode,
+                LocalDateTime departureTime,
+                LocalDateTime arrivalTime) {
+            if (size == targets.length) {
+                int capacity = size * 2;
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                voyages = Arrays.copyOf(voyages, capacity);
+                departures = Arrays.copyOf(departures, capacity);
+                arrivals = Arrays.copyOf(arrivals, capacity);
+            }
+
+            sources[size] = intern(locationIds, fromUnLocode);
+            targets[size] = intern(locationIds, toUnLocode);
+            voyages[size] = intern(voyageIds, voyageNumber);
+            departures[size] = toEpochSecond(departureTime);
+            arrivals[size] = toEpochSecond(arrivalTime);
+            size++;
+
+            return this;
+        }
+
+        public TimetableGraph build() {
+            int locationCount = locationIds.size();
+
+            // Counting sort of the edges by departure location.
+            int[] offsets = new int[locationCount + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[sources[i] + 1]++;
+            }
+            for (int location = 0; location < locationCount; location++) {
+                offsets[location + 1] += offsets[location];
+            }
+
+            int[] order = new int[size];
+            int[] next = Arrays.copyOf(offsets, locationCount);
+            for (int i = 0; i < size; i++) {
+                order[next[sources[i]]++] = i;
+            }
+
+            // Within a location, order by departure. Departure offset and edge index are packed
+            // into a single long so a primitive sort can be used.
+            long base = Long.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                base = Math.min(base, departures[i]);
+            }
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = ((departures[order[i]] - base) << 32) | order[i];
+            }
+            for (int location = 0; location < locationCount; location++) {
+                Arrays.sort(keys, offsets[location], offsets[location + 1]);
+            }
+
+            int[] sortedSources = new int[size];
+            int[] sortedTargets = new int[size];
+            int[] sortedVoyages = new int[size];
+            long[] sortedDepartures = new long[size];
+            long[] sortedArrivals = new long[size];
+            for (int i = 0; i < size; i++) {
+                int edge = (int) keys[i];
+                sortedSources[i] = sources[edge];
+                sortedTargets[i] = targets[edge];
+                sortedVoyages[i] = voyages[edge];
+                sortedDepartures[i] = departures[edge];
+                sortedArrivals[i] = arrivals[edge];
+            }
+
+            return new TimetableGraph(
+                    toArray(locationIds),
+                    new HashMap<>(locationIds),
+                    toArray(voyageIds),
+                    offsets,
+                    sortedSources,
+                    sortedTargets,
+                    sortedVoyages,
+                    sortedDepartures,
+                    sortedArrivals,
+                    null);
+        }
+
+        private static int intern(Map<String, Integer> ids, String value) {
+            return ids.computeIfAbsent(value, key -> ids.size());
+        }
+
+        private static String[] toArray(Map<String, Integer> ids) {
+            String[] values = new String[ids.size()];
+            ids.forEach((value, id) -> values[id] = value);
+            return values;
+        }
+    }
+
+    /**
+     * Replaces the movements of some voyages, and adds new voyages, without rebuilding the graph.
+     * The edge arrays are copied location by location, and only the locations a replaced or added
+     * movement departs from are merged anew. Location and voyage ids stay as they were, new ones
+     * are appended.
+     *
+     * <p>The travel time bounds are kept, with their computed distances, as long as no new link or
+     * faster movement is added. Bounds that only got looser by removed movements still never
+     * overestimate.
+     */
+    public static class Update {
+
+        private final TimetableGraph graph;
+        private final Set<String> replacedVoyages = new HashSet<>();
+        private final List<Movement> movements = new ArrayList<>();
+
+        private Update(TimetableGraph graph) {
+            this.graph = graph;
+        }
+
+        /** Drops all movements of the voyage, a cancelled voyage gets no new ones. */
+        public Update replaceVoyage(String voyageNumber) {
+            replacedVoyages.add(voyageNumber);
+            return this;
+        }
+
+        public Update addMovement(
+                String voyageNumber,
+                String fromUnLocode,
+                String toUnLocode,
+                LocalDateTime departureTime,
+                LocalDateTime arrivalTime) {
+            movements.add(
+                    new Movement(
+                            voyageNumber,
+                            fromUnLocode,
+                            toUnLocode,
+                            toEpochSecond(departureTime),
+                            toEpochSecond(arrivalTime)));
+            return this;
+        }
+
+        public TimetableGraph apply() {
+            Map<String, Integer> locationIds = new HashMap<>(graph.locationIds);
+            Map<String, Integer> voyageIds = new HashMap<>();
+            for (int voyage = 0; voyage < graph.voyages.length; voyage++) {
+                voyageIds.put(graph.voyages[voyage], voyage);
+            }
+
+            boolean[] replaced = new boolean[graph.voyages.length];
+            for (String voyageNumber : replacedVoyages) {
+                Integer voyage = voyageIds.get(voyageNumber);
+                if (voyage != null) {
+                    replaced[voyage] = true;
+                }
+            }
+
+            int added = movements.size();
+            int[] addedSources = new int[added];
+            int[] addedTargets = new int[added];
+            int[] addedVoyages = new int[added];
+            for (int i = 0; i < added; i++) {
+                Movement movement = movements.get(i);
+                addedSources[i] = Builder.intern(locationIds, movement.fromUnLocode);
+                addedTargets[i] = Builder.intern(locationIds, movement.toUnLocode);
+                addedVoyages[i] = Builder.intern(voyageIds, movement.voyageNumber);
+            }
+
+            int oldLocationCount = graph.locationCount();
+            int locationCount = locationIds.size();
+
+            // The added movements by departure location, then departure.
+            Integer[] addedOrder = new Integer[added];
+            for (int i = 0; i < added; i++) {
+                addedOrder[i] = i;
+            }
+            Arrays.sort(
+                    addedOrder,
+                    (a, b) ->
+                            addedSources[a] != addedSources[b]
+                                    ? Integer.compare(addedSources[a], addedSources[b])
+                                    : Long.compare(
+                                            movements.get(a).departure,
+                                            movements.get(b).departure));
+
+            int[] removedFrom = new int[oldLocationCount];
+            int[] offsets = new int[locationCount + 1];
+            for (int edge = 0; edge < graph.edgeCount(); edge++) {
+                if (replaced[graph.voyageIds[edge]]) {
+                    removedFrom[graph.sources[edge]]++;
+                }
+            }
+            for (int location = 0; location < oldLocationCount; location++) {
+                int runLength = graph.lastEdge(location) - graph.firstEdge(location);
+                offsets[location + 1] = runLength - removedFrom[location];
+            }
+            for (int i = 0; i < added; i++) {
+                offsets[addedSources[i] + 1]++;
+            }
+            for (int location = 0; location < locationCount; location++) {
+                offsets[location + 1] += offsets[location];
+            }
+
+            int size = offsets[locationCount];
+            int[] sources = new int[size];
+            int[] targets = new int[size];
+            int[] voyages = new int[size];
+            long[] departures = new long[size];
+            long[] arrivals = new long[size];
+            int next = 0;
+            int addedNext = 0;
+
+            for (int location = 0; location < locationCount; location++) {
+                int edge = location < oldLocationCount ? graph.firstEdge(location) : 0;
+                int lastEdge = location < oldLocationCount ? graph.lastEdge(location) : 0;
+                int to = offsets[location + 1];
+
+                // Untouched locations keep their run as it is.
+                if (location < oldLocationCount
+                        && removedFrom[location] == 0
+                        && to - offsets[location] == lastEdge - edge) {
+                    int length = lastEdge - edge;
+                    System.arraycopy(graph.sources, edge, sources, next, length);
+                    System.arraycopy(graph.targets, edge, targets, next, length);
+                    System.arraycopy(graph.voyageIds, edge, voyages, next, length);
+                    System.arraycopy(graph.departures, edge, departures, next, length);
+                    System.arraycopy(graph.arrivals, edge, arrivals, next, length);
+                    next += length;
+                    continue;
+                }
+
+                // Otherwise the kept and the added movements are merged by departure.
+                while (next < to) {
+                    while (edge < lastEdge && replaced[graph.voyageIds[edge]]) {
+                        edge++;
+                    }
+                    Movement movement = null;
+                    int addedIndex = -1;
+                    if (addedNext < added && addedSources[addedOrder[addedNext]] == location) {
+                        addedIndex = addedOrder[addedNext];
+                        movement = movements.get(addedIndex);
+                    }
+
+                    if (movement == null
+                            || (edge < lastEdge && graph.departures[edge] <= movement.departure)) {
+                        sources[next] = graph.sources[edge];
+                        targets[next] = graph.targets[edge];
+                        voyages[next] = graph.voyageIds[edge];
+                        departures[next] = graph.departures[edge];
+                        arrivals[next] = graph.arrivals[edge];
+                        edge++;
+                    } else {
+                        sources[next] = location;
+                        targets[next] = addedTargets[addedIndex];
+                        voyages[next] = addedVoyages[addedIndex];
+                        departures[next] = movement.departure;
+                        arrivals[next] = movement.arrival;
+                        addedNext++;
+                    }
+                    next++;
+                }
+            }
+
+            return new TimetableGraph(
+                    Builder.toArray(locationIds),
+                    locationIds,
+                    Builder.toArray(voyageIds),
+                    offsets,
+                    sources,
+                    targets,
+                    voyages,
+                    departures,
+                    arrivals,
+                    keepsBounds(locationCount, addedSources, addedTargets)
+                            ? graph.travelTimeBounds
+                            : null);
+        }
+
+        private boolean keepsBounds(int locationCount, int[] addedSources, int[] addedTargets) {
+            if (locationCount != graph.locationCount()) {
+                return false;
+            }
+
+            for (int i = 0; i < movements.size(); i++) {
+                Movement movement = movements.get(i);
+                if (!graph.travelTimeBounds.covers(
+                        addedSources[i],
+                        addedTargets[i],
+                        Math.max(0, movement.arrival - movement.departure))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    private static class Movement {
+
+        private final String voyageNumber;
+        private final String fromUnLocode;
+        private final String toUnLocode;
+        private final long departure;
+        private final long arrival;
+
+        Movement(
+                String voyageNumber,
+                String fromUnLocode,
+                String toUnLocode,
+                long departure,
+                long arrival) {
+            this.voyageNumber = voyageNumber;
+            this.fromUnLocode = fromUnLocode;
+            this.toUnLocode = toUnLocode;
+            this.departure = departure;
+            this.arrival = arrival;
+        }
+    }
+}
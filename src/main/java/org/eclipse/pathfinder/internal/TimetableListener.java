@@ -0,0 +1,28 @@
+package org.eclipse.pathfinder.internal;
+
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Tells the path-finder about every write to a voyage or carrier movement, so that it can update
+ * its timetable graph once the write is committed. Registered in META-INF/orm.xml next to the
+ * listener of the core application.
+ */
+public class TimetableListener {
+
+    @Inject private GraphDao graphDao;
+
+    @Inject private Event<TimetableChange> timetableChanged;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        timetableChanged.fire(
+                new TimetableChange(
+                        entity.getClass().getSimpleName(), graphDao.identifierOf(entity)));
+    }
+}
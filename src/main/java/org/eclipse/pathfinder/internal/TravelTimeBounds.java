@@ -0,0 +1,164 @@
+package org.eclipse.pathfinder.internal;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Lower bounds on the time still needed to reach a destination, used to direct and prune the
+ * timetable searches.
+ *
+ * <p>When a snapshot is built, the timetable is condensed into links between locations, each
+ * weighted by the shortest movement on it. Waiting and transshipment are ignored, so the shortest
+ * distance over these links to a destination never overestimates the real remaining travel time,
+ * and it satisfies the triangle inequality over every movement. Adding it to the arrival time of a
+ * movement gives an A* key that still settles the earliest arrival first, and any movement that
+ * cannot reach the destination before the deadline even on the fastest links is pruned.
+ *
+ * <p>Distances are computed per destination on first use, with one Dijkstra over the reversed
+ * links, and kept for the most recently queried destinations. Instances belong to one immutable
+ * graph snapshot and are thread-safe.
+ */
+public class TravelTimeBounds {
+
+    /** Distance of locations the destination cannot be reached from. */
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private static final int MAX_CACHED_DESTINATIONS = 256;
+
+    // Reversed links in CSR form: the links into location v are [offsets[v], offsets[v + 1]).
+    private final int[] offsets;
+    private final int[] linkSources;
+    private final long[] linkSeconds;
+
+    private final Map<Integer, long[]> distancesByDestination =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, long[]> eldest) {
+                    return size() > MAX_CACHED_DESTINATIONS;
+                }
+            };
+
+    TravelTimeBounds(TimetableGraph graph) {
+        int locationCount = graph.locationCount();
+        int edgeCount = graph.edgeCount();
+
+        // Group the movements by arrival location.
+        int[] incoming = new int[locationCount + 1];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            incoming[graph.target(edge) + 1]++;
+        }
+        for (int location = 0; location < locationCount; location++) {
+            incoming[location + 1] += incoming[location];
+        }
+        int[] byTarget = new int[edgeCount];
+        int[] next = Arrays.copyOf(incoming, locationCount);
+        for (int edge = 0; edge < edgeCount; edge++) {
+            byTarget[next[graph.target(edge)]++] = edge;
+        }
+
+        // Collapse the movements between the same two locations into one link.
+        offsets = new int[locationCount + 1];
+        int[] sources = new int[edgeCount];
+        long[] seconds = new long[edgeCount];
+        int[] linkOfSource = new int[locationCount];
+        int[] seenForTarget = new int[locationCount];
+        Arrays.fill(seenForTarget, -1);
+        int links = 0;
+
+        for (int target = 0; target < locationCount; target++) {
+            offsets[target] = links;
+            for (int i = incoming[target]; i < incoming[target + 1]; i++) {
+                int edge = byTarget[i];
+                int source = graph.source(edge);
+                long duration = Math.max(0, graph.arrival(edge) - graph.departure(edge));
+
+                if (seenForTarget[source] != target) {
+                    seenForTarget[source] = target;
+                    linkOfSource[source] = links;
+                    sources[links] = source;
+                    seconds[links] = duration;
+                    links++;
+                } else {
+                    seconds[linkOfSource[source]] =
+                            Math.min(seconds[linkOfSource[source]], duration);
+                }
+            }
+        }
+        offsets[locationCount] = links;
+
+        linkSources = Arrays.copyOf(sources, links);
+        linkSeconds = Arrays.copyOf(seconds, links);
+    }
+
+    /**
+     * @return Whether a movement from source to target taking the given seconds is no faster than
+     *     the link these bounds already have for it, so they would stay valid with it added.
+     */
+    boolean covers(int source, int target, long seconds) {
+        for (int link = offsets[target]; link < offsets[target + 1]; link++) {
+            if (linkSources[link] == source) {
+                return linkSeconds[link] <= seconds;
+            }
+        }
+
+        return false;
+    }
+
+    public int linkCount() {
+        return linkSources.length;
+    }
+
+    /**
+     * @return For every location id, the least number of seconds needed to get to the
+     *     destination, or {@link #UNREACHABLE}. The array is shared and must not be modified.
+     */
+    public long[] toDestination(int destination) {
+        synchronized (distancesByDestination) {
+            long[] distances = distancesByDestination.get(destination);
+            if (distances != null) {
+                return distances;
+            }
+        }
+
+        // Computed outside the lock, a concurrent miss for the same destination just computes
+        // the same array twice.
+        long[] distances = computeDistances(destination);
+
+        synchronized (distancesByDestination) {
+            distancesByDestination.put(destination, distances);
+        }
+
+        return distances;
+    }
+
+    private long[] computeDistances(int destination) {
+        long[] distances = new long[offsets.length - 1];
+        Arrays.fill(distances, UNREACHABLE);
+        distances[destination] = 0;
+
+        // Entries are {distance, location}, stale ones are skipped when polled.
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        queue.add(new long[] {0, destination});
+
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int location = (int) entry[1];
+            if (entry[0] > distances[location]) {
+                continue;
+            }
+
+            for (int link = offsets[location]; link < offsets[location + 1]; link++) {
+                int source = linkSources[link];
+                long distance = entry[0] + linkSeconds[link];
+                if (distance < distances[source]) {
+                    distances[source] = distance;
+                    queue.add(new long[] {distance, source});
+                }
+            }
+        }
+
+        return distances;
+    }
+}
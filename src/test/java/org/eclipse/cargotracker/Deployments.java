@@ -10,6 +10,7 @@ import org.eclipse.cargotracker.domain.model.location.Location;
 import org.eclipse.cargotracker.domain.model.location.LocationRepository;
 import org.eclipse.cargotracker.domain.model.location.UnLocode;
 import org.eclipse.cargotracker.domain.model.voyage.*;
+import org.eclipse.cargotracker.domain.service.NetworkReachability;
 import org.eclipse.cargotracker.domain.service.RoutingService;
 import org.eclipse.cargotracker.domain.shared.*;
 import org.eclipse.cargotracker.infrastructure.events.cdi.CargoInspected;
@@ -20,10 +21,14 @@ import org.eclipse.cargotracker.infrastructure.persistence.jpa.JpaCargoRepositor
 import org.eclipse.cargotracker.infrastructure.persistence.jpa.JpaHandlingEventRepository;
 import org.eclipse.cargotracker.infrastructure.persistence.jpa.JpaLocationRepository;
 import org.eclipse.cargotracker.infrastructure.persistence.jpa.JpaVoyageRepository;
+import org.eclipse.cargotracker.infrastructure.persistence.jpa.ReferenceDataRegistry;
 import org.eclipse.cargotracker.infrastructure.routing.ExternalRoutingService;
 import org.eclipse.pathfinder.api.GraphTraversalService;
+import org.eclipse.pathfinder.api.PathScore;
+import org.eclipse.pathfinder.api.ShortestPathQuery;
 import org.eclipse.pathfinder.api.TransitEdge;
 import org.eclipse.pathfinder.api.TransitPath;
+import org.eclipse.pathfinder.api.VoyageExclusion;
 import org.eclipse.pathfinder.internal.GraphDao;
 import org.jboss.shrinkwrap.api.spec.WebArchive;
 import org.jboss.shrinkwrap.resolver.api.maven.Maven;
@@ -59,7 +64,8 @@ public class Deployments {
                 .addClass(JpaCargoRepository.class)
                 .addClass(JpaVoyageRepository.class)
                 .addClass(JpaHandlingEventRepository.class)
-                .addClass(JpaLocationRepository.class);
+                .addClass(JpaLocationRepository.class)
+                .addClass(ReferenceDataRegistry.class);
     }
 
     public static void addApplicationBase(WebArchive war) {
@@ -88,11 +94,15 @@ public class Deployments {
                 // voyage
                 .addClass(Voyage.class)
                 .addClass(VoyageNumber.class)
+                .addClass(VoyageDisruption.class)
                 .addClass(Schedule.class)
                 .addClass(CarrierMovement.class)
 
                 // cargo models
                 .addClass(Cargo.class)
+                .addClass(CargoFetchPlan.class)
+                .addClass(CargoFilter.class)
+                .addClass(CargoSummary.class)
                 .addClass(Delivery.class)
                 .addClass(HandlingActivity.class)
                 .addClass(Itinerary.class)
@@ -130,14 +140,18 @@ public class Deployments {
     }
 
     public static void addDomainService(WebArchive war) {
-        war.addClass(RoutingService.class);
+        war.addClass(RoutingService.class).addClass(NetworkReachability.class);
     }
 
     public static void addGraphTraversalModels(WebArchive war) {
-        war.addClass(TransitPath.class).addClass(TransitEdge.class);
+        war.addClass(TransitPath.class)
+                .addClass(TransitEdge.class)
+                .addClass(ShortestPathQuery.class)
+                .addClass(PathScore.class)
+                .addClass(VoyageExclusion.class);
     }
 
     public static void addGraphTraversalService(WebArchive war) {
-        war.addClass(GraphTraversalService.class).addClass(GraphDao.class);
+        war.addClass(GraphTraversalService.class).addPackage(GraphDao.class.getPackage());
     }
 }
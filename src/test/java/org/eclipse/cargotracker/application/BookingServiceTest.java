@@ -11,8 +11,19 @@ import org.eclipse.cargotracker.domain.model.location.UnLocode;
 import org.eclipse.cargotracker.domain.model.voyage.SampleVoyages;
 import org.eclipse.cargotracker.domain.model.voyage.Voyage;
 import org.eclipse.cargotracker.infrastructure.routing.ExternalRoutingService;
+import org.eclipse.cargotracker.infrastructure.routing.InProcessRoutingService;
+import org.eclipse.cargotracker.infrastructure.routing.ReachabilityMatrix;
+import org.eclipse.cargotracker.infrastructure.routing.RouteCandidateCache;
+import org.eclipse.cargotracker.infrastructure.routing.RoutingServiceProducer;
+import org.eclipse.cargotracker.infrastructure.routing.TransitPathTranslator;
+import org.eclipse.cargotracker.infrastructure.routing.VoyageNetworkReachability;
 import org.eclipse.cargotracker.infrastructure.routing.client.GraphTraversalResourceClient;
+import org.eclipse.cargotracker.infrastructure.routing.table.RouteTable;
+import org.eclipse.cargotracker.infrastructure.routing.table.RouteTableEdge;
+import org.eclipse.cargotracker.infrastructure.routing.table.RouteTableEntry;
 import org.eclipse.pathfinder.api.GraphTraversalService;
+import org.eclipse.pathfinder.api.PathScore;
+import org.eclipse.pathfinder.api.ShortestPathQuery;
 import org.eclipse.pathfinder.api.TransitEdge;
 import org.eclipse.pathfinder.api.TransitPath;
 import org.eclipse.pathfinder.internal.GraphDao;
@@ -75,19 +86,32 @@ public class BookingServiceTest {
         addApplicationBase(war);
 
         // add target BookingService for test
-        war.addClass(BookingService.class).addClass(DefaultBookingService.class);
+        war.addClass(BookingService.class)
+                .addClass(DefaultBookingService.class)
+                .addClass(UnservedLaneException.class);
 
         addDomainService(war);
         war.addClass(ExternalRoutingService.class)
-                .addClass(GraphTraversalResourceClient.class)
+                .addClass(InProcessRoutingService.class)
+                .addClass(RoutingServiceProducer.class)
+                .addClass(TransitPathTranslator.class)
+                .addClass(RouteCandidateCache.class)
+                .addClass(VoyageNetworkReachability.class)
+                .addClass(ReachabilityMatrix.class)
+                .addClass(RouteTable.class)
+                .addClass(RouteTableEntry.class)
+                .addClass(RouteTableEdge.class)
+                .addPackage(GraphTraversalResourceClient.class.getPackage())
 
                 // .addClass(JsonMoxyConfigurationContextResolver.class)
                 // Interface components
                 .addClass(TransitPath.class)
                 .addClass(TransitEdge.class)
+                .addClass(ShortestPathQuery.class)
+                .addClass(PathScore.class)
                 // Third-party system simulator
                 .addClass(GraphTraversalService.class)
-                .addClass(GraphDao.class)
+                .addPackage(GraphDao.class.getPackage())
                 // Sample data.
                 .addClass(BookingServiceTestDataGenerator.class)
                 .addClass(SampleLocations.class)
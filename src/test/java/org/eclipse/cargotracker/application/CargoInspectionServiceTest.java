@@ -19,6 +19,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 public class CargoInspectionServiceTest {
@@ -46,11 +47,13 @@ public class CargoInspectionServiceTest {
 
     @Test
     public void testCargoIsNull() {
-        when(cargoRepository.find(any(TrackingId.class))).thenReturn(null);
+        when(cargoRepository.find(any(TrackingId.class), eq(CargoFetchPlan.INSPECTION)))
+                .thenReturn(null);
 
         service.inspectCargo(new TrackingId("ABC123"));
 
-        verify(cargoRepository, times(1)).find(any(TrackingId.class));
+        verify(cargoRepository, times(1))
+                .find(any(TrackingId.class), eq(CargoFetchPlan.INSPECTION));
         verifyNoMoreInteractions(cargoRepository);
         verifyNoInteractions(applicationEvents, handlingEventRepository, cargoEvent);
     }
@@ -62,7 +65,8 @@ public class CargoInspectionServiceTest {
                         new TrackingId("ABC"),
                         new RouteSpecification(
                                 SampleLocations.DALLAS, SampleLocations.HONGKONG, LocalDate.now()));
-        when(cargoRepository.find(any(TrackingId.class))).thenReturn(cargo);
+        when(cargoRepository.find(any(TrackingId.class), eq(CargoFetchPlan.INSPECTION)))
+                .thenReturn(cargo);
         when(handlingEventRepository.lookupHandlingHistoryOfCargo(any(TrackingId.class)))
                 .thenReturn(new HandlingHistory(Collections.emptyList()));
         doNothing().when(applicationEvents).cargoWasMisdirected(any(Cargo.class));
@@ -72,7 +76,8 @@ public class CargoInspectionServiceTest {
 
         service.inspectCargo(new TrackingId("ABC123"));
 
-        verify(cargoRepository, times(1)).find(any(TrackingId.class));
+        verify(cargoRepository, times(1))
+                .find(any(TrackingId.class), eq(CargoFetchPlan.INSPECTION));
         verify(cargoRepository, times(1)).store(any(Cargo.class));
         verify(cargoEvent, times(1)).fire(any(Cargo.class));
 
@@ -102,7 +107,8 @@ public class CargoInspectionServiceTest {
                                         SampleLocations.HONGKONG,
                                         LocalDateTime.now().minusDays(9),
                                         LocalDateTime.now().minusDays(9)))));
-        when(cargoRepository.find(any(TrackingId.class))).thenReturn(cargo);
+        when(cargoRepository.find(any(TrackingId.class), eq(CargoFetchPlan.INSPECTION)))
+                .thenReturn(cargo);
         when(handlingEventRepository.lookupHandlingHistoryOfCargo(any(TrackingId.class)))
                 .thenReturn(
                         new HandlingHistory(
@@ -148,7 +154,8 @@ public class CargoInspectionServiceTest {
 
         service.inspectCargo(new TrackingId("ABC123"));
 
-        verify(cargoRepository, times(1)).find(any(TrackingId.class));
+        verify(cargoRepository, times(1))
+                .find(any(TrackingId.class), eq(CargoFetchPlan.INSPECTION));
         verify(applicationEvents, times(1)).cargoHasArrived(any(Cargo.class));
         verify(applicationEvents, times(0)).cargoWasMisdirected(any(Cargo.class));
         verify(cargoRepository, times(1)).store(any(Cargo.class));
@@ -179,7 +186,8 @@ public class CargoInspectionServiceTest {
                                         SampleLocations.HONGKONG,
                                         LocalDateTime.now().minusDays(9),
                                         LocalDateTime.now().minusDays(9)))));
-        when(cargoRepository.find(any(TrackingId.class))).thenReturn(cargo);
+        when(cargoRepository.find(any(TrackingId.class), eq(CargoFetchPlan.INSPECTION)))
+                .thenReturn(cargo);
         when(handlingEventRepository.lookupHandlingHistoryOfCargo(any(TrackingId.class)))
                 .thenReturn(
                         new HandlingHistory(
@@ -205,7 +213,8 @@ public class CargoInspectionServiceTest {
 
         service.inspectCargo(new TrackingId("ABC123"));
 
-        verify(cargoRepository, times(1)).find(any(TrackingId.class));
+        verify(cargoRepository, times(1))
+                .find(any(TrackingId.class), eq(CargoFetchPlan.INSPECTION));
         verify(applicationEvents, times(0)).cargoHasArrived(any(Cargo.class));
         verify(applicationEvents, times(1)).cargoWasMisdirected(any(Cargo.class));
         verify(cargoRepository, times(1)).store(any(Cargo.class));
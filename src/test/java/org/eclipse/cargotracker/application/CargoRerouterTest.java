@@ -0,0 +1,115 @@
+package org.eclipse.cargotracker.application;
+
+import org.eclipse.cargotracker.application.ReroutingRun.Outcome;
+import org.eclipse.cargotracker.application.internal.CargoRerouter;
+import org.eclipse.cargotracker.domain.model.cargo.*;
+import org.eclipse.cargotracker.domain.model.location.SampleLocations;
+import org.eclipse.cargotracker.domain.model.voyage.SampleVoyages;
+import org.eclipse.cargotracker.domain.model.voyage.Voyage;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageDisruption;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CargoRerouterTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private final CargoRepository cargoRepository = mock(CargoRepository.class);
+    private final BookingService bookingService = mock(BookingService.class);
+    private final TrackingId trackingId = new TrackingId("ABC123");
+    private CargoRerouter cargoRerouter;
+
+    @Before
+    public void setUp() {
+        cargoRerouter = new CargoRerouter(cargoRepository, bookingService);
+
+        Cargo cargo =
+                new Cargo(
+                        trackingId,
+                        new RouteSpecification(
+                                SampleLocations.HONGKONG,
+                                SampleLocations.HELSINKI,
+                                LocalDate.now().plusMonths(1)));
+        cargo.assignToRoute(itinerary(SampleVoyages.CM001, 1, 10));
+        when(cargoRepository.find(trackingId, CargoFetchPlan.ROUTING)).thenReturn(cargo);
+    }
+
+    @Test
+    public void testAssignsTheEarliestArrivalAvoidingTheDisruption() {
+        Itinerary disrupted = itinerary(SampleVoyages.CM001, 1, 5);
+        Itinerary late = itinerary(SampleVoyages.CM002, 1, 15);
+        Itinerary early = itinerary(SampleVoyages.CM003, 1, 12);
+        when(bookingService.requestReroutesForCargo(eq(trackingId), any(), any()))
+                .thenReturn(Arrays.asList(disrupted, late, early));
+
+        Outcome outcome =
+                cargoRerouter.reroute(trackingId, disruption(2, 3), Collections.emptyMap());
+
+        assertThat(outcome).isEqualTo(Outcome.ASSIGNED);
+        verify(bookingService).assignCargoToRoute(early, trackingId);
+    }
+
+    @Test
+    public void testQueuesForPlannerWithoutAcceptableCandidate() {
+        when(bookingService.requestReroutesForCargo(eq(trackingId), any(), any()))
+                .thenReturn(Collections.singletonList(itinerary(SampleVoyages.CM001, 1, 5)));
+
+        Outcome outcome =
+                cargoRerouter.reroute(trackingId, disruption(2, 3), Collections.emptyMap());
+
+        assertThat(outcome).isEqualTo(Outcome.QUEUED_FOR_PLANNER);
+        verify(bookingService, never()).assignCargoToRoute(any(), any());
+    }
+
+    @Test
+    public void testLeavesCargoOutsideTheDisruptionAlone() {
+        Outcome outcome =
+                cargoRerouter.reroute(trackingId, disruption(20, 30), Collections.emptyMap());
+
+        assertThat(outcome).isEqualTo(Outcome.UNAFFECTED);
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    public void testPlansSearchesOnlyForCargoDisruptedAhead() {
+        RouteSpecification search =
+                new RouteSpecification(
+                        SampleLocations.HONGKONG,
+                        SampleLocations.HELSINKI,
+                        LocalDate.now().plusMonths(1));
+        when(bookingService.requestRerouteSpecification(trackingId)).thenReturn(search);
+
+        assertThat(cargoRerouter.findRerouteSpecification(trackingId, disruption(20, 30)))
+                .isNull();
+        assertThat(cargoRerouter.findRerouteSpecification(trackingId, disruption(2, 3)))
+                .isEqualTo(search);
+    }
+
+    private VoyageDisruption disruption(int startDay, int endDay) {
+        return new VoyageDisruption(
+                SampleVoyages.CM001.getVoyageNumber(),
+                NOW.plusDays(startDay),
+                NOW.plusDays(endDay));
+    }
+
+    private Itinerary itinerary(Voyage voyage, int loadDay, int unloadDay) {
+        return new Itinerary(
+                Collections.singletonList(
+                        new Leg(
+                                voyage,
+                                SampleLocations.HONGKONG,
+                                SampleLocations.HELSINKI,
+                                NOW.plusDays(loadDay),
+                                NOW.plusDays(unloadDay))));
+    }
+}
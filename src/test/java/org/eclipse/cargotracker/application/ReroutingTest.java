@@ -0,0 +1,207 @@
+package org.eclipse.cargotracker.application;
+
+import org.eclipse.cargotracker.application.internal.DefaultBookingService;
+import org.eclipse.cargotracker.domain.model.cargo.*;
+import org.eclipse.cargotracker.domain.model.handling.HandlingEvent;
+import org.eclipse.cargotracker.domain.model.handling.HandlingEventRepository;
+import org.eclipse.cargotracker.domain.model.handling.HandlingHistory;
+import org.eclipse.cargotracker.domain.model.location.Location;
+import org.eclipse.cargotracker.domain.model.location.LocationRepository;
+import org.eclipse.cargotracker.domain.model.location.SampleLocations;
+import org.eclipse.cargotracker.domain.model.voyage.SampleVoyages;
+import org.eclipse.cargotracker.domain.model.voyage.Voyage;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageDisruption;
+import org.eclipse.cargotracker.domain.service.NetworkReachability;
+import org.eclipse.cargotracker.domain.service.RoutingService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/** Re-routes of cargo that is in port, on its itinerary or off it. */
+public class ReroutingTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private final CargoRepository cargoRepository = mock(CargoRepository.class);
+    private final HandlingEventRepository handlingEventRepository =
+            mock(HandlingEventRepository.class);
+    private final RoutingService routingService = mock(RoutingService.class);
+    private final TrackingId trackingId = new TrackingId("ABC123");
+    private final List<HandlingEvent> events = new ArrayList<>();
+    private Cargo cargo;
+    private Leg firstLeg;
+    private BookingService bookingService;
+
+    @Before
+    public void setUp() {
+        bookingService =
+                new DefaultBookingService(
+                        cargoRepository,
+                        mock(LocationRepository.class),
+                        handlingEventRepository,
+                        routingService,
+                        mock(NetworkReachability.class),
+                        Logger.getLogger(ReroutingTest.class.getName()));
+
+        // Hong Kong to Tokyo, then on to Helsinki.
+        cargo =
+                new Cargo(
+                        trackingId,
+                        new RouteSpecification(
+                                SampleLocations.HONGKONG,
+                                SampleLocations.HELSINKI,
+                                LocalDate.now().plusMonths(1)));
+        firstLeg =
+                leg(
+                        SampleVoyages.CM001,
+                        SampleLocations.HONGKONG,
+                        SampleLocations.TOKYO,
+                        -10,
+                        -8);
+        cargo.assignToRoute(
+                new Itinerary(
+                        List.of(
+                                firstLeg,
+                                leg(
+                                        SampleVoyages.CM002,
+                                        SampleLocations.TOKYO,
+                                        SampleLocations.HELSINKI,
+                                        -6,
+                                        -1))));
+
+        when(cargoRepository.find(trackingId, CargoFetchPlan.ROUTING)).thenReturn(cargo);
+        when(handlingEventRepository.lookupHandlingHistoryOfCargo(trackingId))
+                .thenAnswer(invocation -> new HandlingHistory(events));
+        when(routingService.fetchRoutesForSpecification(any()))
+                .thenAnswer(
+                        invocation -> {
+                            RouteSpecification search = invocation.getArgument(0);
+                            return List.of(
+                                    new Itinerary(
+                                            List.of(
+                                                    leg(
+                                                            SampleVoyages.CM003,
+                                                            search.getOrigin(),
+                                                            search.getDestination(),
+                                                            1,
+                                                            5))));
+                        });
+    }
+
+    @Test
+    public void testReroutesInPortCargoFromWhereItIs() {
+        handle(HandlingEvent.Type.RECEIVE, SampleLocations.HONGKONG, null, -11);
+        handle(HandlingEvent.Type.LOAD, SampleLocations.HONGKONG, SampleVoyages.CM001, -10);
+        handle(HandlingEvent.Type.UNLOAD, SampleLocations.TOKYO, SampleVoyages.CM001, -8);
+
+        List<Itinerary> reroutes = bookingService.requestReroutesForCargo(trackingId, null);
+
+        // The search is for departures from Tokyo on, the leg to Tokyo is kept as travelled.
+        verify(routingService).fetchRoutesForSpecification(fromTokyo());
+        assertThat(reroutes).hasSize(1);
+        List<Leg> legs = reroutes.get(0).getLegs();
+        assertThat(legs).hasSize(2);
+        assertThat(legs.get(0).getVoyage()).isEqualTo(SampleVoyages.CM001);
+        assertThat(legs.get(0).getLoadTime()).isEqualTo(firstLeg.getLoadTime());
+        assertThat(legs.get(1).getLoadLocation()).isEqualTo(SampleLocations.TOKYO);
+        assertThat(legs.get(1).getLoadTime()).isAfter(NOW);
+    }
+
+    @Test
+    public void testReroutesOverRoutesSearchedInAdvance() {
+        handle(HandlingEvent.Type.RECEIVE, SampleLocations.HONGKONG, null, -11);
+        handle(HandlingEvent.Type.LOAD, SampleLocations.HONGKONG, SampleVoyages.CM001, -10);
+        handle(HandlingEvent.Type.UNLOAD, SampleLocations.TOKYO, SampleVoyages.CM001, -8);
+        Leg searchedLeg =
+                leg(SampleVoyages.CM003, SampleLocations.TOKYO, SampleLocations.HELSINKI, 2, 6);
+        VoyageDisruption disruption =
+                new VoyageDisruption(
+                        SampleVoyages.CM002.getVoyageNumber(), NOW.minusDays(7), NOW.plusDays(1));
+
+        assertThat(bookingService.requestRerouteSpecification(trackingId)).isEqualTo(fromTokyo());
+        List<Itinerary> reroutes =
+                bookingService.requestReroutesForCargo(
+                        trackingId,
+                        disruption,
+                        Map.of(fromTokyo(), List.of(new Itinerary(List.of(searchedLeg)))));
+
+        verifyNoInteractions(routingService);
+        assertThat(reroutes).hasSize(1);
+        List<Leg> legs = reroutes.get(0).getLegs();
+        assertThat(legs).hasSize(2);
+        // Other cargoes may take the same route, each one gets legs of its own.
+        assertThat(legs.get(1)).isNotSameAs(searchedLeg);
+        assertThat(legs.get(1).getVoyage()).isEqualTo(SampleVoyages.CM003);
+    }
+
+    @Test
+    public void testReroutesMisdirectedCargoKeepingTheStrayLeg() {
+        handle(HandlingEvent.Type.RECEIVE, SampleLocations.HONGKONG, null, -11);
+        handle(HandlingEvent.Type.LOAD, SampleLocations.HONGKONG, SampleVoyages.CM001, -10);
+        handle(HandlingEvent.Type.UNLOAD, SampleLocations.TOKYO, SampleVoyages.CM001, -8);
+        // Loaded where planned, but unloaded in Hamburg rather than Helsinki.
+        handle(HandlingEvent.Type.LOAD, SampleLocations.TOKYO, SampleVoyages.CM002, -6);
+        handle(HandlingEvent.Type.UNLOAD, SampleLocations.HAMBURG, SampleVoyages.CM002, -2);
+
+        List<Itinerary> reroutes = bookingService.requestReroutesForMisdirectedCargo(trackingId);
+
+        verify(routingService)
+                .fetchRoutesForSpecification(
+                        new RouteSpecification(
+                                SampleLocations.HAMBURG,
+                                SampleLocations.HELSINKI,
+                                cargo.getRouteSpecification().getArrivalDeadline()));
+        assertThat(reroutes).hasSize(1);
+        List<Leg> legs = reroutes.get(0).getLegs();
+        assertThat(legs).hasSize(3);
+        assertThat(legs.get(0).getUnloadLocation()).isEqualTo(SampleLocations.TOKYO);
+        assertThat(legs.get(1).getVoyage()).isEqualTo(SampleVoyages.CM002);
+        assertThat(legs.get(1).getUnloadLocation()).isEqualTo(SampleLocations.HAMBURG);
+        assertThat(legs.get(2).getLoadLocation()).isEqualTo(SampleLocations.HAMBURG);
+    }
+
+    @Test
+    public void testLeavesCargoThatLeftItsItineraryEarlierToAPlanner() {
+        handle(HandlingEvent.Type.RECEIVE, SampleLocations.HONGKONG, null, -11);
+        handle(HandlingEvent.Type.LOAD, SampleLocations.HONGKONG, SampleVoyages.CM001, -10);
+        // Off the itinerary since Shanghai, so nothing is loaded there according to it.
+        handle(HandlingEvent.Type.UNLOAD, SampleLocations.SHANGHAI, SampleVoyages.CM001, -8);
+        handle(HandlingEvent.Type.LOAD, SampleLocations.SHANGHAI, SampleVoyages.CM003, -6);
+        handle(HandlingEvent.Type.UNLOAD, SampleLocations.HAMBURG, SampleVoyages.CM003, -2);
+
+        assertThat(cargo.getItinerary().legsBeforeLoadAt(SampleLocations.SHANGHAI)).isNull();
+        assertThat(bookingService.requestReroutesForMisdirectedCargo(trackingId)).isEmpty();
+        verifyNoInteractions(routingService);
+    }
+
+    private void handle(HandlingEvent.Type type, Location location, Voyage voyage, int day) {
+        LocalDateTime completionTime = NOW.plusDays(day);
+        events.add(
+                voyage == null
+                        ? new HandlingEvent(cargo, completionTime, completionTime, type, location)
+                        : new HandlingEvent(
+                                cargo, completionTime, completionTime, type, location, voyage));
+        cargo.deriveDeliveryProgress(new HandlingHistory(events));
+    }
+
+    private RouteSpecification fromTokyo() {
+        return new RouteSpecification(
+                SampleLocations.TOKYO,
+                SampleLocations.HELSINKI,
+                cargo.getRouteSpecification().getArrivalDeadline());
+    }
+
+    private static Leg leg(Voyage voyage, Location from, Location to, int loadDay, int unloadDay) {
+        return new Leg(voyage, from, to, NOW.plusDays(loadDay), NOW.plusDays(unloadDay));
+    }
+}
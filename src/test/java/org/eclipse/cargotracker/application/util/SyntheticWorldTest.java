@@ -0,0 +1,91 @@
+package org.eclipse.cargotracker.application.util;
+
+import org.eclipse.cargotracker.domain.model.cargo.Cargo;
+import org.eclipse.cargotracker.domain.model.handling.HandlingEvent;
+import org.eclipse.cargotracker.domain.model.location.Location;
+import org.eclipse.cargotracker.domain.model.voyage.Voyage;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SyntheticWorldTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 1, 12, 0);
+
+    private static List<SyntheticWorld.HandledCargo> cargos(SyntheticWorld world) {
+        List<SyntheticWorld.HandledCargo> cargos = new ArrayList<>();
+        world.generateCargos(7, cargos::addAll);
+        return cargos;
+    }
+
+    @Test
+    public void testGeneratesTheRequestedSizes() {
+        SyntheticWorld world = new SyntheticWorld(100, 40, 50, 60, 1, NOW);
+        List<SyntheticWorld.HandledCargo> cargos = cargos(world);
+
+        assertThat(world.getLocations()).hasSize(100);
+        assertThat(world.getVoyages()).hasSize(40);
+        assertThat(cargos).hasSize(50);
+        assertThat(cargos.stream().mapToInt(cargo -> cargo.getEvents().size()).sum())
+                .isBetween(1, 60);
+    }
+
+    @Test
+    public void testSameSeedGeneratesTheSameWorld() {
+        SyntheticWorld world = new SyntheticWorld(100, 40, 50, 1000, 7, NOW);
+        SyntheticWorld again = new SyntheticWorld(100, 40, 50, 1000, 7, NOW);
+
+        assertThat(again.getLocations()).isEqualTo(world.getLocations());
+        assertThat(schedules(again)).isEqualTo(schedules(world));
+        assertThat(describe(cargos(again))).isEqualTo(describe(cargos(world)));
+    }
+
+    @Test
+    public void testRoutesCargosOnTheGeneratedVoyages() {
+        SyntheticWorld world = new SyntheticWorld(100, 40, 200, 10_000, 3, NOW);
+
+        for (SyntheticWorld.HandledCargo handledCargo : cargos(world)) {
+            Cargo cargo = handledCargo.getCargo();
+            assertThat(world.getLocations())
+                    .contains(cargo.getRouteSpecification().getOrigin())
+                    .contains(cargo.getRouteSpecification().getDestination());
+
+            if (cargo.getItinerary().getLegs().isEmpty()) {
+                assertThat(handledCargo.getEvents()).isEmpty();
+            } else {
+                assertThat(cargo.getRouteSpecification().isSatisfiedBy(cargo.getItinerary()))
+                        .isTrue();
+                assertThat(world.getVoyages())
+                        .contains(cargo.getItinerary().getLegs().get(0).getVoyage());
+            }
+
+            for (HandlingEvent event : handledCargo.getEvents()) {
+                assertThat(event.getCompletionTime()).isBeforeOrEqualTo(NOW);
+                assertThat(cargo.getItinerary().isExpected(event)).isTrue();
+            }
+        }
+    }
+
+    private static List<Object> schedules(SyntheticWorld world) {
+        return world.getVoyages().stream().map(Voyage::getSchedule).collect(Collectors.toList());
+    }
+
+    private static List<String> describe(List<SyntheticWorld.HandledCargo> cargos) {
+        return cargos.stream()
+                .map(
+                        cargo ->
+                                cargo.getCargo().getTrackingId()
+                                        + " "
+                                        + cargo.getCargo().getRouteSpecification()
+                                        + " "
+                                        + cargo.getCargo().getItinerary()
+                                        + " "
+                                        + cargo.getEvents())
+                .collect(Collectors.toList());
+    }
+}
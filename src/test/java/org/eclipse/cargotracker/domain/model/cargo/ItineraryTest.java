@@ -165,6 +165,31 @@ public class ItineraryTest {
         assertFalse(itinerary.isExpected(event));
     }
 
+    @Test
+    public void testLegsBeforeLoadAt() {
+        Leg first =
+                new Leg(
+                        voyage,
+                        SampleLocations.SHANGHAI,
+                        SampleLocations.ROTTERDAM,
+                        LocalDateTime.now(),
+                        LocalDateTime.now());
+        Leg second =
+                new Leg(
+                        voyage,
+                        SampleLocations.ROTTERDAM,
+                        SampleLocations.GOTHENBURG,
+                        LocalDateTime.now(),
+                        LocalDateTime.now());
+        Itinerary itinerary = new Itinerary(Arrays.asList(first, second));
+
+        assertEquals(List.of(), itinerary.legsBeforeLoadAt(SampleLocations.SHANGHAI));
+        assertEquals(List.of(first), itinerary.legsBeforeLoadAt(SampleLocations.ROTTERDAM));
+        // Nothing loads at the final destination.
+        assertNull(itinerary.legsBeforeLoadAt(SampleLocations.GOTHENBURG));
+        assertNull(itinerary.legsBeforeLoadAt(SampleLocations.HELSINKI));
+    }
+
     @Test
     public void testNextExpectedEvent() {
         // TODO [TDD] Complete this test.
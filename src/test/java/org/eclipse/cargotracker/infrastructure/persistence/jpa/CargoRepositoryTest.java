@@ -26,12 +26,14 @@ import org.junit.runner.RunWith;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnitUtil;
 import javax.transaction.Status;
 import javax.transaction.UserTransaction;
 import java.lang.reflect.Field;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -119,14 +121,123 @@ public class CargoRepositoryTest {
         assertThat(trackingId.equals(trackingId2)).isFalse();
     }
 
+    @Test
+    @InSequence(3)
+    public void testFindTrackingIdsByVoyage() {
+        assertThat(cargoRepository.findTrackingIdsByVoyage(new VoyageNumber("0200T")))
+                .contains(new TrackingId("ABC123"));
+        assertThat(cargoRepository.findTrackingIdsByVoyage(new VoyageNumber("UNKNOWN")))
+                .isEmpty();
+    }
+
     @Test
     @InSequence(4)
+    public void testFindPage() {
+        List<Cargo> firstPage = cargoRepository.findPage(CargoFilter.ALL, null, 2);
+        assertThat(firstPage)
+                .extracting(Cargo::getTrackingId)
+                .containsExactly(new TrackingId("ABC123"), new TrackingId("DEF789"));
+        assertThat(cargoRepository.findTrackingIdPage(CargoFilter.ALL, new TrackingId("DEF789"), 2))
+                .containsExactly(new TrackingId("JKL567"), new TrackingId("MNO456"));
+        assertThat(cargoRepository.findTrackingIdPage(CargoFilter.ALL, new TrackingId("MNO456"), 2))
+                .isEmpty();
+
+        assertThat(
+                        cargoRepository.findTrackingIdPage(
+                                CargoFilter.ALL.withRoutingStatuses(
+                                        EnumSet.of(RoutingStatus.NOT_ROUTED)),
+                                null,
+                                10))
+                .containsExactly(new TrackingId("DEF789"));
+        assertThat(
+                        cargoRepository.findTrackingIdPage(
+                                CargoFilter.ALL.withTrackingIdPrefix("MNO"), null, 10))
+                .containsExactly(new TrackingId("MNO456"));
+    }
+
+    @Test
+    @InSequence(5)
+    public void testFindSummaryPage() {
+        List<CargoSummary> summaries =
+                cargoRepository.findSummaryPage(
+                        CargoFilter.ALL.withTrackingIdPrefix("ABC"), null, 10);
+        assertThat(summaries).hasSize(1);
+
+        CargoSummary abc123 = summaries.get(0);
+        Cargo cargo = cargoRepository.find(new TrackingId("ABC123"));
+        assertThat(abc123.getTrackingId()).isEqualTo(cargo.getTrackingId());
+        assertThat(abc123.getOriginCode()).isEqualTo("CNHKG");
+        assertThat(abc123.getDestinationCode()).isEqualTo("FIHEL");
+        assertThat(abc123.getArrivalDeadline())
+                .isEqualTo(cargo.getRouteSpecification().getArrivalDeadline());
+        assertThat(abc123.getRoutingStatus()).isEqualTo(cargo.getDelivery().getRoutingStatus());
+        assertThat(abc123.getTransportStatus())
+                .isEqualTo(cargo.getDelivery().getTransportStatus());
+        assertThat(abc123.getLastKnownLocationCode())
+                .isEqualTo(cargo.getDelivery().getLastKnownLocation().getUnLocode().getIdString());
+
+        assertThat(
+                        cargoRepository.findSummaryPage(
+                                CargoFilter.ALL.withTrackingIdPrefix("DEF"), null, 10))
+                .extracting(CargoSummary::getLastKnownLocationCode)
+                .containsExactly("XXXXX");
+    }
+
+    @Test
+    @InSequence(6)
     public void testFindByCargoIdUnknownId() {
         assertThat(cargoRepository.find(new TrackingId("UNKNOWN"))).isNull();
     }
 
     @Test
-    @InSequence(5)
+    @InSequence(7)
+    public void testFindWithFetchPlan() {
+        for (CargoFetchPlan fetchPlan : CargoFetchPlan.values()) {
+            Cargo cargo = cargoRepository.find(new TrackingId("ABC123"), fetchPlan);
+            assertThat(cargo.getTrackingId()).isEqualTo(new TrackingId("ABC123"));
+            assertThat(cargo.getRouteSpecification().getDestination())
+                    .isEqualTo(SampleLocations.HELSINKI);
+            assertThat(cargo.getItinerary().getLegs()).hasSize(3);
+
+            assertThat(cargoRepository.find(new TrackingId("UNKNOWN"), fetchPlan)).isNull();
+        }
+    }
+
+    @Test
+    @InSequence(8)
+    public void testFetchPlansLoadWhatTheyPromise() {
+        PersistenceUnitUtil util = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+
+        Cargo tracked = cargoRepository.find(new TrackingId("ABC123"), CargoFetchPlan.TRACKING);
+        assertThat(util.isLoaded(tracked.getRouteSpecification(), "origin")).isTrue();
+        assertThat(util.isLoaded(tracked.getRouteSpecification(), "destination")).isTrue();
+        assertThat(util.isLoaded(tracked.getItinerary(), "legs")).isTrue();
+        assertThat(util.isLoaded(tracked.getDelivery(), "lastKnownLocation")).isTrue();
+        assertThat(util.isLoaded(tracked.getDelivery(), "currentVoyage")).isTrue();
+        assertThat(util.isLoaded(tracked.getDelivery(), "nextExpectedActivity")).isTrue();
+
+        Cargo routed = cargoRepository.find(new TrackingId("ABC123"), CargoFetchPlan.ROUTING);
+        assertThat(util.isLoaded(routed.getRouteSpecification(), "origin")).isTrue();
+        assertThat(util.isLoaded(routed.getRouteSpecification(), "destination")).isTrue();
+        assertThat(util.isLoaded(routed.getItinerary(), "legs")).isTrue();
+        for (Leg leg : routed.getItinerary().getLegs()) {
+            assertThat(util.isLoaded(leg, "voyage")).isTrue();
+            assertThat(util.isLoaded(leg, "loadLocation")).isTrue();
+            assertThat(util.isLoaded(leg, "unloadLocation")).isTrue();
+        }
+        assertThat(util.isLoaded(routed.getDelivery(), "lastKnownLocation")).isTrue();
+        assertThat(util.isLoaded(routed.getDelivery(), "currentVoyage")).isTrue();
+        assertThat(util.isLoaded(routed.getDelivery(), "lastEvent")).isTrue();
+
+        Cargo inspected =
+                cargoRepository.find(new TrackingId("ABC123"), CargoFetchPlan.INSPECTION);
+        assertThat(util.isLoaded(inspected.getRouteSpecification(), "destination")).isTrue();
+        assertThat(util.isLoaded(inspected.getItinerary(), "legs")).isTrue();
+        assertThat(util.isLoaded(inspected.getDelivery(), "lastEvent")).isTrue();
+    }
+
+    @Test
+    @InSequence(9)
     public void testFindByCargoId() throws Exception {
         startTransaction();
         final TrackingId trackingId = new TrackingId("ABC123");
@@ -215,7 +326,7 @@ public class CargoRepositoryTest {
     }
 
     @Test
-    @InSequence(6)
+    @InSequence(10)
     public void testSave() throws Exception {
         startTransaction();
         TrackingId trackingId = new TrackingId("AAA");
@@ -259,7 +370,7 @@ public class CargoRepositoryTest {
     }
 
     @Test
-    @InSequence(7)
+    @InSequence(11)
     public void testSpecifyNewRoute() throws Exception {
         LOGGER.log(Level.INFO, "run test :: testSpecifyNewRoute");
         startTransaction();
@@ -299,7 +410,7 @@ public class CargoRepositoryTest {
     }
 
     @Test
-    @InSequence(8)
+    @InSequence(12)
     public void testReplaceItinerary() throws Exception {
         startTransaction();
         var trackingId = new TrackingId("AAA");
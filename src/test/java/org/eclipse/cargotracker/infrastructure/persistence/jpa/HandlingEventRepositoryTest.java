@@ -30,6 +30,7 @@ import javax.transaction.UserTransaction;
 import java.lang.reflect.Field;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -141,6 +142,34 @@ public class HandlingEventRepositoryTest {
         commitTransaction();
     }
 
+    @Test
+    public void testStoreAll() throws Exception {
+        startTransaction();
+        Location location = locationRepository.find(new UnLocode("CNHKG"));
+        Cargo cargo = cargoRepository.find(new TrackingId("DEF789"));
+
+        List<HandlingEvent> events = new ArrayList<>();
+        for (int day = 3; day > 0; day--) {
+            events.add(
+                    new HandlingEvent(
+                            cargo,
+                            LocalDateTime.now().minusDays(day),
+                            LocalDateTime.now(),
+                            HandlingEvent.Type.CUSTOMS,
+                            location));
+        }
+
+        handlingEventRepository.storeAll(events);
+
+        assertThat(events).extracting(this::getLongId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(
+                        handlingEventRepository
+                                .lookupHandlingHistoryOfCargo(new TrackingId("DEF789"))
+                                .getDistinctEventsByCompletionTime())
+                .containsExactlyElementsOf(events);
+        commitTransaction();
+    }
+
     private Long getLongId(Object o) {
 
         try {
@@ -82,4 +82,19 @@ public class LocationRepositoryTest {
         assertThat(allLocations).isNotNull();
         assertThat(allLocations).hasSize(13);
     }
+
+    @Test
+    public void testFindAllByUnLocodes() {
+        List<Location> locations =
+                locationRepository.findAll(
+                        List.of(
+                                new UnLocode("AUMEL"),
+                                new UnLocode("CNHKG"),
+                                new UnLocode("NOLOC")));
+
+        assertThat(locations)
+                .extracting(Location::getUnLocode)
+                .containsExactlyInAnyOrder(new UnLocode("AUMEL"), new UnLocode("CNHKG"));
+        assertThat(locationRepository.findAll(List.of())).isEmpty();
+    }
 }
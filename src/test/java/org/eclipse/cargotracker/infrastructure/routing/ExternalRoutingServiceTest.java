@@ -4,25 +4,37 @@ import org.eclipse.cargotracker.domain.model.cargo.*;
 import org.eclipse.cargotracker.domain.model.location.Location;
 import org.eclipse.cargotracker.domain.model.location.LocationRepository;
 import org.eclipse.cargotracker.domain.model.location.SampleLocations;
-import org.eclipse.cargotracker.domain.model.location.UnLocode;
 import org.eclipse.cargotracker.domain.model.voyage.SampleVoyages;
-import org.eclipse.cargotracker.domain.model.voyage.VoyageNumber;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageDisruption;
 import org.eclipse.cargotracker.domain.model.voyage.VoyageRepository;
 import org.eclipse.cargotracker.infrastructure.routing.client.GraphTraversalResourceClient;
+import org.eclipse.cargotracker.infrastructure.routing.client.ResilientGraphTraversalClient;
+import org.eclipse.cargotracker.infrastructure.routing.table.RouteTable;
+import org.eclipse.pathfinder.api.ShortestPathQuery;
 import org.eclipse.pathfinder.api.TransitEdge;
 import org.eclipse.pathfinder.api.TransitPath;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 public class ExternalRoutingServiceTest {
@@ -31,13 +43,30 @@ public class ExternalRoutingServiceTest {
     private final LocationRepository locationRepository = mock(LocationRepository.class);
     private final GraphTraversalResourceClient graphTraversalResourceClient =
             mock(GraphTraversalResourceClient.class);
+    private final RouteCandidateCache routeCandidateCache = new RouteCandidateCache();
+    private final RouteTable routeTable = mock(RouteTable.class);
+    private final ScheduledExecutorService scheduledExecutorService =
+            Executors.newSingleThreadScheduledExecutor();
     private ExternalRoutingService externalRoutingService;
 
     @Before
     public void setUp() {
+        // Nothing precomputed, unless a test says otherwise.
+        when(routeTable.find(anyString(), anyString(), any())).thenReturn(null);
+
         this.externalRoutingService =
                 new ExternalRoutingService(
-                        locationRepository, voyageRepository, graphTraversalResourceClient);
+                        locationRepository,
+                        voyageRepository,
+                        new ResilientGraphTraversalClient(
+                                graphTraversalResourceClient, scheduledExecutorService),
+                        routeCandidateCache,
+                        routeTable);
+    }
+
+    @After
+    public void tearDown() {
+        scheduledExecutorService.shutdownNow();
     }
 
     @Test
@@ -48,38 +77,40 @@ public class ExternalRoutingServiceTest {
                         SampleLocations.HONGKONG, SampleLocations.HELSINKI, LocalDate.now());
         Cargo cargo = new Cargo(trackingId, routeSpecification);
 
-        when(voyageRepository.find(any(VoyageNumber.class))).thenReturn(SampleVoyages.CM002);
-        when(locationRepository.find(SampleLocations.HONGKONG.getUnLocode()))
-                .thenReturn(SampleLocations.HONGKONG);
-        when(locationRepository.find(SampleLocations.CHICAGO.getUnLocode()))
-                .thenReturn(SampleLocations.CHICAGO);
-        when(locationRepository.find(SampleLocations.HELSINKI.getUnLocode()))
-                .thenReturn(SampleLocations.HELSINKI);
-        when(graphTraversalResourceClient.findShortestPath(anyString(), anyString()))
+        when(voyageRepository.findAll(anyCollection())).thenReturn(List.of(SampleVoyages.CM002));
+        when(locationRepository.findAll(anyCollection()))
                 .thenReturn(
                         List.of(
-                                new TransitPath(
-                                        List.of(
-                                                new TransitEdge(
-                                                        "CM002",
-                                                        SampleLocations.HONGKONG
-                                                                .getUnLocode()
-                                                                .getIdString(),
-                                                        SampleLocations.CHICAGO
-                                                                .getUnLocode()
-                                                                .getIdString(),
-                                                        LocalDateTime.now().plusDays(1),
-                                                        LocalDateTime.now().plusDays(10)),
-                                                new TransitEdge(
-                                                        "CM002",
-                                                        SampleLocations.CHICAGO
-                                                                .getUnLocode()
-                                                                .getIdString(),
-                                                        SampleLocations.HELSINKI
-                                                                .getUnLocode()
-                                                                .getIdString(),
-                                                        LocalDateTime.now().plusDays(11),
-                                                        LocalDateTime.now().plusDays(30))))));
+                                SampleLocations.HONGKONG,
+                                SampleLocations.CHICAGO,
+                                SampleLocations.HELSINKI));
+        List<TransitPath> transitPaths =
+                List.of(
+                        new TransitPath(
+                                List.of(
+                                        new TransitEdge(
+                                                "CM002",
+                                                SampleLocations.HONGKONG
+                                                        .getUnLocode()
+                                                        .getIdString(),
+                                                SampleLocations.CHICAGO
+                                                        .getUnLocode()
+                                                        .getIdString(),
+                                                LocalDateTime.now().plusDays(1),
+                                                LocalDateTime.now().plusDays(10)),
+                                        new TransitEdge(
+                                                "CM002",
+                                                SampleLocations.CHICAGO
+                                                        .getUnLocode()
+                                                        .getIdString(),
+                                                SampleLocations.HELSINKI
+                                                        .getUnLocode()
+                                                        .getIdString(),
+                                                LocalDateTime.now().plusDays(11),
+                                                LocalDateTime.now().plusDays(30)))));
+        when(graphTraversalResourceClient.findShortestPathAsync(
+                        anyString(), anyString(), any(), isNull()))
+                .thenReturn(completedFuture(transitPaths));
 
         List<Itinerary> candidates =
                 externalRoutingService.fetchRoutesForSpecification(routeSpecification);
@@ -103,11 +134,202 @@ public class ExternalRoutingServiceTest {
             }
         }
 
-        verify(graphTraversalResourceClient, times(1)).findShortestPath(anyString(), anyString());
-        verify(voyageRepository, atLeastOnce()).find(any(VoyageNumber.class));
-        verify(locationRepository, atLeastOnce()).find(any(UnLocode.class));
+        verify(graphTraversalResourceClient, times(1))
+                .findShortestPathAsync(anyString(), anyString(), any(), isNull());
+        // One lookup per kind, however many legs the candidates have.
+        verify(voyageRepository, times(1)).findAll(anyCollection());
+        verify(locationRepository, times(1)).findAll(anyCollection());
 
         verifyNoMoreInteractions(
                 voyageRepository, locationRepository, graphTraversalResourceClient);
     }
+
+    @Test
+    public void testCachesRoutesPerLaneUntilSchedulesChange() {
+        RouteSpecification routeSpecification =
+                new RouteSpecification(
+                        SampleLocations.HONGKONG, SampleLocations.HELSINKI, LocalDate.now());
+        RouteSpecification laterDeadline =
+                new RouteSpecification(
+                        SampleLocations.HONGKONG,
+                        SampleLocations.HELSINKI,
+                        LocalDate.now().plusWeeks(2));
+
+        when(graphTraversalResourceClient.findShortestPathAsync(
+                        anyString(), anyString(), any(), isNull()))
+                .thenReturn(completedFuture(List.of()));
+
+        externalRoutingService.fetchRoutesForSpecification(routeSpecification);
+        externalRoutingService.fetchRoutesForSpecification(routeSpecification);
+        // The path-finder is asked for the last deadline of the week, the cache serves the week.
+        verify(graphTraversalResourceClient, times(1))
+                .findShortestPathAsync(
+                        anyString(),
+                        anyString(),
+                        argThat(
+                                deadline ->
+                                        !deadline.isBefore(LocalDate.now())
+                                                && deadline.isBefore(
+                                                        LocalDate.now().plusWeeks(1))),
+                        isNull());
+
+        externalRoutingService.fetchRoutesForSpecification(laterDeadline);
+        verify(graphTraversalResourceClient, times(2))
+                .findShortestPathAsync(anyString(), anyString(), any(), isNull());
+
+        routeCandidateCache.onScheduleChanged(SampleVoyages.CM002);
+        externalRoutingService.fetchRoutesForSpecification(routeSpecification);
+        verify(graphTraversalResourceClient, times(3))
+                .findShortestPathAsync(anyString(), anyString(), any(), isNull());
+    }
+
+    @Test
+    public void testSearchesAroundDisruptionPastTheCache() {
+        RouteSpecification routeSpecification =
+                new RouteSpecification(
+                        SampleLocations.HONGKONG, SampleLocations.HELSINKI, LocalDate.now());
+        VoyageDisruption disruption =
+                new VoyageDisruption(
+                        SampleVoyages.CM002.getVoyageNumber(),
+                        LocalDateTime.now().plusDays(2),
+                        LocalDateTime.now().plusDays(3));
+
+        when(graphTraversalResourceClient.findShortestPathAsync(
+                        anyString(), anyString(), any(), any()))
+                .thenReturn(completedFuture(List.of()));
+
+        externalRoutingService.fetchRoutesForSpecification(routeSpecification);
+        externalRoutingService.fetchRoutesForSpecification(routeSpecification, disruption);
+        externalRoutingService.fetchRoutesForSpecification(routeSpecification, disruption);
+
+        // The cached candidates may well use the disrupted voyage, so each time is searched anew.
+        verify(graphTraversalResourceClient, times(2))
+                .findShortestPathAsync(
+                        eq("CNHKG"),
+                        eq("FIHEL"),
+                        any(),
+                        argThat(
+                                excluded ->
+                                        excluded != null
+                                                && excluded.getVoyageNumber().equals("CM002")
+                                                && excluded.getFrom()
+                                                        .equals(disruption.getStart())));
+        verify(graphTraversalResourceClient, times(1))
+                .findShortestPathAsync(anyString(), anyString(), any(), isNull());
+        verify(routeTable, times(1)).find(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void testSendsTheRoutesAroundDisruptionAsOneBatch() {
+        LocalDate deadline = LocalDate.now().plusWeeks(2);
+        RouteSpecification fromHongkong =
+                new RouteSpecification(
+                        SampleLocations.HONGKONG, SampleLocations.HELSINKI, deadline);
+        RouteSpecification fromTokyo =
+                new RouteSpecification(SampleLocations.TOKYO, SampleLocations.HELSINKI, deadline);
+        VoyageDisruption disruption =
+                new VoyageDisruption(
+                        SampleVoyages.CM002.getVoyageNumber(),
+                        LocalDateTime.now().plusDays(2),
+                        LocalDateTime.now().plusDays(3));
+        TransitPath fromTokyoPath =
+                new TransitPath(
+                        List.of(
+                                new TransitEdge(
+                                        SampleVoyages.CM003.getVoyageNumber().getIdString(),
+                                        "JNTKO",
+                                        "FIHEL",
+                                        LocalDateTime.now().plusDays(4),
+                                        LocalDateTime.now().plusDays(9))));
+
+        when(voyageRepository.findAll(anyCollection())).thenReturn(List.of(SampleVoyages.CM003));
+        when(locationRepository.findAll(anyCollection()))
+                .thenReturn(List.of(SampleLocations.TOKYO, SampleLocations.HELSINKI));
+        List<ShortestPathQuery> sent = new ArrayList<>();
+        when(graphTraversalResourceClient.findShortestPathsAsync(any()))
+                .thenAnswer(
+                        invocation -> {
+                            List<ShortestPathQuery> queries = invocation.getArgument(0);
+                            sent.addAll(queries);
+                            Map<String, List<TransitPath>> answer = new HashMap<>();
+                            for (ShortestPathQuery query : queries) {
+                                answer.put(
+                                        query.getId(),
+                                        query.getOrigin().equals("JNTKO")
+                                                ? List.of(fromTokyoPath)
+                                                : List.of());
+                            }
+                            return completedFuture(answer);
+                        });
+
+        Map<RouteSpecification, List<Itinerary>> itineraries =
+                externalRoutingService.fetchRoutesForSpecifications(
+                        List.of(fromHongkong, fromTokyo), disruption);
+
+        verify(graphTraversalResourceClient, times(1)).findShortestPathsAsync(any());
+        assertThat(sent)
+                .hasSize(2)
+                .allMatch(query -> query.getExcludedVoyage().equals("CM002"))
+                .allMatch(
+                        query -> query.getExcludedFrom().equals(disruption.getStart().toString()));
+        // Both answers are translated with one lookup per kind.
+        verify(voyageRepository, times(1)).findAll(anyCollection());
+        verifyNoInteractions(routeTable);
+        assertThat(itineraries.get(fromHongkong)).isEmpty();
+        assertThat(itineraries.get(fromTokyo)).hasSize(1);
+        assertThat(itineraries.get(fromTokyo).get(0).getLegs().get(0).getVoyage())
+                .isEqualTo(SampleVoyages.CM003);
+    }
+
+    @Test
+    public void testStreamsRoutesAsTheyArriveAndCachesThem() {
+        RouteSpecification routeSpecification =
+                new RouteSpecification(
+                        SampleLocations.HONGKONG,
+                        SampleLocations.HELSINKI,
+                        LocalDate.now().plusMonths(1));
+        TransitPath transitPath =
+                new TransitPath(
+                        List.of(
+                                new TransitEdge(
+                                        "CM002",
+                                        "CNHKG",
+                                        "FIHEL",
+                                        LocalDateTime.now().plusDays(1),
+                                        LocalDateTime.now().plusDays(20))));
+
+        when(voyageRepository.findAll(anyCollection())).thenReturn(List.of(SampleVoyages.CM002));
+        when(locationRepository.findAll(anyCollection()))
+                .thenReturn(List.of(SampleLocations.HONGKONG, SampleLocations.HELSINKI));
+        when(graphTraversalResourceClient.streamShortestPath(
+                        anyString(), anyString(), any(), anyInt(), any()))
+                .thenAnswer(
+                        invocation -> {
+                            invocation.<Consumer<TransitPath>>getArgument(4).accept(transitPath);
+                            return completedFuture(null);
+                        });
+
+        List<Itinerary> streamed = new ArrayList<>();
+        externalRoutingService
+                .streamRoutesForSpecification(routeSpecification, streamed::add)
+                .toCompletableFuture()
+                .join();
+        List<Itinerary> cached = new ArrayList<>();
+        externalRoutingService
+                .streamRoutesForSpecification(routeSpecification, cached::add)
+                .toCompletableFuture()
+                .join();
+
+        assertThat(streamed).hasSize(1);
+        assertThat(cached).hasSize(1);
+        verify(graphTraversalResourceClient, times(1))
+                .streamShortestPath(
+                        eq("CNHKG"),
+                        eq("FIHEL"),
+                        any(),
+                        eq(ExternalRoutingService.CANDIDATE_COUNT),
+                        any());
+        verify(graphTraversalResourceClient, never())
+                .findShortestPathAsync(anyString(), anyString(), any(), isNull());
+    }
 }
@@ -0,0 +1,120 @@
+package org.eclipse.cargotracker.infrastructure.routing;
+
+import org.eclipse.cargotracker.domain.model.cargo.Itinerary;
+import org.eclipse.cargotracker.domain.model.cargo.RouteSpecification;
+import org.eclipse.cargotracker.domain.model.location.LocationRepository;
+import org.eclipse.cargotracker.domain.model.location.SampleLocations;
+import org.eclipse.cargotracker.domain.model.voyage.SampleVoyages;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageRepository;
+import org.eclipse.cargotracker.infrastructure.routing.table.RouteTable;
+import org.eclipse.pathfinder.api.GraphTraversalService;
+import org.eclipse.pathfinder.api.TransitEdge;
+import org.eclipse.pathfinder.api.TransitPath;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class InProcessRoutingServiceTest {
+
+    private final VoyageRepository voyageRepository = mock(VoyageRepository.class);
+    private final LocationRepository locationRepository = mock(LocationRepository.class);
+    private final GraphTraversalService graphTraversalService = mock(GraphTraversalService.class);
+    private final RouteCandidateCache routeCandidateCache = new RouteCandidateCache();
+    private final RouteTable routeTable = mock(RouteTable.class);
+    private InProcessRoutingService inProcessRoutingService;
+
+    @Before
+    public void setUp() {
+        // Nothing precomputed, unless a test says otherwise.
+        when(routeTable.find(anyString(), anyString(), any())).thenReturn(null);
+
+        this.inProcessRoutingService =
+                new InProcessRoutingService(
+                        locationRepository,
+                        voyageRepository,
+                        graphTraversalService,
+                        routeCandidateCache,
+                        routeTable);
+    }
+
+    @Test
+    public void testTranslatesTheSearchResultsDirectly() {
+        LocalDate deadline = LocalDate.now().plusMonths(1);
+        RouteSpecification routeSpecification =
+                new RouteSpecification(
+                        SampleLocations.HONGKONG, SampleLocations.HELSINKI, deadline);
+
+        when(voyageRepository.findAll(anyCollection())).thenReturn(List.of(SampleVoyages.CM002));
+        when(locationRepository.findAll(anyCollection()))
+                .thenReturn(List.of(SampleLocations.HONGKONG, SampleLocations.HELSINKI));
+        when(graphTraversalService.findShortestPath(
+                        anyString(), anyString(), any(LocalDate.class), anyInt()))
+                .thenReturn(
+                        List.of(
+                                new TransitPath(
+                                        List.of(
+                                                new TransitEdge(
+                                                        "CM002",
+                                                        "CNHKG",
+                                                        "FIHEL",
+                                                        LocalDateTime.now().plusDays(1),
+                                                        LocalDateTime.now().plusDays(20))))));
+
+        List<Itinerary> candidates =
+                inProcessRoutingService.fetchRoutesForSpecification(routeSpecification);
+
+        assertThat(candidates).hasSize(1);
+        assertThat(candidates.get(0).getLegs()).hasSize(1);
+        assertThat(candidates.get(0).getLegs().get(0).getVoyage())
+                .isEqualTo(SampleVoyages.CM002);
+        verify(graphTraversalService)
+                .findShortestPath(
+                        eq("CNHKG"),
+                        eq("FIHEL"),
+                        argThat((LocalDate sent) -> !sent.isBefore(deadline)),
+                        anyInt());
+    }
+
+    @Test
+    public void testCachesRoutesPerLane() {
+        RouteSpecification routeSpecification =
+                new RouteSpecification(
+                        SampleLocations.HONGKONG, SampleLocations.HELSINKI, LocalDate.now());
+
+        when(graphTraversalService.findShortestPath(
+                        anyString(), anyString(), any(LocalDate.class), anyInt()))
+                .thenReturn(List.of());
+
+        inProcessRoutingService.fetchRoutesForSpecification(routeSpecification);
+        inProcessRoutingService.fetchRoutesForSpecification(routeSpecification);
+        verify(graphTraversalService, times(1))
+                .findShortestPath(anyString(), anyString(), any(LocalDate.class), anyInt());
+
+        routeCandidateCache.onScheduleChanged(SampleVoyages.CM002);
+        inProcessRoutingService.fetchRoutesForSpecification(routeSpecification);
+        verify(graphTraversalService, times(2))
+                .findShortestPath(anyString(), anyString(), any(LocalDate.class), anyInt());
+    }
+
+    @Test
+    public void testPrefersPrecomputedRoutes() {
+        RouteSpecification routeSpecification =
+                new RouteSpecification(
+                        SampleLocations.HONGKONG, SampleLocations.HELSINKI, LocalDate.now());
+
+        when(routeTable.find(eq("CNHKG"), eq("FIHEL"), any())).thenReturn(List.of());
+
+        assertThat(inProcessRoutingService.fetchRoutesForSpecification(routeSpecification))
+                .isEmpty();
+        verifyNoInteractions(graphTraversalService);
+    }
+}
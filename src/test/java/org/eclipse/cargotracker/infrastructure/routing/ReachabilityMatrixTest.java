@@ -0,0 +1,46 @@
+package org.eclipse.cargotracker.infrastructure.routing;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReachabilityMatrixTest {
+
+    @Test
+    public void testFollowsLinksTransitively() {
+        ReachabilityMatrix matrix =
+                ReachabilityMatrix.of(
+                        Arrays.asList(
+                                new String[] {"CNHKG", "USNYC"},
+                                new String[] {"USNYC", "USDAL"},
+                                new String[] {"USDAL", "FIHEL"},
+                                new String[] {"SESTO", "DEHAM"}));
+
+        assertThat(matrix.isReachable("CNHKG", "FIHEL")).isTrue();
+        assertThat(matrix.isReachable("USNYC", "FIHEL")).isTrue();
+        assertThat(matrix.isReachable("FIHEL", "CNHKG")).isFalse();
+        assertThat(matrix.isReachable("CNHKG", "DEHAM")).isFalse();
+        assertThat(matrix.isReachable("CNHKG", "JNTKO")).isFalse();
+        assertThat(matrix.isReachable("SESTO", "DEHAM")).isTrue();
+    }
+
+    @Test
+    public void testSpansSeveralWordsPerRow() {
+        List<String[]> chain = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            chain.add(new String[] {"L" + i, "L" + (i + 1)});
+        }
+        chain.add(new String[] {"L150", "L70"});
+
+        ReachabilityMatrix matrix = ReachabilityMatrix.of(chain);
+
+        assertThat(matrix.locationCount()).isEqualTo(151);
+        assertThat(matrix.isReachable("L0", "L150")).isTrue();
+        assertThat(matrix.isReachable("L140", "L70")).isTrue();
+        assertThat(matrix.isReachable("L140", "L69")).isFalse();
+    }
+}
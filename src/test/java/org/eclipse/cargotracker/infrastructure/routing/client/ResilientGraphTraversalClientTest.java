@@ -0,0 +1,159 @@
+package org.eclipse.cargotracker.infrastructure.routing.client;
+
+import org.eclipse.pathfinder.api.TransitEdge;
+import org.eclipse.pathfinder.api.TransitPath;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ResilientGraphTraversalClientTest {
+
+    private static final LocalDate DEADLINE = LocalDate.now().plusWeeks(4);
+
+    private final GraphTraversalResourceClient graphTraversalResource =
+            mock(GraphTraversalResourceClient.class);
+    private final ScheduledExecutorService scheduledExecutorService =
+            mock(ScheduledExecutorService.class);
+    private final List<TransitPath> transitPaths =
+            List.of(
+                    new TransitPath(
+                            List.of(
+                                    new TransitEdge(
+                                            "0100S",
+                                            "CNHKG",
+                                            "USNYC",
+                                            LocalDateTime.now().plusDays(1),
+                                            LocalDateTime.now().plusDays(10)))));
+    private ResilientGraphTraversalClient client;
+
+    @Before
+    public void setUp() {
+        client =
+                new ResilientGraphTraversalClient(
+                        graphTraversalResource, scheduledExecutorService);
+
+        // Hedges go out right away rather than after a delay.
+        when(scheduledExecutorService.schedule(any(Runnable.class), anyLong(), any()))
+                .thenAnswer(
+                        invocation -> {
+                            invocation.<Runnable>getArgument(0).run();
+                            return mock(ScheduledFuture.class);
+                        });
+    }
+
+    @Test
+    public void testHedgedRequestAnswersForSlowOne() {
+        CompletableFuture<List<TransitPath>> slow = new CompletableFuture<>();
+        when(graphTraversalResource.findShortestPathAsync("CNHKG", "USNYC", DEADLINE, null))
+                .thenReturn(slow)
+                .thenReturn(completedFuture(transitPaths));
+
+        assertThat(find()).isEqualTo(transitPaths);
+        assertThat(slow).isCancelled();
+        verify(graphTraversalResource, times(2))
+                .findShortestPathAsync("CNHKG", "USNYC", DEADLINE, null);
+    }
+
+    @Test
+    public void testOpenCircuitAnswersWithLastKnownPaths() {
+        when(graphTraversalResource.findShortestPathAsync("CNHKG", "USNYC", DEADLINE, null))
+                .thenReturn(completedFuture(transitPaths))
+                .thenReturn(failedFuture(new ProcessingException("Connection refused")));
+
+        assertThat(find()).isEqualTo(transitPaths);
+
+        // Failing right away, the requests are not hedged.
+        for (int i = 0; i < 5; i++) {
+            assertThat(find()).isEqualTo(transitPaths);
+        }
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        verify(graphTraversalResource, times(6))
+                .findShortestPathAsync("CNHKG", "USNYC", DEADLINE, null);
+
+        assertThat(find()).isEqualTo(transitPaths);
+        verifyNoMoreInteractions(graphTraversalResource);
+    }
+
+    @Test
+    public void testOpenCircuitFailsFastWithoutLastKnownPaths() {
+        when(graphTraversalResource.findShortestPathAsync("CNHKG", "USNYC", DEADLINE, null))
+                .thenReturn(failedFuture(new ProcessingException("Connection refused")));
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(this::find).hasCauseInstanceOf(ProcessingException.class);
+        }
+        clearInvocations(graphTraversalResource);
+
+        assertThatThrownBy(this::find)
+                .hasCauseInstanceOf(ProcessingException.class)
+                .hasMessageContaining("circuit is open");
+        verifyNoInteractions(graphTraversalResource);
+    }
+
+    @Test
+    public void testTurnedDownRequestsDoNotOpenTheCircuit() {
+        Response badRequest = mock(Response.class);
+        when(badRequest.getStatusInfo()).thenReturn(Response.Status.BAD_REQUEST);
+        WebApplicationException turnedDown = new WebApplicationException(badRequest);
+        when(graphTraversalResource.findShortestPathAsync("CNHKG", "USNYC", DEADLINE, null))
+                .thenReturn(failedFuture(turnedDown));
+
+        for (int i = 0; i < 6; i++) {
+            assertThatThrownBy(this::find).hasCauseInstanceOf(WebApplicationException.class);
+        }
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        verify(graphTraversalResource, times(6))
+                .findShortestPathAsync("CNHKG", "USNYC", DEADLINE, null);
+    }
+
+    @Test
+    public void testFailedStreamHandsOverLastKnownPaths() {
+        when(graphTraversalResource.streamShortestPath(
+                        eq("CNHKG"), eq("USNYC"), eq(DEADLINE), eq(5), any()))
+                .thenAnswer(
+                        invocation -> {
+                            transitPaths.forEach(invocation.<Consumer<TransitPath>>getArgument(4));
+                            return completedFuture(null);
+                        })
+                .thenReturn(failedFuture(new ProcessingException("Connection refused")));
+
+        assertThat(stream()).isEqualTo(transitPaths);
+        assertThat(stream()).isEqualTo(transitPaths);
+        verify(graphTraversalResource, times(2))
+                .streamShortestPath(eq("CNHKG"), eq("USNYC"), eq(DEADLINE), eq(5), any());
+    }
+
+    private List<TransitPath> find() {
+        return client.findShortestPathAsync("CNHKG", "USNYC", DEADLINE)
+                .toCompletableFuture()
+                .join();
+    }
+
+    private List<TransitPath> stream() {
+        List<TransitPath> streamed = new ArrayList<>();
+        client.streamShortestPath("CNHKG", "USNYC", DEADLINE, 5, streamed::add)
+                .toCompletableFuture()
+                .join();
+        return streamed;
+    }
+}
@@ -0,0 +1,90 @@
+package org.eclipse.cargotracker.infrastructure.routing.table;
+
+import org.eclipse.pathfinder.api.TransitEdge;
+import org.eclipse.pathfinder.api.TransitPath;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class RouteTableTest {
+
+    private static final LocalDate DEADLINE = LocalDate.now().plusWeeks(2);
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+
+    @SuppressWarnings("unchecked")
+    private final TypedQuery<RouteTableEntry> query = mock(TypedQuery.class, RETURNS_SELF);
+
+    private RouteTable routeTable;
+
+    @Before
+    public void setUp() {
+        when(entityManager.createNamedQuery(anyString(), eq(RouteTableEntry.class)))
+                .thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of());
+
+        routeTable = new RouteTable(entityManager, Logger.getLogger(RouteTable.class.getName()));
+    }
+
+    @Test
+    public void testKeepsRoutesComputedSinceTheLastChange() {
+        routeTable.onScheduleChanged("CM001");
+        RouteTableEntry entry = entry(LocalDateTime.now());
+
+        routeTable.store(List.of(entry));
+        verify(entityManager).persist(entry);
+
+        when(query.getResultList()).thenReturn(List.of(entry));
+        assertThat(routeTable.find("CNHKG", "FIHEL", DEADLINE)).hasSize(1);
+    }
+
+    @Test
+    public void testDropsRoutesOfARunOverlappingAChange() {
+        // The nightly run starts, the schedules change and are cleared, then the run writes.
+        RouteTableEntry entry = entry(LocalDateTime.now().minusMinutes(1));
+        routeTable.onScheduleChanged("CM001");
+        routeTable.store(List.of(entry));
+
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    public void testIgnoresRoutesWrittenJustBeforeAChange() {
+        // The run writes, then the schedules change before the clear gets to the entry.
+        RouteTableEntry entry = entry(LocalDateTime.now().minusMinutes(1));
+        routeTable.store(List.of(entry));
+        verify(entityManager).persist(entry);
+        routeTable.onScheduleChanged("CM001");
+
+        when(query.getResultList()).thenReturn(List.of(entry));
+        assertThat(routeTable.find("CNHKG", "FIHEL", DEADLINE)).isNull();
+    }
+
+    private static RouteTableEntry entry(LocalDateTime computedAt) {
+        return new RouteTableEntry(
+                "CNHKG",
+                "FIHEL",
+                DEADLINE,
+                computedAt,
+                List.of(
+                        new TransitPath(
+                                List.of(
+                                        new TransitEdge(
+                                                "CM001",
+                                                "CNHKG",
+                                                "FIHEL",
+                                                LocalDateTime.now().plusDays(1),
+                                                LocalDateTime.now().plusDays(10))))));
+    }
+}
@@ -0,0 +1,52 @@
+package org.eclipse.cargotracker.interfaces.booking.facade.internal;
+
+import org.eclipse.cargotracker.application.BookingService;
+import org.eclipse.cargotracker.domain.model.cargo.CargoRepository;
+import org.eclipse.cargotracker.domain.model.handling.HandlingEventRepository;
+import org.eclipse.cargotracker.domain.model.location.LocationRepository;
+import org.eclipse.cargotracker.domain.model.location.SampleLocations;
+import org.eclipse.cargotracker.domain.model.location.UnLocode;
+import org.eclipse.cargotracker.domain.model.voyage.VoyageRepository;
+import org.eclipse.cargotracker.domain.service.NetworkReachability;
+import org.eclipse.cargotracker.interfaces.booking.facade.BookingServiceFacade;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class BookingServiceFacadeTest {
+
+    private final LocationRepository locationRepository = mock(LocationRepository.class);
+    private final NetworkReachability networkReachability = mock(NetworkReachability.class);
+    private BookingServiceFacade bookingServiceFacade;
+
+    @Before
+    public void setUp() {
+        bookingServiceFacade =
+                new DefaultBookingServiceFacade(
+                        mock(BookingService.class),
+                        locationRepository,
+                        mock(CargoRepository.class),
+                        mock(VoyageRepository.class),
+                        mock(HandlingEventRepository.class),
+                        networkReachability);
+
+        when(locationRepository.find(new UnLocode("CNHKG"))).thenReturn(SampleLocations.HONGKONG);
+        when(locationRepository.find(new UnLocode("FIHEL"))).thenReturn(SampleLocations.HELSINKI);
+        when(networkReachability.isReachable(SampleLocations.HONGKONG, SampleLocations.HELSINKI))
+                .thenReturn(true);
+    }
+
+    @Test
+    public void testServesReachableLocations() {
+        assertThat(bookingServiceFacade.isServed("CNHKG", "FIHEL")).isTrue();
+    }
+
+    @Test
+    public void testDoesNotServeUnknownLocations() {
+        assertThat(bookingServiceFacade.isServed("XXXXX", "FIHEL")).isFalse();
+        assertThat(bookingServiceFacade.isServed("CNHKG", "XXXXX")).isFalse();
+        verify(networkReachability, never()).isReachable(any(), any());
+    }
+}
@@ -52,6 +52,7 @@ import org.eclipse.cargotracker.domain.model.voyage.SampleVoyages;
 import org.eclipse.cargotracker.domain.model.voyage.Voyage;
 import org.eclipse.cargotracker.domain.model.voyage.VoyageNumber;
 import org.eclipse.cargotracker.domain.model.voyage.VoyageRepository;
+import org.eclipse.cargotracker.domain.service.NetworkReachability;
 import org.eclipse.cargotracker.domain.service.RoutingService;
 import org.eclipse.cargotracker.interfaces.handling.HandlingEventRegistrationAttempt;
 import org.jboss.arquillian.container.test.api.Deployment;
@@ -137,7 +138,7 @@ public class CargoLifecycleScenarioTest {
 
         addDomainService(war);
         // add fake routing service to isolate the external APIs.
-        war.addClass(RoutingServiceStub.class);
+        war.addClass(RoutingServiceStub.class).addClass(NetworkReachabilityStub.class);
 
         // add JMS package
         // addInfraMessaging(war);
@@ -835,6 +836,16 @@ public class CargoLifecycleScenarioTest {
         }
     }
 
+    @ApplicationScoped
+    public static class NetworkReachabilityStub implements NetworkReachability {
+
+        // The routes are stubbed, so is the network they would be found in.
+        @Override
+        public boolean isReachable(Location origin, Location destination) {
+            return true;
+        }
+    }
+
     @ApplicationScoped
     public static class SynchronousApplicationEventsStub implements ApplicationEvents {
 
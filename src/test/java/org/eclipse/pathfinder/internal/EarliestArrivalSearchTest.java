@@ -0,0 +1,84 @@
+package org.eclipse.pathfinder.internal;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EarliestArrivalSearchTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final TimetableGraph.Builder builder = new TimetableGraph.Builder();
+
+    private void movement(
+            String voyage, String from, String to, int departureHour, int arrivalHour) {
+        builder.addMovement(
+                voyage, from, to, T0.plusHours(departureHour), T0.plusHours(arrivalHour));
+    }
+
+    private List<String> findVoyages(String origin, String destination, LocalDateTime departure) {
+        TimetableGraph graph = builder.build();
+        int[] path =
+                new EarliestArrivalSearch(graph, Duration.ofHours(2))
+                        .find(origin, destination, departure);
+
+        List<String> voyages = new ArrayList<>();
+        for (int edge : path) {
+            voyages.add(graph.voyageNumber(edge));
+        }
+        return voyages;
+    }
+
+    @Test
+    public void testFindsEarliestArrivalInsteadOfFewestLegs() {
+        movement("V1", "CNHKG", "USNYC", 1, 100);
+        movement("V2", "CNHKG", "JNTKO", 2, 10);
+        movement("V3", "JNTKO", "USNYC", 12, 50);
+
+        assertThat(findVoyages("CNHKG", "USNYC", T0)).containsExactly("V2", "V3");
+    }
+
+    @Test
+    public void testRespectsMinimumTransshipmentTime() {
+        movement("V1", "CNHKG", "JNTKO", 0, 10);
+        movement("V2", "JNTKO", "USNYC", 11, 20);
+        movement("V3", "JNTKO", "USNYC", 12, 30);
+
+        assertThat(findVoyages("CNHKG", "USNYC", T0)).containsExactly("V1", "V3");
+    }
+
+    @Test
+    public void testStaysOnBoardWithoutTransshipmentTime() {
+        movement("V1", "CNHKG", "JNTKO", 0, 10);
+        movement("V1", "JNTKO", "USNYC", 11, 20);
+
+        assertThat(findVoyages("CNHKG", "USNYC", T0)).containsExactly("V1", "V1");
+    }
+
+    @Test
+    public void testIgnoresDeparturesInThePast() {
+        movement("V1", "CNHKG", "USNYC", 0, 10);
+
+        assertThat(findVoyages("CNHKG", "USNYC", T0.plusHours(1))).isEmpty();
+    }
+
+    @Test
+    public void testNoPathWhenConnectionLeavesBeforeArrival() {
+        movement("V1", "CNHKG", "JNTKO", 0, 10);
+        movement("V2", "JNTKO", "USNYC", 5, 20);
+
+        assertThat(findVoyages("CNHKG", "USNYC", T0)).isEmpty();
+    }
+
+    @Test
+    public void testUnknownLocationHasNoPath() {
+        movement("V1", "CNHKG", "USNYC", 0, 10);
+
+        assertThat(findVoyages("CNHKG", "SESTO", T0)).isEmpty();
+    }
+}
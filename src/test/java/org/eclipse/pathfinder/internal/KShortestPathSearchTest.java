@@ -0,0 +1,106 @@
+package org.eclipse.pathfinder.internal;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KShortestPathSearchTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final TimetableGraph.Builder builder = new TimetableGraph.Builder();
+
+    private void movement(
+            String voyage, String from, String to, int departureHour, int arrivalHour) {
+        builder.addMovement(
+                voyage, from, to, T0.plusHours(departureHour), T0.plusHours(arrivalHour));
+    }
+
+    private List<String> findPaths(String origin, String destination, Integer deadlineHour, int k) {
+        TimetableGraph graph = builder.build();
+        List<int[]> paths =
+                new KShortestPathSearch(graph, Duration.ofHours(2))
+                        .find(
+                                origin,
+                                destination,
+                                T0,
+                                deadlineHour == null ? null : T0.plusHours(deadlineHour),
+                                k);
+
+        List<String> result = new ArrayList<>();
+        for (int[] path : paths) {
+            StringBuilder voyages = new StringBuilder();
+            for (int edge : path) {
+                voyages.append(voyages.length() == 0 ? "" : ",").append(graph.voyageNumber(edge));
+            }
+            result.add(voyages.toString());
+        }
+        return result;
+    }
+
+    private void threeRoutes() {
+        movement("V1", "CNHKG", "USNYC", 0, 30);
+        movement("V2", "CNHKG", "JNTKO", 0, 10);
+        movement("V3", "JNTKO", "USNYC", 12, 20);
+        movement("V4", "CNHKG", "SESTO", 0, 5);
+        movement("V5", "SESTO", "USNYC", 10, 40);
+    }
+
+    @Test
+    public void testRanksPathsByArrival() {
+        threeRoutes();
+
+        assertThat(findPaths("CNHKG", "USNYC", null, 5)).containsExactly("V2,V3", "V1", "V4,V5");
+    }
+
+    @Test
+    public void testReturnsAtMostKPaths() {
+        threeRoutes();
+
+        assertThat(findPaths("CNHKG", "USNYC", null, 2)).containsExactly("V2,V3", "V1");
+    }
+
+    @Test
+    public void testPrunesPathsMissingTheDeadline() {
+        threeRoutes();
+
+        assertThat(findPaths("CNHKG", "USNYC", 30, 5)).containsExactly("V2,V3");
+    }
+
+    @Test
+    public void testRoutesAroundExcludedMovements() {
+        threeRoutes();
+        movement("V2", "CNHKG", "JNTKO", 30, 40);
+        TimetableGraph graph = builder.build();
+        KShortestPathSearch search = new KShortestPathSearch(graph, Duration.ofHours(2));
+
+        search.excludeVoyage("V2", T0.plusHours(5), T0.plusHours(6));
+
+        assertThat(search.find("CNHKG", "USNYC", T0, null, 5))
+                .extracting(path -> graph.voyageNumber(path[0]))
+                .containsExactly("V1", "V4");
+    }
+
+    @Test
+    public void testPrefersFewerLegsOnSameArrival() {
+        movement("V1", "CNHKG", "JNTKO", 0, 10);
+        movement("V2", "JNTKO", "USNYC", 20, 30);
+        movement("V3", "CNHKG", "USNYC", 5, 30);
+
+        assertThat(findPaths("CNHKG", "USNYC", null, 5)).containsExactly("V3", "V1,V2");
+    }
+
+    @Test
+    public void testDoesNotRevisitLocations() {
+        movement("V1", "CNHKG", "JNTKO", 0, 10);
+        movement("V2", "JNTKO", "CNHKG", 12, 20);
+        movement("V3", "CNHKG", "USNYC", 22, 30);
+
+        assertThat(findPaths("CNHKG", "USNYC", null, 5)).containsExactly("V3");
+    }
+}
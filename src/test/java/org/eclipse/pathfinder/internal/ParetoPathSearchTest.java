@@ -0,0 +1,108 @@
+package org.eclipse.pathfinder.internal;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParetoPathSearchTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2);
+
+    private final TimetableGraph.Builder builder = new TimetableGraph.Builder();
+
+    @AfterClass
+    public static void shutdownExecutor() {
+        EXECUTOR.shutdown();
+    }
+
+    private void movement(
+            String voyage, String from, String to, int departureHour, int arrivalHour) {
+        builder.addMovement(
+                voyage, from, to, T0.plusHours(departureHour), T0.plusHours(arrivalHour));
+    }
+
+    /** @return Every path as its voyages and its score, arrival hour/movements/transshipments. */
+    private List<String> findPaths(String origin, String destination, Integer deadlineHour) {
+        TimetableGraph graph = builder.build();
+        List<ParetoPathSearch.ScoredPath> paths =
+                new ParetoPathSearch(graph, Duration.ofHours(2), EXECUTOR, 2)
+                        .find(
+                                origin,
+                                destination,
+                                T0,
+                                deadlineHour == null ? null : T0.plusHours(deadlineHour));
+
+        List<String> result = new ArrayList<>();
+        for (ParetoPathSearch.ScoredPath path : paths) {
+            StringBuilder voyages = new StringBuilder();
+            for (int edge : path.getEdges()) {
+                voyages.append(voyages.length() == 0 ? "" : ",").append(graph.voyageNumber(edge));
+            }
+            long hours = (path.getArrival() - TimetableGraph.toEpochSecond(T0)) / 3600;
+            result.add(
+                    voyages
+                            + " "
+                            + hours
+                            + "/"
+                            + path.getCarrierMovements()
+                            + "/"
+                            + path.getTransshipments());
+        }
+        return result;
+    }
+
+    @Test
+    public void testKeepsPathsThatTradeSpeedForFewerTransshipments() {
+        movement("V1", "CNHKG", "JNTKO", 0, 10);
+        movement("V2", "JNTKO", "USNYC", 12, 20);
+        movement("V3", "CNHKG", "SESTO", 0, 15);
+        movement("V3", "SESTO", "USNYC", 15, 30);
+        movement("V4", "CNHKG", "USNYC", 0, 40);
+
+        assertThat(findPaths("CNHKG", "USNYC", null))
+                .containsExactly("V1,V2 20/2/1", "V3,V3 30/2/0", "V4 40/1/0");
+    }
+
+    @Test
+    public void testDropsDominatedPaths() {
+        movement("V1", "CNHKG", "USNYC", 0, 20);
+        movement("V2", "CNHKG", "JNTKO", 0, 10);
+        movement("V3", "JNTKO", "USNYC", 12, 25);
+
+        assertThat(findPaths("CNHKG", "USNYC", null)).containsExactly("V1 20/1/0");
+    }
+
+    @Test
+    public void testPrefersTheLatestDepartureOnEqualScores() {
+        movement("V1", "CNHKG", "USNYC", 0, 20);
+        movement("V2", "CNHKG", "USNYC", 10, 20);
+
+        assertThat(findPaths("CNHKG", "USNYC", null)).containsExactly("V2 20/1/0");
+    }
+
+    @Test
+    public void testPrunesPathsMissingTheDeadline() {
+        movement("V1", "CNHKG", "JNTKO", 0, 10);
+        movement("V2", "JNTKO", "USNYC", 12, 20);
+        movement("V4", "CNHKG", "USNYC", 0, 40);
+
+        assertThat(findPaths("CNHKG", "USNYC", 30)).containsExactly("V1,V2 20/2/1");
+    }
+
+    @Test
+    public void testFindsNothingWithoutDepartures() {
+        movement("V1", "USNYC", "CNHKG", 0, 10);
+
+        assertThat(findPaths("CNHKG", "USNYC", null)).isEmpty();
+    }
+}
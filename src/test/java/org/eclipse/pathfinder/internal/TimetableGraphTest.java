@@ -0,0 +1,96 @@
+package org.eclipse.pathfinder.internal;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimetableGraphTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final TimetableGraph.Builder builder = new TimetableGraph.Builder();
+
+    private void movement(
+            String voyage, String from, String to, int departureHour, int arrivalHour) {
+        builder.addMovement(
+                voyage, from, to, T0.plusHours(departureHour), T0.plusHours(arrivalHour));
+    }
+
+    private static List<String> departuresFrom(TimetableGraph graph, String unLocode) {
+        int location = graph.locationId(unLocode);
+        List<String> departures = new ArrayList<>();
+
+        for (int edge = graph.firstEdge(location); edge < graph.lastEdge(location); edge++) {
+            departures.add(
+                    graph.voyageNumber(edge)
+                            + "@"
+                            + TimetableGraph.toLocalDateTime(graph.departure(edge)).getHour());
+        }
+
+        return departures;
+    }
+
+    @Test
+    public void testUpdateReplacesTheMovementsOfAVoyage() {
+        movement("V1", "CNHKG", "JNTKO", 0, 10);
+        movement("V1", "JNTKO", "USNYC", 12, 20);
+        movement("V2", "CNHKG", "JNTKO", 5, 15);
+        TimetableGraph graph = builder.build();
+
+        TimetableGraph updated =
+                graph.update()
+                        .replaceVoyage("V1")
+                        .addMovement("V1", "CNHKG", "JNTKO", T0.plusHours(8), T0.plusHours(18))
+                        .apply();
+
+        assertThat(departuresFrom(updated, "CNHKG")).containsExactly("V2@5", "V1@8");
+        assertThat(departuresFrom(updated, "JNTKO")).isEmpty();
+        assertThat(updated.edgeCount()).isEqualTo(2);
+        // The snapshot searches may still be using is left as it was.
+        assertThat(departuresFrom(graph, "CNHKG")).containsExactly("V1@0", "V2@5");
+        assertThat(graph.edgeCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testUpdateAddsNewLocationsAndVoyages() {
+        movement("V1", "CNHKG", "JNTKO", 0, 10);
+        TimetableGraph graph = builder.build();
+
+        TimetableGraph updated =
+                graph.update()
+                        .addMovement("V2", "JNTKO", "SESTO", T0.plusHours(12), T0.plusHours(30))
+                        .apply();
+
+        assertThat(updated.locationId("CNHKG")).isEqualTo(graph.locationId("CNHKG"));
+        assertThat(updated.locationCount()).isEqualTo(3);
+        assertThat(departuresFrom(updated, "JNTKO")).containsExactly("V2@12");
+        assertThat(updated.travelTimeBounds()).isNotSameAs(graph.travelTimeBounds());
+    }
+
+    @Test
+    public void testUpdateKeepsTheBoundsUnlessMovementsGetFaster() {
+        movement("V1", "CNHKG", "JNTKO", 0, 10);
+        TimetableGraph graph = builder.build();
+
+        TimetableGraph delayed =
+                graph.update()
+                        .replaceVoyage("V1")
+                        .addMovement("V1", "CNHKG", "JNTKO", T0.plusHours(4), T0.plusHours(14))
+                        .apply();
+        TimetableGraph faster =
+                graph.update()
+                        .replaceVoyage("V1")
+                        .addMovement("V1", "CNHKG", "JNTKO", T0.plusHours(4), T0.plusHours(8))
+                        .apply();
+
+        long[] remaining = faster.travelTimeBounds().toDestination(faster.locationId("JNTKO"));
+
+        assertThat(delayed.travelTimeBounds()).isSameAs(graph.travelTimeBounds());
+        assertThat(faster.travelTimeBounds()).isNotSameAs(graph.travelTimeBounds());
+        assertThat(remaining[faster.locationId("CNHKG")]).isEqualTo(4 * 3600);
+    }
+}
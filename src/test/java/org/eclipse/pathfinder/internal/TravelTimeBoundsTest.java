@@ -0,0 +1,49 @@
+package org.eclipse.pathfinder.internal;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TravelTimeBoundsTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final long HOUR = 3600;
+
+    private final TimetableGraph.Builder builder = new TimetableGraph.Builder();
+
+    private void movement(
+            String voyage, String from, String to, int departureHour, int arrivalHour) {
+        builder.addMovement(
+                voyage, from, to, T0.plusHours(departureHour), T0.plusHours(arrivalHour));
+    }
+
+    @Test
+    public void testUsesFastestMovementPerLinkIgnoringWaits() {
+        movement("V1", "CNHKG", "JNTKO", 0, 10);
+        movement("V2", "CNHKG", "JNTKO", 50, 54);
+        movement("V3", "JNTKO", "USNYC", 100, 108);
+        TimetableGraph graph = builder.build();
+
+        long[] remaining = graph.travelTimeBounds().toDestination(graph.locationId("USNYC"));
+
+        assertThat(graph.travelTimeBounds().linkCount()).isEqualTo(2);
+        assertThat(remaining[graph.locationId("USNYC")]).isZero();
+        assertThat(remaining[graph.locationId("JNTKO")]).isEqualTo(8 * HOUR);
+        assertThat(remaining[graph.locationId("CNHKG")]).isEqualTo(12 * HOUR);
+    }
+
+    @Test
+    public void testMarksLocationsThatCannotReachTheDestination() {
+        movement("V1", "CNHKG", "JNTKO", 0, 10);
+        movement("V2", "USNYC", "SESTO", 0, 10);
+        TimetableGraph graph = builder.build();
+
+        long[] remaining = graph.travelTimeBounds().toDestination(graph.locationId("JNTKO"));
+
+        assertThat(remaining[graph.locationId("USNYC")]).isEqualTo(TravelTimeBounds.UNREACHABLE);
+        assertThat(remaining[graph.locationId("SESTO")]).isEqualTo(TravelTimeBounds.UNREACHABLE);
+        assertThat(remaining[graph.locationId("CNHKG")]).isEqualTo(10 * HOUR);
+    }
+}